@@ -0,0 +1,74 @@
+package org.oplapp.benchmark;
+
+import com.fasterxml.jackson.databind.*;
+import org.openjdk.jmh.annotations.*;
+import org.oplapp.dto.*;
+import org.oplapp.model.*;
+import org.springframework.http.converter.json.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks the JSON serialization of one page of 25 books, as typed summary page written by a pre-built writer,
+ * as the same page written by the ObjectMapper, and as the former map envelope of Book entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookPageSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter bookPageWriter;
+    private BookPage bookPage;
+    private Map<String, Object> entityPage;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bookPageWriter = objectMapper.writerFor(BookPage.class);
+
+        final List<Book> books = new ArrayList<>();
+        final List<BookSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            final Author author = new Author((long) i, "Andrea", "Meyer" + i);
+            final Publisher publisher = new Publisher((long) i % 5, "Publisher " + i % 5);
+            final Book book = new Book((long) i, "Test Book " + i, "2nd", "Novel", Set.of(author), 2000 + i, 280,
+                    "978316148410", "Some notes about the book", publisher, Set.of(new Tag((long) i, "Fiction")), "A", "1");
+            books.add(book);
+            summaries.add(new BookSummary(book.getBookId(), book.getBookTitle(), book.getEdition(), book.getGenre(),
+                    List.of(new AuthorSummary(author.getAuthorId(), author.getFirstname(), author.getLastname())),
+                    book.getPublishingYear(), book.getIsbn(), new PublisherSummary(publisher.getPublisherId(), publisher.getPublisherName()),
+                    book.getShelf(), book.getLedge()));
+        }
+
+        bookPage = new BookPage(summaries, new PageInfo(1, PAGE_SIZE, true, 1000L, 40, null));
+        entityPage = new HashMap<>();
+        entityPage.put("books", books);
+        entityPage.put("totalElements", 1000L);
+        entityPage.put("totalPages", 40);
+        entityPage.put("currentPage", 1);
+        entityPage.put("pageSize", PAGE_SIZE);
+    }
+
+
+    @Benchmark
+    public byte[] summaryPageWithPrebuiltWriter() throws Exception {
+        return bookPageWriter.writeValueAsBytes(bookPage);
+    }
+
+
+    @Benchmark
+    public byte[] summaryPageWithObjectMapper() throws Exception {
+        return objectMapper.writeValueAsBytes(bookPage);
+    }
+
+
+    @Benchmark
+    public byte[] entityMapPage() throws Exception {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+}
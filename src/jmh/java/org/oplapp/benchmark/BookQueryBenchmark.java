@@ -0,0 +1,135 @@
+package org.oplapp.benchmark;
+
+import jakarta.persistence.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+import org.oplapp.model.*;
+import org.oplapp.repository.*;
+import org.springframework.data.domain.*;
+import org.springframework.transaction.support.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks the first page of the filtered book list for several filter combinations, both as entities through
+ * queryBooks and as summaries through sliceBooks. formerQueryBooks runs the single JPQL statement queryBooks was
+ * declared with before the criteria were turned into predicates one by one, as the baseline of the comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookQueryBenchmark {
+
+    @Param({"10000"})
+    public int books;
+
+    @Param({"none", "title", "author", "publisherAndYear", "tag", "shelf", "combined"})
+    public String filter;
+
+    // The former declaration of queryBooks, the tags join is qualified with its root
+    private static final String FORMER_FILTER = "from Book as b left join b.authors as a left join b.tags as t where " +
+            "(:bookTitle is null or b.bookTitle like '%' || :bookTitle || '%') and " +
+            "(:authorId is null or a.authorId = :authorId) and " +
+            "(:authorFirstname is null or a.firstname like :authorFirstname) and " +
+            "(:authorLastname is null or a.lastname like :authorLastname) and " +
+            "(:publishedBefore is null or b.publishingYear >= :publishedBefore) and " +
+            "(:publishedAfter is null or b.publishingYear <= :publishedAfter) and " +
+            "(:isbn is null or b.isbn like :isbn) and " +
+            "(:publisherId is null or b.publisher.publisherId = :publisherId) and " +
+            "(:publisher is null or b.publisher.publisherName like :publisher) and " +
+            "(:tag is null or t.tagName like :tag) and " +
+            "(:shelf is null or b.shelf = :shelf) and " +
+            "(:ledge is null or b.ledge = :ledge)";
+
+    private CatalogDataset dataset;
+    private EntityManager entityManager;
+    private BookRepository bookRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private BookFilter bookFilter;
+    private Pageable firstPage;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dataset = new CatalogDataset("query-benchmark", books);
+        bookRepository = dataset.getBean(BookRepository.class);
+        entityManager = dataset.getBean(EntityManager.class);
+        readOnlyTransaction = dataset.readOnlyTransaction();
+        firstPage = PageRequest.of(0, 25, Sort.by("bookTitle"));
+        bookFilter = switch (filter) {
+            case "none" -> new BookFilter(null, null, null, null, null, null, null, null, null, null, null, null);
+            case "title" -> new BookFilter("River", null, null, null, null, null, null, null, null, null, null, null);
+            case "author" -> new BookFilter(null, null, "Firstname1", "Lastname1%", null, null, null, null, null, null, null, null);
+            case "publisherAndYear" -> new BookFilter(null, null, null, null, 1990, 2000, null, null, "Publisher 1%", null, null, null);
+            case "tag" -> new BookFilter(null, null, null, null, null, null, null, null, null, "Tag 1%", null, null);
+            case "shelf" -> new BookFilter(null, null, null, null, null, null, null, null, null, null, "C", "2");
+            case "combined" -> new BookFilter("Stone", null, null, "Lastname%", 1960, 2010, null, null, null, "Tag%", "A", null);
+            default -> throw new IllegalArgumentException("Unknown filter: " + filter);
+        };
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+
+    @Benchmark
+    public void queryBooks(final Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            final Page<Book> page = bookRepository.queryBooks(bookFilter, firstPage);
+            blackhole.consume(page.getTotalElements());
+            // Touches every association the same way the JSON serialization of the entities does
+            for (final Book book : page.getContent()) {
+                blackhole.consume(book.getPublisher().getPublisherName());
+                book.getAuthors().forEach(author -> blackhole.consume(author.getLastname()));
+                book.getTags().forEach(tag -> blackhole.consume(tag.getTagName()));
+            }
+        });
+    }
+
+
+    @Benchmark
+    public void formerQueryBooks(final Blackhole blackhole) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Spring Data derived the count query from the same statement and applied the publisher graph to the page
+            final EntityGraph<Book> publisherGraph = entityManager.createEntityGraph(Book.class);
+            publisherGraph.addAttributeNodes("publisher");
+            final List<Book> books = bind(entityManager.createQuery("select b " + FORMER_FILTER + " order by b.bookTitle asc", Book.class))
+                    .setHint("jakarta.persistence.loadgraph", publisherGraph)
+                    .setFirstResult((int) firstPage.getOffset())
+                    .setMaxResults(firstPage.getPageSize())
+                    .getResultList();
+            blackhole.consume(bind(entityManager.createQuery("select count(b) " + FORMER_FILTER, Long.class)).getSingleResult());
+            for (final Book book : books) {
+                blackhole.consume(book.getPublisher().getPublisherName());
+                book.getAuthors().forEach(author -> blackhole.consume(author.getLastname()));
+                book.getTags().forEach(tag -> blackhole.consume(tag.getTagName()));
+            }
+        });
+    }
+
+
+    @Benchmark
+    public Object sliceBooks() {
+        return readOnlyTransaction.execute(status -> bookRepository.sliceBooks(bookFilter, firstPage).getContent());
+    }
+
+
+    private <T> TypedQuery<T> bind(final TypedQuery<T> query) {
+        return query.setParameter("bookTitle", bookFilter.bookTitle())
+                .setParameter("authorId", bookFilter.authorId())
+                .setParameter("authorFirstname", bookFilter.authorFirstname())
+                .setParameter("authorLastname", bookFilter.authorLastname())
+                .setParameter("publishedBefore", bookFilter.publishedBefore())
+                .setParameter("publishedAfter", bookFilter.publishedAfter())
+                .setParameter("isbn", bookFilter.isbn())
+                .setParameter("publisherId", bookFilter.publisherId())
+                .setParameter("publisher", bookFilter.publisher())
+                .setParameter("tag", bookFilter.tag())
+                .setParameter("shelf", bookFilter.shelf())
+                .setParameter("ledge", bookFilter.ledge());
+    }
+}
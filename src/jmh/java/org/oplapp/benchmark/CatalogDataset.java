@@ -0,0 +1,106 @@
+package org.oplapp.benchmark;
+
+import org.oplapp.*;
+import org.oplapp.model.*;
+import org.oplapp.repository.*;
+import org.springframework.boot.*;
+import org.springframework.boot.builder.*;
+import org.springframework.context.*;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.*;
+
+import java.util.*;
+
+/**
+ * An instance of this class starts the application without a web server on an in-memory H2 database in MySQL
+ * compatibility mode and seeds it with a reproducible catalog.
+ */
+final class CatalogDataset implements AutoCloseable {
+
+    static final int PUBLISHERS = 100;
+    static final int AUTHORS = 1_000;
+    static final int TAGS = 50;
+    static final String[] GENRES = {"Novel", "Crime", "Fantasy", "Biography", "Science", "History", "Travel", "Poetry"};
+
+    private static final String[] TITLE_WORDS = {"Silent", "River", "Garden", "Night", "Winter", "Stone", "Journey",
+            "Letters", "Empire", "Shadow", "Light", "Island", "Secret", "House", "Storm", "Memory"};
+    private static final int BATCH_SIZE = 500;
+
+    private final ConfigurableApplicationContext context;
+
+
+    CatalogDataset(final String databaseName, final int books) {
+        context = new SpringApplicationBuilder(OplApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        seed(books);
+    }
+
+
+    <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+
+    TransactionTemplate readOnlyTransaction() {
+        final TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+
+    private void seed(final int books) {
+        final Random random = new Random(42);
+        final TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        final List<Publisher> publishers = new ArrayList<>();
+        final List<Author> authors = new ArrayList<>();
+        final List<Tag> tags = new ArrayList<>();
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < PUBLISHERS; i++) {
+                publishers.add(new Publisher("Publisher " + i));
+            }
+            for (int i = 0; i < AUTHORS; i++) {
+                authors.add(new Author("Firstname" + i % 97, "Lastname" + i));
+            }
+            for (int i = 0; i < TAGS; i++) {
+                tags.add(new Tag("Tag " + i));
+            }
+            context.getBean(PublisherRepository.class).saveAll(publishers);
+            context.getBean(AuthorRepository.class).saveAll(authors);
+            context.getBean(TagRepository.class).saveAll(tags);
+        });
+
+        final BookRepository bookRepository = context.getBean(BookRepository.class);
+        for (int offset = 0; offset < books; offset += BATCH_SIZE) {
+            final List<Book> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = offset; i < Math.min(offset + BATCH_SIZE, books); i++) {
+                final Set<Author> bookAuthors = new HashSet<>();
+                for (int a = random.nextInt(3); a >= 0; a--) {
+                    bookAuthors.add(authors.get(random.nextInt(AUTHORS)));
+                }
+                final Set<Tag> bookTags = new HashSet<>();
+                for (int t = random.nextInt(4); t > 0; t--) {
+                    bookTags.add(tags.get(random.nextInt(TAGS)));
+                }
+                final String title = TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " "
+                        + TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " " + i;
+
+                batch.add(new Book(null, title, null, GENRES[random.nextInt(GENRES.length)], bookAuthors,
+                        1950 + random.nextInt(74), 80 + random.nextInt(900), String.format("978%010d", i), null,
+                        publishers.get(random.nextInt(PUBLISHERS)), bookTags,
+                        String.valueOf((char) ('A' + random.nextInt(10))), String.valueOf(1 + random.nextInt(5))));
+            }
+            transaction.executeWithoutResult(status -> bookRepository.saveAll(batch));
+        }
+    }
+}
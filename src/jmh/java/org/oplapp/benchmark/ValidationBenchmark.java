@@ -0,0 +1,51 @@
+package org.oplapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.oplapp.exceptions.*;
+import org.oplapp.model.*;
+import org.oplapp.validator.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Benchmarks the bean validation of books, which runs on every save and for every imported record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    private ValidationHandler<Book> validationHandler;
+    private Book validBook;
+    private Book invalidBook;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        validationHandler = new ValidationHandler<>();
+        final Set<Author> authors = Set.of(new Author(1L, "Andrea", "Meyer"), new Author(2L, "Jan", "Schulz"));
+        final Publisher publisher = new Publisher(1L, "Test Publisher");
+        validBook = new Book(null, "Test Book", "2nd", "Novel", authors, 2022, 280, "978316148410", "Notes",
+                publisher, Set.of(new Tag("Fiction")), "A", "1");
+        invalidBook = new Book(null, "", "", null, null, -1, 0, "123", "Notes", null, null, "", "");
+    }
+
+
+    @Benchmark
+    public Book validateValidBook() {
+        validationHandler.handleValidation(validBook);
+        return validBook;
+    }
+
+
+    @Benchmark
+    public Set<String> validateInvalidBook() {
+        try {
+            validationHandler.handleValidation(invalidBook);
+            throw new IllegalStateException("Expected the book to be invalid");
+        } catch (final InvalidInstanceException exception) {
+            return exception.getErrorMessages();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.oplapp.loadtest;
+
+/**
+ * This class holds the words the generated catalog is composed of. The load driver builds its filter criteria from
+ * the same words, so that the filters match the generated data as the filters of real users match the real catalog.
+ */
+final class CatalogVocabulary {
+
+    static final String[] TITLE_WORDS = {"Silent", "River", "Garden", "Night", "Winter", "Stone", "Journey", "Letters",
+            "Empire", "Shadow", "Light", "Island", "Secret", "House", "Storm", "Memory", "Summer", "Glass", "Mountain",
+            "Harbor", "Fire", "Crown", "Forest", "Station", "Mirror", "Road", "Daughter", "Kingdom", "Salt", "Orchard",
+            "Bridge", "Wolves", "Lantern", "Tide", "Ashes", "Northern", "Last", "Hidden", "Broken", "Golden"};
+
+    static final String[] GENRES = {"Novel", "Crime", "Fantasy", "Biography", "Science", "History", "Travel",
+            "Poetry", "Children", "Cooking", "Philosophy", "Art"};
+
+    static final String[] FIRSTNAMES = {"Anna", "Thomas", "Maria", "Michael", "Laura", "Peter", "Julia", "Daniel",
+            "Sarah", "Martin", "Lena", "Jonas", "Clara", "Felix", "Sophie", "Paul", "Emma", "David", "Hannah", "Lukas",
+            "Elena", "Simon", "Nora", "Jakob", "Alice", "Oscar", "Mia", "Henry", "Ida", "Samuel"};
+
+    static final String[] LASTNAMES = {"Miller", "Schmidt", "Smith", "Fischer", "Weber", "Meyer", "Wagner", "Becker",
+            "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf", "Brown", "Neumann", "Schwarz", "Zimmermann",
+            "Taylor", "Wilson", "Hartmann", "Lange", "Werner", "Krause", "Lehmann", "Walker", "Kaiser", "Fuchs",
+            "Peters", "Scholz", "Moore", "Clark", "Keller", "Berger", "Frank", "Roth", "Beck", "Lorenz", "Baumann",
+            "Young"};
+
+    static final String[] PUBLISHER_WORDS = {"Northern", "Blue", "Harbor", "Oak", "Lantern", "Meridian", "Granite",
+            "Willow", "Beacon", "Atlas", "Riverside", "Crescent"};
+
+    static final String[] PUBLISHER_SUFFIXES = {"Press", "Books", "Publishing", "House", "Editions", "Verlag"};
+
+    static final String[] TAGS = {"bestseller", "classic", "signed", "first-edition", "hardcover", "paperback",
+            "illustrated", "translated", "award-winner", "series", "short-stories", "anthology", "reference",
+            "out-of-print", "large-print", "annotated", "biography", "local-author", "gift", "damaged", "new-arrival",
+            "staff-pick", "book-club", "young-adult", "nonfiction", "historical", "mystery", "romance", "sci-fi",
+            "horror", "humor", "travel", "cooking", "art", "music", "nature", "politics", "religion", "science",
+            "sports", "technology", "poetry", "drama", "essays", "letters", "memoir", "philosophy", "psychology"};
+
+
+    private CatalogVocabulary() {
+    }
+}
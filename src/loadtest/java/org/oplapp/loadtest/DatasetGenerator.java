@@ -0,0 +1,295 @@
+package org.oplapp.loadtest;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Generates a reproducible synthetic catalog directly into a database created from books-definition-mysql-8.0.29.sql,
+ * using JDBC batches instead of the application. Popularity follows Zipf distributions, so a few authors, publishers,
+ * tags and shelves account for most of the books as in a real catalog. Rows are appended above the current maximum
+ * ids and the id sequence tables are moved past them, an already running application has to be restarted to see the
+ * new totals and titles.
+ * <p>
+ * Run with: mvn -P loadtest test-compile exec:java@seed -Dloadtest.books=100000
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>loadtest.jdbc-url, default jdbc:mysql://localhost:3306/Books_library</li>
+ *     <li>loadtest.jdbc-user, default root</li>
+ *     <li>loadtest.jdbc-password, default empty</li>
+ *     <li>loadtest.books, the amount of books to generate, default 100000</li>
+ *     <li>loadtest.seed, the seed of the random generator, default 42</li>
+ * </ul>
+ */
+public final class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    // Books per author, publisher and tag, and the skew of their popularity
+    private static final int BOOKS_PER_AUTHOR = 3;
+    private static final int BOOKS_PER_PUBLISHER = 400;
+    private static final double AUTHOR_SKEW = 1.07;
+    private static final double PUBLISHER_SKEW = 1.2;
+    private static final double TAG_SKEW = 0.9;
+    private static final double SHELF_SKEW = 0.6;
+
+    // Weights of 1 to 5 authors and of 0 to 6 tags per book
+    private static final Zipf AUTHORS_PER_BOOK = Zipf.weighted(72, 19, 6, 2, 1);
+    private static final Zipf TAGS_PER_BOOK = Zipf.weighted(15, 25, 25, 18, 10, 5, 2);
+    private static final Zipf EDITIONS = Zipf.weighted(80, 15, 5);
+    private static final String[] EDITION_NAMES = {"1st", "2nd", "3rd"};
+    private static final int LEDGES = 6;
+
+    private final Connection connection;
+    private final Random random;
+
+
+    public DatasetGenerator(final Connection connection, final Random random) {
+        this.connection = connection;
+        this.random = random;
+    }
+
+
+    public static void main(final String[] args) throws SQLException {
+        final String url = System.getProperty("loadtest.jdbc-url", "jdbc:mysql://localhost:3306/Books_library");
+        final String user = System.getProperty("loadtest.jdbc-user", "root");
+        final String password = System.getProperty("loadtest.jdbc-password", "");
+        final int books = Integer.getInteger("loadtest.books", 100_000);
+        final long seed = Long.getLong("loadtest.seed", 42L);
+
+        final Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("user", user);
+        connectionProperties.setProperty("password", password);
+        // Lets Connector/J send each batch as multi-row INSERT statements
+        connectionProperties.setProperty("rewriteBatchedStatements", "true");
+
+        try (Connection connection = DriverManager.getConnection(url, connectionProperties)) {
+            new DatasetGenerator(connection, new Random(seed)).generate(books);
+        }
+    }
+
+
+    /**
+     * Generates the given amount of books together with their authors, publishers and tags.
+     *
+     * @param books the given amount of books
+     * @throws SQLException if a statement fails, the batch being written is rolled back
+     */
+    public void generate(final int books) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            final long started = System.nanoTime();
+            final long[] publisherIds = insertPublishers(Math.max(10, books / BOOKS_PER_PUBLISHER));
+            final long[] authorIds = insertAuthors(Math.max(50, books / BOOKS_PER_AUTHOR));
+            final long[] tagIds = insertTags();
+            insertBooks(books, publisherIds, authorIds, tagIds);
+            advanceSequences();
+
+            System.out.printf("Generated %d books, %d authors, %d publishers and %d tags in %d s%n", books,
+                    authorIds.length, publisherIds.length, tagIds.length, (System.nanoTime() - started) / 1_000_000_000);
+        } catch (final SQLException | RuntimeException exception) {
+            connection.rollback();
+            throw exception;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+
+    private long[] insertPublishers(final int count) throws SQLException {
+        final long firstId = nextId("Publisher", "publisher_id");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO Publisher (publisher_id, publisher_name) VALUES (?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                insert.setLong(1, firstId + i);
+                insert.setString(2, pick(CatalogVocabulary.PUBLISHER_WORDS) + " " + pick(CatalogVocabulary.PUBLISHER_SUFFIXES)
+                        + (i < CatalogVocabulary.PUBLISHER_WORDS.length ? "" : " " + (i + 1)));
+                insert.addBatch();
+                executeBatchIfFull(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return ids(firstId, count);
+    }
+
+
+    private long[] insertAuthors(final int count) throws SQLException {
+        final long firstId = nextId("Author", "author_id");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO Author (author_id, firstname, lastname) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                insert.setLong(1, firstId + i);
+                insert.setString(2, pick(CatalogVocabulary.FIRSTNAMES));
+                insert.setString(3, pick(CatalogVocabulary.LASTNAMES));
+                insert.addBatch();
+                executeBatchIfFull(insert, i + 1);
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return ids(firstId, count);
+    }
+
+
+    private long[] insertTags() throws SQLException {
+        final long firstId = nextId("Tag", "tag_id");
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO Tag (tag_id, tag_name) VALUES (?, ?)")) {
+            for (int i = 0; i < CatalogVocabulary.TAGS.length; i++) {
+                insert.setLong(1, firstId + i);
+                insert.setString(2, CatalogVocabulary.TAGS[i]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return ids(firstId, CatalogVocabulary.TAGS.length);
+    }
+
+
+    private void insertBooks(final int count, final long[] publisherIds, final long[] authorIds, final long[] tagIds)
+            throws SQLException {
+        final Zipf publishers = new Zipf(publisherIds.length, PUBLISHER_SKEW);
+        final Zipf authors = new Zipf(authorIds.length, AUTHOR_SKEW);
+        final Zipf tags = new Zipf(tagIds.length, TAG_SKEW);
+        final Zipf shelves = new Zipf(26, SHELF_SKEW);
+        final Zipf genres = new Zipf(CatalogVocabulary.GENRES.length, 0.8);
+        final Zipf titleWords = new Zipf(CatalogVocabulary.TITLE_WORDS.length, 0.7);
+
+        final long firstId = nextId("Book", "book_id");
+        try (PreparedStatement insertBook = connection.prepareStatement("INSERT INTO Book (book_id, book_title, edition, "
+                + "genre, publishing_year, page_count, isbn, notes, publisher_id, shelf, ledge) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertAuthor = connection.prepareStatement("INSERT INTO Book_Authors (book_id, author_id) VALUES (?, ?)");
+             PreparedStatement insertTag = connection.prepareStatement("INSERT INTO Book_Tags (book_id, tag_id) VALUES (?, ?)")) {
+
+            for (int i = 0; i < count; i++) {
+                final long bookId = firstId + i;
+                insertBook.setLong(1, bookId);
+                insertBook.setString(2, title(titleWords));
+                insertBook.setString(3, EDITION_NAMES[EDITIONS.next(random)]);
+                insertBook.setString(4, CatalogVocabulary.GENRES[genres.next(random)]);
+                insertBook.setInt(5, publishingYear());
+                insertBook.setInt(6, (int) Math.max(40, Math.min(1500, 320 + random.nextGaussian() * 120)));
+                insertBook.setString(7, String.format("978%010d", bookId % 10_000_000_000L));
+                insertBook.setString(8, random.nextInt(20) == 0 ? "Donated" : null);
+                insertBook.setLong(9, publisherIds[publishers.next(random)]);
+                // A few books are not shelved yet
+                final boolean shelved = random.nextInt(100) >= 3;
+                insertBook.setString(10, shelved ? String.valueOf((char) ('A' + shelves.next(random))) : null);
+                insertBook.setString(11, shelved ? String.valueOf(1 + random.nextInt(LEDGES)) : null);
+                insertBook.addBatch();
+
+                for (final int author : distinct(authors, 1 + AUTHORS_PER_BOOK.next(random))) {
+                    insertAuthor.setLong(1, bookId);
+                    insertAuthor.setLong(2, authorIds[author]);
+                    insertAuthor.addBatch();
+                }
+                for (final int tag : distinct(tags, TAGS_PER_BOOK.next(random))) {
+                    insertTag.setLong(1, bookId);
+                    insertTag.setLong(2, tagIds[tag]);
+                    insertTag.addBatch();
+                }
+
+                if ((i + 1) % BATCH_SIZE == 0 || i + 1 == count) {
+                    // The join table rows reference the books, which therefore have to be inserted first
+                    insertBook.executeBatch();
+                    insertAuthor.executeBatch();
+                    insertTag.executeBatch();
+                    connection.commit();
+                }
+                if ((i + 1) % (BATCH_SIZE * 50) == 0) {
+                    System.out.printf("%d of %d books generated%n", i + 1, count);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Moves the tables emulating the id sequences above the generated ids, as the application reserves its ids from
+     * them. The tables are missing until the application has applied its migrations for the first time, in which
+     * case the migration itself starts them above the existing ids.
+     */
+    private void advanceSequences() throws SQLException {
+        for (final String[] table : new String[][]{{"Author", "author_id"}, {"Publisher", "publisher_id"},
+                {"Book", "book_id"}, {"Tag", "tag_id"}}) {
+            final String sequenceTable = table[0] + "_seq";
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, sequenceTable, null)) {
+                if (!tables.next()) {
+                    continue;
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE " + sequenceTable + " SET next_val = GREATEST(next_val, "
+                        + "(SELECT COALESCE(MAX(" + table[1] + "), 0) + 51 FROM " + table[0] + "))");
+            }
+        }
+        connection.commit();
+    }
+
+
+    private long nextId(final String table, final String idColumn) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+
+    private String title(final Zipf titleWords) {
+        final StringBuilder title = new StringBuilder(random.nextInt(3) == 0 ? "The " : "");
+        final int words = 1 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                title.append(random.nextInt(4) == 0 ? " of the " : " ");
+            }
+            title.append(CatalogVocabulary.TITLE_WORDS[titleWords.next(random)]);
+        }
+        return title.toString();
+    }
+
+
+    private int publishingYear() {
+        // Most of a catalog is recent, with a long tail of older books
+        final int era = random.nextInt(10);
+        if (era < 6) {
+            return 1990 + random.nextInt(34);
+        } else if (era < 9) {
+            return 1950 + random.nextInt(40);
+        }
+        return 1800 + random.nextInt(150);
+    }
+
+
+    private Set<Integer> distinct(final Zipf distribution, final int count) {
+        final Set<Integer> drawn = new LinkedHashSet<>();
+        // The join tables are unique per pair, so values drawn twice are drawn again
+        for (int attempt = 0; drawn.size() < count && attempt < count * 10; attempt++) {
+            drawn.add(distribution.next(random));
+        }
+        return drawn;
+    }
+
+
+    private String pick(final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+
+    private static void executeBatchIfFull(final PreparedStatement statement, final int rows) throws SQLException {
+        if (rows % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+
+
+    private static long[] ids(final long firstId, final int count) {
+        final long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = firstId + i;
+        }
+        return ids;
+    }
+}
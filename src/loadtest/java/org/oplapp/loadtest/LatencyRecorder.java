@@ -0,0 +1,76 @@
+package org.oplapp.loadtest;
+
+import java.util.*;
+
+/**
+ * An instance of this class records the latencies of the requests to one endpoint. Each worker thread records into
+ * its own instances, which are merged after the run, so recording needs no synchronization.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private boolean sorted;
+
+
+    void record(final long latencyNanos, final boolean failed) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        sorted = false;
+        if (failed) {
+            errors++;
+        }
+    }
+
+
+    void merge(final LatencyRecorder other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+        sorted = false;
+    }
+
+
+    int count() {
+        return count;
+    }
+
+
+    long errors() {
+        return errors;
+    }
+
+
+    /**
+     * Returns the latency below or at which the given percentage of the requests completed.
+     *
+     * @param percentile the given percentage, between 0 and 100
+     * @return the latency in milliseconds, 0 if nothing was recorded
+     */
+    double percentileMillis(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(latencies, 0, count);
+            sorted = true;
+        }
+        final int rank = (int) Math.ceil(percentile / 100 * count);
+        return latencies[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+
+    double meanMillis() {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += latencies[i];
+        }
+        return count == 0 ? 0 : sum / (count * 1_000_000.0);
+    }
+}
@@ -0,0 +1,323 @@
+package org.oplapp.loadtest;
+
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.node.*;
+
+import java.io.*;
+import java.net.*;
+import java.net.http.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Replays a mixed workload against a running application and reports latency percentiles and throughput per
+ * endpoint. Each worker sends its next request as soon as the previous one is answered, so the concurrency is the
+ * amount of simultaneous users. Requests completed during the warmup are not recorded. The ids requested and
+ * referenced are taken from the catalog before the run, the filter criteria are composed of the words of the
+ * generated dataset.
+ * <p>
+ * Run with: mvn -P loadtest test-compile exec:java@load -Dloadtest.concurrency=32 -Dloadtest.duration=PT2M
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>loadtest.base-url, default http://localhost:8080/api</li>
+ *     <li>loadtest.concurrency, the amount of workers, default 16</li>
+ *     <li>loadtest.warmup, default PT10S</li>
+ *     <li>loadtest.duration, the recorded time after the warmup, default PT1M</li>
+ *     <li>loadtest.mix, the relative weights of the operations, default filter=60,book=25,create=5,statistics=10</li>
+ *     <li>loadtest.seed, the seed of the random generators, default 42</li>
+ *     <li>loadtest.result-file, the JSON report, default target/loadtest-result.json</li>
+ * </ul>
+ */
+public final class LoadDriver {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int ID_SAMPLE_PAGES = 10;
+    private static final int ID_SAMPLE_PAGE_SIZE = 100;
+
+    /**
+     * The operations of the workload, each recorded as one endpoint.
+     */
+    enum Operation {
+        FILTER("filter", "GET /books/filter"),
+        BOOK("book", "GET /books/{id}"),
+        CREATE("create", "POST /books"),
+        STATISTICS("statistics", "GET /statistics");
+
+        private final String key;
+        private final String endpoint;
+
+        Operation(final String key, final String endpoint) {
+            this.key = key;
+            this.endpoint = endpoint;
+        }
+    }
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final long[] bookIds;
+    private final long[] authorIds;
+    private final long[] publisherIds;
+
+
+    LoadDriver(final HttpClient client, final URI baseUri, final long[] bookIds, final long[] authorIds,
+               final long[] publisherIds) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.bookIds = bookIds;
+        this.authorIds = authorIds;
+        this.publisherIds = publisherIds;
+    }
+
+
+    public static void main(final String[] args) throws Exception {
+        final URI baseUri = URI.create(System.getProperty("loadtest.base-url", "http://localhost:8080/api") + "/");
+        final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT1M"));
+        final Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix", "filter=60,book=25,create=5,statistics=10"));
+        final long seed = Long.getLong("loadtest.seed", 42L);
+        final Path resultFile = Path.of(System.getProperty("loadtest.result-file", "target/loadtest-result.json"));
+
+        final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        final LoadDriver driver = sampleIds(client, baseUri);
+        System.out.printf("Running %d workers for %s after a warmup of %s against %s%n", concurrency, duration, warmup, baseUri);
+        final Map<Operation, LatencyRecorder> results = driver.run(concurrency, warmup, duration, mix, seed);
+
+        report(results, duration, resultFile);
+    }
+
+
+    /**
+     * Runs the workload with the given amount of workers and returns the latencies recorded after the warmup.
+     *
+     * @param concurrency the given amount of workers
+     * @param warmup      the given time whose requests are not recorded
+     * @param duration    the given time to record after the warmup
+     * @param mix         the given relative weights of the operations
+     * @param seed        the given seed, worker n using seed + n
+     * @return a Map of Operation and LatencyRecorder
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    Map<Operation, LatencyRecorder> run(final int concurrency, final Duration warmup, final Duration duration,
+                                        final Map<Operation, Integer> mix, final long seed) throws InterruptedException {
+        final Operation[] operations = mix.keySet().toArray(Operation[]::new);
+        final Zipf operationMix = Zipf.weighted(mix.values().stream().mapToDouble(Integer::doubleValue).toArray());
+        final long recordFrom = System.nanoTime() + warmup.toNanos();
+        final long end = recordFrom + duration.toNanos();
+
+        final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        final List<Future<Map<Operation, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int n = 0; n < concurrency; n++) {
+            final Random random = new Random(seed + n);
+            futures.add(workers.submit(() -> work(random, operations, operationMix, recordFrom, end)));
+        }
+        workers.shutdown();
+
+        final Map<Operation, LatencyRecorder> results = new EnumMap<>(Operation.class);
+        for (final Future<Map<Operation, LatencyRecorder>> future : futures) {
+            try {
+                future.get().forEach((operation, recorder) ->
+                        results.computeIfAbsent(operation, key -> new LatencyRecorder()).merge(recorder));
+            } catch (final ExecutionException exception) {
+                throw new IllegalStateException("A worker failed", exception.getCause());
+            }
+        }
+        return results;
+    }
+
+
+    private Map<Operation, LatencyRecorder> work(final Random random, final Operation[] operations, final Zipf operationMix,
+                                                 final long recordFrom, final long end) {
+        final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        while (System.nanoTime() < end) {
+            final Operation operation = operations[operationMix.next(random)];
+            final HttpRequest request = request(operation, random);
+
+            final long started = System.nanoTime();
+            boolean failed;
+            try {
+                final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (final IOException exception) {
+                failed = true;
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            final long finished = System.nanoTime();
+
+            if (started >= recordFrom && finished <= end) {
+                recorders.computeIfAbsent(operation, key -> new LatencyRecorder()).record(finished - started, failed);
+            }
+        }
+        return recorders;
+    }
+
+
+    private HttpRequest request(final Operation operation, final Random random) {
+        return switch (operation) {
+            case FILTER -> get("books/filter?" + filterQuery(random));
+            case BOOK -> get("books/" + bookIds[random.nextInt(bookIds.length)]);
+            case CREATE -> HttpRequest.newBuilder(baseUri.resolve("books"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(newBook(random)))
+                    .build();
+            // The summary is served from counters, the aggregates from a snapshot, both should stay flat under load
+            case STATISTICS -> get(random.nextBoolean() ? "statistics/summary" : "statistics/aggregates");
+        };
+    }
+
+
+    private HttpRequest get(final String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+
+    /**
+     * Composes the query string of a filter request, mostly browsing the first pages of a single criterion as users
+     * do, sometimes combining criteria or paging deeper.
+     */
+    private String filterQuery(final Random random) {
+        final StringJoiner query = new StringJoiner("&");
+        switch (random.nextInt(8)) {
+            case 0 -> query.add("bookTitle=" + pick(CatalogVocabulary.TITLE_WORDS, random));
+            case 1 -> query.add("authorLName=" + pick(CatalogVocabulary.LASTNAMES, random));
+            case 2 -> query.add("authorId=" + authorIds[random.nextInt(authorIds.length)]);
+            case 3 -> query.add("publisherId=" + publisherIds[random.nextInt(publisherIds.length)]);
+            case 4 -> {
+                final int from = 1950 + random.nextInt(70);
+                query.add("publishedBefore=" + from).add("publishedAfter=" + (from + random.nextInt(10)));
+            }
+            case 5 -> query.add("tag=" + pick(CatalogVocabulary.TAGS, random));
+            case 6 -> query.add("shelf=" + (char) ('A' + random.nextInt(6))).add("ledge=" + (1 + random.nextInt(6)));
+            default -> query.add("bookTitle=" + pick(CatalogVocabulary.TITLE_WORDS, random))
+                    .add("tag=" + pick(CatalogVocabulary.TAGS, random))
+                    .add("publishedBefore=1980");
+        }
+        query.add("page=" + (random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(20)));
+        query.add("size=25");
+        // Following pages are requested without the total, as a client keeping it from the first page would
+        if (random.nextInt(3) > 0) {
+            query.add("withTotal=false");
+        }
+        return query.toString();
+    }
+
+
+    private String newBook(final Random random) {
+        final ObjectNode book = objectMapper.createObjectNode();
+        book.put("bookTitle", pick(CatalogVocabulary.TITLE_WORDS, random) + " " + pick(CatalogVocabulary.TITLE_WORDS, random));
+        book.put("genre", pick(CatalogVocabulary.GENRES, random));
+        book.putArray("authors").addObject().put("authorId", authorIds[random.nextInt(authorIds.length)]);
+        book.put("publishingYear", 1990 + random.nextInt(34));
+        book.put("pageCount", 100 + random.nextInt(500));
+        book.put("isbn", String.format("979%010d", random.nextInt(1_000_000_000)));
+        book.putObject("publisher").put("publisherId", publisherIds[random.nextInt(publisherIds.length)]);
+        book.put("shelf", String.valueOf((char) ('A' + random.nextInt(26))));
+        book.put("ledge", String.valueOf(1 + random.nextInt(6)));
+        return book.toString();
+    }
+
+
+    /**
+     * Reads the ids of books, authors and publishers from the first pages of the book list.
+     */
+    private static LoadDriver sampleIds(final HttpClient client, final URI baseUri) throws IOException, InterruptedException {
+        final Set<Long> bookIds = new LinkedHashSet<>();
+        final Set<Long> authorIds = new LinkedHashSet<>();
+        final Set<Long> publisherIds = new LinkedHashSet<>();
+
+        for (int page = 1; page <= ID_SAMPLE_PAGES; page++) {
+            final HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("books/filter?withTotal=false&size="
+                    + ID_SAMPLE_PAGE_SIZE + "&page=" + page)).GET().build();
+            final HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Sampling ids failed with status " + response.statusCode() + ": " + response.body());
+            }
+
+            final JsonNode body = objectMapper.readTree(response.body());
+            for (final JsonNode book : body.path("books")) {
+                bookIds.add(book.path("bookId").asLong());
+                book.path("authors").forEach(author -> authorIds.add(author.path("authorId").asLong()));
+                publisherIds.add(book.path("publisher").path("publisherId").asLong());
+            }
+            if (!body.path("hasNext").asBoolean()) {
+                break;
+            }
+        }
+        if (bookIds.isEmpty() || authorIds.isEmpty()) {
+            throw new IllegalStateException("The catalog is empty, generate a dataset first");
+        }
+
+        return new LoadDriver(client, baseUri, toArray(bookIds), toArray(authorIds), toArray(publisherIds));
+    }
+
+
+    private static Map<Operation, Integer> parseMix(final String mix) {
+        final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (final String entry : mix.split(",")) {
+            final String[] keyAndWeight = entry.trim().split("=");
+            final Operation operation = Arrays.stream(Operation.values())
+                    .filter(candidate -> candidate.key.equals(keyAndWeight[0]))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation in loadtest.mix: " + entry));
+            final int weight = Integer.parseInt(keyAndWeight[1]);
+            if (weight > 0) {
+                weights.put(operation, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix contains no operation: " + mix);
+        }
+        return weights;
+    }
+
+
+    private static void report(final Map<Operation, LatencyRecorder> results, final Duration duration, final Path resultFile)
+            throws IOException {
+        final double seconds = duration.toNanos() / 1_000_000_000.0;
+        final ArrayNode endpoints = objectMapper.createArrayNode();
+
+        System.out.printf("%n%-20s %10s %8s %10s %10s %10s %10s%n", "Endpoint", "Requests", "Errors", "Req/s",
+                "Mean ms", "p50 ms", "p99 ms");
+        for (final Map.Entry<Operation, LatencyRecorder> result : results.entrySet()) {
+            final LatencyRecorder recorder = result.getValue();
+            final double throughput = recorder.count() / seconds;
+            System.out.printf("%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", result.getKey().endpoint, recorder.count(),
+                    recorder.errors(), throughput, recorder.meanMillis(), recorder.percentileMillis(50),
+                    recorder.percentileMillis(99));
+
+            endpoints.addObject()
+                    .put("endpoint", result.getKey().endpoint)
+                    .put("requests", recorder.count())
+                    .put("errors", recorder.errors())
+                    .put("throughput", throughput)
+                    .put("meanMillis", recorder.meanMillis())
+                    .put("p50Millis", recorder.percentileMillis(50))
+                    .put("p99Millis", recorder.percentileMillis(99));
+        }
+
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultFile.toFile(), endpoints);
+        System.out.printf("%nResults written to %s%n", resultFile);
+    }
+
+
+    private static String pick(final String[] values, final Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+
+    private static long[] toArray(final Set<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,56 @@
+package org.oplapp.loadtest;
+
+import java.util.*;
+
+/**
+ * An instance of this class draws indexes from 0 to n - 1 with Zipf distributed probabilities, the index k being
+ * drawn with a probability proportional to 1 / (k + 1)^exponent. Low indexes are the popular ones.
+ */
+final class Zipf {
+
+    private final double[] cumulative;
+
+
+    Zipf(final int n, final double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+
+    /**
+     * Creates a distribution over the given weights, the index k being drawn with a probability proportional to
+     * weights[k].
+     *
+     * @param weights the given weights
+     * @return a Zipf instance drawing the indexes of the weights
+     */
+    static Zipf weighted(final double... weights) {
+        final Zipf distribution = new Zipf(weights.length, 0);
+        double sum = 0;
+        for (int k = 0; k < weights.length; k++) {
+            sum += weights[k];
+            distribution.cumulative[k] = sum;
+        }
+        for (int k = 0; k < weights.length; k++) {
+            distribution.cumulative[k] /= sum;
+        }
+        return distribution;
+    }
+
+
+    int next(final Random random) {
+        final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index + 1 : -index - 1, cumulative.length - 1);
+    }
+}
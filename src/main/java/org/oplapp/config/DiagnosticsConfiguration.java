@@ -0,0 +1,58 @@
+package org.oplapp.config;
+
+import net.ttddyy.dsproxy.support.*;
+import org.aopalliance.intercept.*;
+import org.oplapp.diagnostics.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.config.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.context.annotation.*;
+import org.springframework.data.repository.core.support.*;
+
+import javax.sql.*;
+
+/**
+ * This class connects the QueryTracer with the DataSource and the repositories. It is only active if
+ * oplapp.diagnostics.enabled is set to true, otherwise the DataSource is left unwrapped.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "oplapp.diagnostics.enabled")
+public class DiagnosticsConfiguration {
+
+    /**
+     * Wraps the DataSource into a proxy reporting each statement, and each row fetched from a result set, to the
+     * QueryTracer. Adds advice to every repository proxy, which attributes the statements to the invoked method.
+     *
+     * @param queryTracer the provider of the QueryTracer instance
+     * @return a BeanPostProcessor instance
+     */
+    @Bean
+    static BeanPostProcessor queryTracingPostProcessor(final ObjectProvider<QueryTracer> queryTracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> {
+                                final String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation ->
+                                        queryTracer.getObject().traceRepositoryInvocation(repository, invocation));
+                            }));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(queryTracer.getObject())
+                            .methodListener(queryTracer.getObject())
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package org.oplapp.config;
+
+import org.aopalliance.intercept.*;
+import org.oplapp.metrics.*;
+import org.oplapp.repository.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.config.*;
+import org.springframework.context.annotation.*;
+import org.springframework.data.repository.core.support.*;
+
+/**
+ * This class registers the application's metrics with the components they measure. The HTTP handlers, the
+ * repositories, the connection pool and Hibernate's statistics are measured by Spring Boot's auto-configuration,
+ * see the management properties in application.properties.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfiguration {
+
+    /**
+     * Adds BookQueryMetrics as advice to the BookRepository proxy. The advice is looked up on the first repository
+     * invocation, as post processors are created before the meter registry exists.
+     *
+     * @param bookQueryMetrics the provider of the BookQueryMetrics instance
+     * @return a BeanPostProcessor instance customizing the repository factories
+     */
+    @Bean
+    static BeanPostProcessor bookQueryMetricsPostProcessor(final ObjectProvider<BookQueryMetrics> bookQueryMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> {
+                                if (BookRepository.class.equals(repositoryInformation.getRepositoryInterface())) {
+                                    proxyFactory.addAdvice((MethodInterceptor) invocation ->
+                                            bookQueryMetrics.getObject().invoke(invocation));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package org.oplapp.config;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.dataformat.cbor.*;
+import com.fasterxml.jackson.dataformat.smile.*;
+import org.oplapp.dto.*;
+import org.springframework.http.*;
+import org.springframework.http.converter.*;
+import org.springframework.stereotype.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * An instance of this class writes the page records of the list endpoints as JSON, CBOR or Smile, as negotiated by
+ * the Accept header. Unlike the generic Jackson converters, which resolve the serializer of the returned object on
+ * every response, it uses one ObjectWriter per encoding and page type, built with the root serializer already
+ * resolved. Spring Boot registers it ahead of the default converters.
+ */
+@Component
+public class PageMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final List<Class<?>> PAGE_TYPES = List.of(BookPage.class, BookGridPage.class, BookCompactPage.class,
+            AuthorPage.class, PublisherPage.class);
+
+    private final Map<MediaType, Map<Class<?>, ObjectWriter>> writers = new LinkedHashMap<>();
+
+
+    public PageMessageConverter(final ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+        // The binary encodings share the modules and settings of the JSON mapper
+        addWriters(MediaType.APPLICATION_JSON, objectMapper);
+        addWriters(MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory()));
+        addWriters(APPLICATION_SMILE, objectMapper.copyWith(new SmileFactory()));
+    }
+
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return PAGE_TYPES.contains(clazz);
+    }
+
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+
+    @Override
+    protected Object readInternal(final Class<?> clazz, final HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Page types are not accepted as request bodies", inputMessage);
+    }
+
+
+    @Override
+    protected void writeInternal(final Object page, final HttpOutputMessage outputMessage) throws IOException {
+        writersFor(outputMessage.getHeaders().getContentType()).get(page.getClass()).writeValue(outputMessage.getBody(), page);
+    }
+
+
+    private void addWriters(final MediaType mediaType, final ObjectMapper objectMapper) {
+        final Map<Class<?>, ObjectWriter> pageWriters = new HashMap<>();
+        for (final Class<?> pageType : PAGE_TYPES) {
+            // The response stream is closed by the container, not by Jackson
+            pageWriters.put(pageType, objectMapper.writerFor(pageType).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+        }
+        writers.put(mediaType, pageWriters);
+    }
+
+
+    private Map<Class<?>, ObjectWriter> writersFor(final MediaType contentType) {
+        if (contentType != null) {
+            for (final Map.Entry<MediaType, Map<Class<?>, ObjectWriter>> entry : writers.entrySet()) {
+                if (entry.getKey().isCompatibleWith(contentType)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return writers.get(MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,32 @@
+package org.oplapp.config;
+
+import java.lang.reflect.*;
+import java.util.concurrent.*;
+
+/**
+ * This class creates executors running each task on a new virtual thread. The application is compiled for Java 17,
+ * so the Java 21 API is looked up at runtime.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+
+    /**
+     * Creates an executor starting a new virtual thread for each task.
+     *
+     * @return an ExecutorService instance
+     * @throws IllegalStateException if the runtime does not support virtual threads
+     */
+    static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final NoSuchMethodException | InvocationTargetException exception) {
+            // Java 19 and 20 only provide virtual threads as a preview feature
+            throw new IllegalStateException("Virtual threads require Java 21, running on " + Runtime.version(), exception);
+        } catch (final IllegalAccessException exception) {
+            throw new IllegalStateException("Virtual threads could not be created", exception);
+        }
+    }
+}
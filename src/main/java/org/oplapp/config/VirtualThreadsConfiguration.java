@@ -0,0 +1,122 @@
+package org.oplapp.config;
+
+import com.zaxxer.hikari.*;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.*;
+import org.apache.coyote.*;
+import org.oplapp.datasource.*;
+import org.springframework.beans.factory.config.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.autoconfigure.task.*;
+import org.springframework.boot.web.embedded.tomcat.*;
+import org.springframework.context.annotation.*;
+import org.springframework.core.*;
+import org.springframework.core.env.*;
+import org.springframework.core.task.*;
+import org.springframework.core.task.support.*;
+import org.springframework.scheduling.annotation.*;
+
+import javax.sql.*;
+import java.sql.*;
+import java.time.*;
+
+/**
+ * This class switches request handling to virtual threads if oplapp.threads.mode is set to virtual. Tomcat then
+ * runs each request, and Spring MVC each asynchronous request part, on a new virtual thread instead of a pooled
+ * platform thread. As the amount of concurrent requests is no longer bounded by a pool, the connections borrowed
+ * from Hikari are limited by a ConcurrencyLimitingDataSource. Requires a Java 21 runtime.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "oplapp.threads.mode", havingValue = "virtual")
+public class VirtualThreadsConfiguration {
+
+    /**
+     * Replaces the thread pool of Tomcat's connectors by a virtual thread per task executor.
+     *
+     * @return a TomcatProtocolHandlerCustomizer instance
+     */
+    @Bean
+    TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newPerTaskExecutor());
+    }
+
+
+    /**
+     * Replaces the application task executor used for asynchronous requests, e.g. the streamed exports.
+     *
+     * @return an AsyncTaskExecutor instance
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newPerTaskExecutor());
+    }
+
+
+    /**
+     * Limits the connections borrowed from Hikari at once to oplapp.datasource.max-concurrency, the maximum pool
+     * size by default. Callers wait up to oplapp.datasource.acquire-timeout, the pool's connection timeout by default.
+     *
+     * @param environment the given environment
+     * @return a BeanPostProcessor instance
+     */
+    @Bean
+    static BeanPostProcessor concurrencyLimitingPostProcessor(final Environment environment) {
+        return new ConcurrencyLimitingPostProcessor(environment);
+    }
+
+
+    /**
+     * Exposes the available permits and the waiting callers of the limiter as gauges.
+     *
+     * @param dataSource the given DataSource
+     * @return a MeterBinder instance
+     */
+    @Bean
+    MeterBinder concurrencyLimitingDataSourceMetrics(final DataSource dataSource) {
+        return meterRegistry -> {
+            final ConcurrencyLimitingDataSource limiter;
+            try {
+                limiter = dataSource.unwrap(ConcurrencyLimitingDataSource.class);
+            } catch (final SQLException exception) {
+                return;
+            }
+            Gauge.builder("oplapp.datasource.permits.available", limiter, ConcurrencyLimitingDataSource::getAvailablePermits)
+                    .description("Connections which may be borrowed without waiting")
+                    .register(meterRegistry);
+            Gauge.builder("oplapp.datasource.permits.waiting", limiter, ConcurrencyLimitingDataSource::getQueueLength)
+                    .description("Callers waiting for a connection permit")
+                    .register(meterRegistry);
+        };
+    }
+
+
+    /**
+     * Wraps the HikariDataSource before any other post processor, e.g. the tracing proxy, wraps it further.
+     */
+    private static final class ConcurrencyLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        private ConcurrencyLimitingPostProcessor(final Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            if (bean instanceof HikariDataSource hikariDataSource) {
+                final int maxConcurrency = environment.getProperty("oplapp.datasource.max-concurrency", Integer.class,
+                        hikariDataSource.getMaximumPoolSize());
+                final Duration acquireTimeout = environment.getProperty("oplapp.datasource.acquire-timeout", Duration.class,
+                        Duration.ofMillis(hikariDataSource.getConnectionTimeout()));
+                return new ConcurrencyLimitingDataSource(hikariDataSource, maxConcurrency, acquireTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.oplapp.controller;
+
+import org.oplapp.diagnostics.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+/**
+ * Controller class providing diagnostic api endpoints for the operators of the application. The slow queries contain
+ * bound parameters, i.e. user data, and the api is not authenticated, so the endpoints only exist if
+ * oplapp.diagnostics.enabled is set to true.
+ */
+@RestController
+@ConditionalOnProperty(name = "oplapp.diagnostics.enabled")
+@RequestMapping(path = "/admin")
+public class AdminController {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public AdminController(final SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+
+    /**
+     * Get getSlowQueries: returns the slowest of the recently captured slow queries, with their bound parameters,
+     * the issuing repository method and request, and the execution plan if already explained.
+     *
+     * @param limit the maximum amount of slow queries to return
+     * @return a ResponseEntity of type List of SlowQuery, ordered by descending execution time
+     */
+    @GetMapping(path = "/slow-queries")
+    public ResponseEntity<List<SlowQuery>> getSlowQueries(@RequestParam(defaultValue = "10") final int limit) {
+        final List<SlowQuery> slowQueries = slowQueryLog.slowest(limit);
+        return new ResponseEntity<>(slowQueries, HttpStatus.OK);
+    }
+}
@@ -1,9 +1,12 @@
 package org.oplapp.controller;
 
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.service.*;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.*;
 
 import java.util.*;
 
@@ -22,14 +25,30 @@ public class AuthorController {
 
 
     /**
-     * Get authorById: returns an author as JSON if found in the database.
+     * Get authorById: returns an author as JSON if found in the database, or 304 if the client's copy is unchanged.
      * @param authorId the given author id
      * @return a ResponseEntity of type Author
      */
     @GetMapping(path = "/{authorId}")
     public ResponseEntity<Author> getAuthorById(@PathVariable("authorId") final Long authorId) {
         final Author author = authorService.getAuthorById(authorId);
-        return new ResponseEntity<>(author, HttpStatus.OK);
+
+        return ConditionalResponses.ok(author);
+    }
+
+
+    /**
+     * Get authorsByIds: returns the authors with the given ids as JSON, queried at once. Ids which do not exist are
+     * listed as missing instead of failing the whole request.
+     *
+     * @param authorIds the given author ids, either comma separated or as repeated parameters
+     * @return a ResponseEntity of type BatchResult of Author
+     */
+    @GetMapping(params = {"ids", "!cursor"})
+    public ResponseEntity<BatchResult<Author>> getAuthorsByIds(@RequestParam(name = "ids") final List<Long> authorIds) {
+        final BatchResult<Author> authors = authorService.getAuthorsByIds(authorIds);
+
+        return new ResponseEntity<>(authors, HttpStatus.OK);
     }
 
 
@@ -37,14 +56,16 @@ public class AuthorController {
      * Get authors: returns all authors as JSON.
      * @param page the given page number
      * @param size the amount of items that should be present on a page
-     * @return a ResponseEntity of type Map of String and Object, containing a list of Author instances and pagination information
+     * @param withTotal whether the total amount is counted (true), skipped (false) or estimated (estimate)
+     * @return a ResponseEntity of type AuthorPage, containing a list of AuthorSummary instances and pagination information
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllAuthors(
+    public ResponseEntity<AuthorPage> getAllAuthors(
             @RequestParam(defaultValue = "0") final int page,
-            @RequestParam(defaultValue = "25") final int size
+            @RequestParam(defaultValue = "25") final int size,
+            @RequestParam(defaultValue = "true") final String withTotal
     ) {
-        final Map<String, Object> response = authorService.getAllAuthors(page, size);
+        final AuthorPage response = authorService.getAllAuthors(page, size, TotalMode.fromParameter(withTotal));
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
@@ -54,21 +75,62 @@ public class AuthorController {
      * Get authors: returns the filtered authors as JSON.
      * @param authorFirstname the given author's firstname
      * @param authorLastname  the given author's lastname
-     * @return a ResponseEntity of type Map of String and Object, containing a list of Author instances and pagination information
+     * @param withTotal whether the total amount is counted (true), skipped (false) or estimated (estimate)
+     * @return a ResponseEntity of type AuthorPage, containing a list of AuthorSummary instances and pagination information
      */
     @GetMapping(path = "/filter")
-    public ResponseEntity<Map<String, Object>> filterAuthors(
+    public ResponseEntity<AuthorPage> filterAuthors(
             @RequestParam(name = "firstname", required = false) final String authorFirstname,
             @RequestParam(name = "lastname", required = false) final String authorLastname,
             @RequestParam(defaultValue = "0") final int page,
-            @RequestParam(defaultValue = "25") final int size
+            @RequestParam(defaultValue = "25") final int size,
+            @RequestParam(defaultValue = "true") final String withTotal
     ) {
-        final Map<String, Object> filteredAuthors = authorService.filterAuthors(authorFirstname, authorLastname, page, size);
+        final AuthorPage filteredAuthors = authorService.filterAuthors(authorFirstname, authorLastname, page, size, TotalMode.fromParameter(withTotal));
 
         return new ResponseEntity<>(filteredAuthors, HttpStatus.OK);
     }
 
 
+    /**
+     * Get authors: streams the (optionally filtered) authors as NDJSON or server-sent events, ordered by lastname and
+     * id. Selected instead of the paginated variants if the client accepts one of these media types.
+     * @param authorFirstname the given author's firstname
+     * @param authorLastname  the given author's lastname
+     * @param windowSize the amount of authors queried at once
+     * @return a Flux of type AuthorSummary
+     */
+    @GetMapping(path = {"", "/filter"}, produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<AuthorSummary> streamAuthors(
+            @RequestParam(name = "firstname", required = false) final String authorFirstname,
+            @RequestParam(name = "lastname", required = false) final String authorLastname,
+            @RequestParam(defaultValue = "100") final int windowSize
+    ) {
+        return authorService.streamAuthors(authorFirstname, authorLastname, windowSize);
+    }
+
+
+    /**
+     * Get authors: returns a keyset paginated window of the (optionally filtered) authors as JSON. Selected instead of
+     * the offset based variants as soon as a cursor parameter is present, an empty cursor requests the first window.
+     * @param authorFirstname the given author's firstname
+     * @param authorLastname  the given author's lastname
+     * @param cursor the given cursor token
+     * @param size the amount of items that should be present on a page
+     * @return a ResponseEntity of type Map of String and Object, containing a list of Author instances and the neighbouring cursors
+     */
+    @GetMapping(path = {"", "/filter"}, params = "cursor")
+    public ResponseEntity<Map<String, Object>> seekAuthors(
+            @RequestParam(name = "firstname", required = false) final String authorFirstname,
+            @RequestParam(name = "lastname", required = false) final String authorLastname,
+            @RequestParam(name = "cursor") final String cursor,
+            @RequestParam(defaultValue = "25") final int size
+    ) {
+        final Map<String, Object> response = authorService.seekAuthors(authorFirstname, authorLastname, cursor, size);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Post author: inserts a new author or updates an existing one
      * @param author the given author
@@ -82,6 +144,21 @@ public class AuthorController {
     }
 
 
+    /**
+     * Post authors in batch: inserts or updates all valid authors of the given array in a single transaction. Invalid
+     * authors and authors with an outdated version are reported by their position instead of failing the batch.
+     *
+     * @param authors the given authors
+     * @return a ResponseEntity of type BatchWriteResult of Author
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<BatchWriteResult<Author>> saveOrUpdateAuthors(@RequestBody final List<Author> authors) {
+        final BatchWriteResult<Author> result = authorService.saveOrUpdateAuthors(authors);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+
     /**
      * Delete author: Deletes the associated author if it's existing in the database.
      * @param authorId the given author id
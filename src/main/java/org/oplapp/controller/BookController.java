@@ -1,10 +1,16 @@
 package org.oplapp.controller;
 
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.service.*;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.*;
+import reactor.core.publisher.*;
 
+import java.io.*;
+import java.nio.charset.*;
 import java.util.*;
 
 
@@ -16,14 +22,20 @@ import java.util.*;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
 
-    public BookController(final BookService bookService) {
+    public BookController(final BookService bookService, final BookImportService bookImportService,
+                          final BookExportService bookExportService) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
     }
 
 
     /**
-     * Get bookById: returns a book as JSON if found in the database.
+     * Get bookById: returns a book as JSON if found in the database. The ETag covers the book, its publisher, its
+     * authors and its tags, a conditional request for an unchanged book is answered with 304.
      *
      * @param bookId the given book id
      * @return a ResponseEntity of type Book
@@ -32,7 +44,22 @@ public class BookController {
     public ResponseEntity<Book> getBookById(@PathVariable("bookId") final Long bookId) {
         final Book book = bookService.getBookById(bookId);
 
-        return new ResponseEntity<>(book, HttpStatus.OK);
+        return ConditionalResponses.ok(book, ConditionalResponses.partsOf(book));
+    }
+
+
+    /**
+     * Get booksByIds: returns the books with the given ids as JSON, queried at once. Ids which do not exist are
+     * listed as missing instead of failing the whole request.
+     *
+     * @param bookIds the given book ids, either comma separated or as repeated parameters
+     * @return a ResponseEntity of type BatchResult of Book
+     */
+    @GetMapping(params = {"ids", "!cursor"})
+    public ResponseEntity<BatchResult<Book>> getBooksByIds(@RequestParam(name = "ids") final List<Long> bookIds) {
+        final BatchResult<Book> books = bookService.getBooksByIds(bookIds);
+
+        return new ResponseEntity<>(books, HttpStatus.OK);
     }
 
 
@@ -41,14 +68,18 @@ public class BookController {
      *
      * @param page the given page number
      * @param size the amount of items that should be present on a page
-     * @return a ResponseEntity of type Map of String and Object, containing a list of Book instances and pagination information
+     * @param withTotal whether the total amount is counted (true), skipped (false) or estimated (estimate)
+     * @param view the columns to list, the list view (summary), title, authors and year only (grid) or the list view with shared authors and publishers (compact)
+     * @return a ResponseEntity of type BookListPage, containing a list of books in the given view and pagination information
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllBooks(
+    public ResponseEntity<BookListPage> getAllBooks(
             @RequestParam(defaultValue = "0") final int page,
-            @RequestParam(defaultValue = "25") final int size
+            @RequestParam(defaultValue = "25") final int size,
+            @RequestParam(defaultValue = "true") final String withTotal,
+            @RequestParam(defaultValue = "summary") final String view
     ) {
-        final Map<String, Object> response = bookService.getAllBooks(page, size);
+        final BookListPage response = bookService.getAllBooks(page, size, TotalMode.fromParameter(withTotal), BookView.fromParameter(view));
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
@@ -71,10 +102,12 @@ public class BookController {
      * @param ledge           the given ledge
      * @param page            the given page number
      * @param size            the amount of items that should be present on a page
-     * @return a ResponseEntity of type Map of String and Object, containing a list of Book instances and pagination information
+     * @param withTotal       whether the total amount is counted (true), skipped (false) or estimated (estimate)
+     * @param view            the columns to list, the list view (summary), title, authors and year only (grid) or the list view with shared authors and publishers (compact)
+     * @return a ResponseEntity of type BookListPage, containing a list of books in the given view and pagination information
      */
     @GetMapping(path = "/filter")
-    public ResponseEntity<Map<String, Object>> filterBooks(
+    public ResponseEntity<BookListPage> filterBooks(
             @RequestParam(name = "bookTitle", required = false) final String bookTitle,
             @RequestParam(name = "authorId", required = false) final Long authorId,
             @RequestParam(name = "authorFName", required = false) final String authorFirstname,
@@ -88,14 +121,155 @@ public class BookController {
             @RequestParam(name = "shelf", required = false) final String shelf,
             @RequestParam(name = "ledge", required = false) final String ledge,
             @RequestParam(defaultValue = "1") final int page,
+            @RequestParam(defaultValue = "25") final int size,
+            @RequestParam(defaultValue = "true") final String withTotal,
+            @RequestParam(defaultValue = "summary") final String view
+    ) {
+        final BookListPage response = bookService.filterBooks(bookTitle, authorId, authorFirstname, authorLastname, publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge, page, size, TotalMode.fromParameter(withTotal), BookView.fromParameter(view));
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+
+    /**
+     * Get books: Streams all books matching the given filter criteria as NDJSON or server-sent events, ordered by
+     * title and id. Selected instead of the paginated variant if the client accepts one of these media types. The
+     * books are written as they are queried, without holding a request thread while waiting for the client.
+     *
+     * @param bookTitle       the given book title
+     * @param authorId        the given author id
+     * @param authorFirstname the given author firstname
+     * @param authorLastname  the given author lastname
+     * @param publishedBefore the given publishing year min
+     * @param publishedAfter  the given publishing year max
+     * @param isbn            the given isbn
+     * @param publisherId     the given publisher id
+     * @param publisher       the given publisher name
+     * @param tag             the given tag
+     * @param shelf           the given shelf
+     * @param ledge           the given ledge
+     * @param windowSize      the amount of books queried at once
+     * @return a Flux of type BookSummary
+     */
+    @GetMapping(path = "/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BookSummary> streamFilteredBooks(
+            @RequestParam(name = "bookTitle", required = false) final String bookTitle,
+            @RequestParam(name = "authorId", required = false) final Long authorId,
+            @RequestParam(name = "authorFName", required = false) final String authorFirstname,
+            @RequestParam(name = "authorLName", required = false) final String authorLastname,
+            @RequestParam(name = "publishedBefore", required = false) final Integer publishedBefore,
+            @RequestParam(name = "publishedAfter", required = false) final Integer publishedAfter,
+            @RequestParam(name = "isbn", required = false) final String isbn,
+            @RequestParam(name = "publisherId", required = false) final Long publisherId,
+            @RequestParam(name = "publisher", required = false) final String publisher,
+            @RequestParam(name = "tag", required = false) final String tag,
+            @RequestParam(name = "shelf", required = false) final String shelf,
+            @RequestParam(name = "ledge", required = false) final String ledge,
+            @RequestParam(defaultValue = "100") final int windowSize
+    ) {
+        return bookService.streamFilteredBooks(bookTitle, authorId, authorFirstname, authorLastname, publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge, windowSize);
+    }
+
+
+    /**
+     * Get books: Returns a keyset paginated window of all books as JSON. Selected instead of the offset based
+     * variant as soon as a cursor parameter is present, an empty cursor requests the first window.
+     *
+     * @param cursor the given cursor token
+     * @param size   the amount of items that should be present on a page
+     * @return a ResponseEntity of type Map of String and Object, containing a list of Book instances and the neighbouring cursors
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<Map<String, Object>> seekAllBooks(
+            @RequestParam(name = "cursor") final String cursor,
             @RequestParam(defaultValue = "25") final int size
     ) {
-        final Map<String, Object> response = bookService.filterBooks(bookTitle, authorId, authorFirstname, authorLastname, publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge, page, size);
+        final Map<String, Object> response = bookService.seekAllBooks(cursor, size);
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
 
+    /**
+     * Get books: Returns a keyset paginated window of the books matching the given filter criteria as JSON.
+     * Selected instead of the offset based variant as soon as a cursor parameter is present.
+     *
+     * @param bookTitle       the given book title
+     * @param authorId        the given author id
+     * @param authorFirstname the given author firstname
+     * @param authorLastname  the given author lastname
+     * @param publishedBefore the given publishing year min
+     * @param publishedAfter  the given publishing year max
+     * @param isbn            the given isbn
+     * @param publisherId     the given publisher id
+     * @param publisher       the given publisher name
+     * @param tag             the given tag
+     * @param shelf           the given shelf
+     * @param ledge           the given ledge
+     * @param cursor          the given cursor token
+     * @param size            the amount of items that should be present on a page
+     * @return a ResponseEntity of type Map of String and Object, containing a list of Book instances and the neighbouring cursors
+     */
+    @GetMapping(path = "/filter", params = "cursor")
+    public ResponseEntity<Map<String, Object>> seekFilteredBooks(
+            @RequestParam(name = "bookTitle", required = false) final String bookTitle,
+            @RequestParam(name = "authorId", required = false) final Long authorId,
+            @RequestParam(name = "authorFName", required = false) final String authorFirstname,
+            @RequestParam(name = "authorLName", required = false) final String authorLastname,
+            @RequestParam(name = "publishedBefore", required = false) final Integer publishedBefore,
+            @RequestParam(name = "publishedAfter", required = false) final Integer publishedAfter,
+            @RequestParam(name = "isbn", required = false) final String isbn,
+            @RequestParam(name = "publisherId", required = false) final Long publisherId,
+            @RequestParam(name = "publisher", required = false) final String publisher,
+            @RequestParam(name = "tag", required = false) final String tag,
+            @RequestParam(name = "shelf", required = false) final String shelf,
+            @RequestParam(name = "ledge", required = false) final String ledge,
+            @RequestParam(name = "cursor") final String cursor,
+            @RequestParam(defaultValue = "25") final int size
+    ) {
+        final Map<String, Object> response = bookService.seekFilteredBooks(bookTitle, authorId, authorFirstname, authorLastname, publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge, cursor, size);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Get books: Returns the books whose titles match the given full text query as JSON, ranked by relevance.
+     *
+     * @param query the given search query
+     * @param size  the maximum amount of books to return
+     * @return a ResponseEntity of type Map of String and Object, containing a ranked list of Book instances
+     */
+    @GetMapping(path = "/search")
+    public ResponseEntity<Map<String, Object>> searchBooks(
+            @RequestParam(name = "q") final String query,
+            @RequestParam(defaultValue = "25") final int size
+    ) {
+        final Map<String, Object> response = bookService.searchBooks(query, size);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Get books export: Streams all books with their authors, publisher and tags as NDJSON or CSV.
+     *
+     * @param format the given export format, either ndjson or csv
+     * @return a ResponseEntity of type StreamingResponseBody
+     */
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") final String format) {
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(bookExportService::exportNdjson);
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.csv\"")
+                    .body(bookExportService::exportCsv);
+            default -> throw new IllegalArgumentException("Unsupported export format: " + format);
+        };
+    }
+
+
     /**
      * Post books: Inserts a new book or updates an existing one.
      *
@@ -110,6 +284,50 @@ public class BookController {
     }
 
 
+    /**
+     * Post books in batch: inserts or updates all valid books of the given array in a single transaction. Invalid
+     * books and books with an outdated version are reported by their position instead of failing the batch. Unlike
+     * the bulk import, references are given by id and the saved books are returned.
+     *
+     * @param books the given books
+     * @return a ResponseEntity of type BatchWriteResult of Book
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<BatchWriteResult<Book>> saveOrUpdateBooks(@RequestBody final List<Book> books) {
+        final BatchWriteResult<Book> result = bookService.saveOrUpdateBooks(books);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+
+    /**
+     * Post books in bulk: Imports the books of a JSON array, which is read while it is uploaded.
+     *
+     * @param body the given request body
+     * @return a ResponseEntity of type ImportReport
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReport> importBooksFromJson(final InputStream body) {
+        final ImportReport report = bookImportService.importJson(body);
+
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+
+    /**
+     * Post books in bulk: Imports the books of a CSV document with a header line, which is read while it is uploaded.
+     *
+     * @param body the given request body
+     * @return a ResponseEntity of type ImportReport
+     */
+    @PostMapping(path = "/bulk", consumes = "text/csv")
+    public ResponseEntity<ImportReport> importBooksFromCsv(final InputStream body) {
+        final ImportReport report = bookImportService.importCsv(body);
+
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+
     /**
      * Delete book: Deletes the associated book if it's existing in the database.
      *
@@ -122,4 +340,18 @@ public class BookController {
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+
+    /**
+     * Delete books: Deletes the books with the given ids at once. Ids which do not exist are skipped.
+     *
+     * @param bookIds the given book ids, either comma separated or as repeated parameters
+     * @return a ResponseEntity of type DeleteReport
+     */
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<DeleteReport> deleteBooksByIds(@RequestParam(name = "ids") final List<Long> bookIds) {
+        final DeleteReport report = bookService.deleteBooksByIds(bookIds);
+
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
 }
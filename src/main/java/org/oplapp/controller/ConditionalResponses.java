@@ -0,0 +1,108 @@
+package org.oplapp.controller;
+
+import org.oplapp.model.*;
+import org.springframework.http.*;
+import org.springframework.util.*;
+
+import java.nio.charset.*;
+import java.time.*;
+import java.util.*;
+
+/**
+ * This class creates the responses of the endpoints returning a single entity. They carry a strong ETag derived
+ * from the versions of the entities the representation is composed of and a Last-Modified header. Spring MVC answers
+ * a matching If-None-Match or If-Modified-Since request with 304 before the body is serialized.
+ */
+final class ConditionalResponses {
+
+    private static final Comparator<Long> BY_ID = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private ConditionalResponses() {
+    }
+
+
+    /**
+     * Creates a 200 response for the given entity, whose representation does not include other versioned entities.
+     *
+     * @param entity the given entity
+     * @param <T>    the given datatype
+     * @return a ResponseEntity of type T
+     */
+    static <T extends Versioned> ResponseEntity<T> ok(final T entity) {
+        return ok(entity, List.of(entity));
+    }
+
+
+    /**
+     * Creates a 200 response for the given body, whose representation is composed of the given entities.
+     *
+     * @param body  the given body
+     * @param parts the entities the representation is composed of in a stable order, null entries are skipped
+     * @param <T>   the given datatype
+     * @return a ResponseEntity of type T
+     */
+    static <T> ResponseEntity<T> ok(final T body, final List<? extends Versioned> parts) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag(parts));
+        final Instant lastModified = lastModified(parts);
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+
+        return response.body(body);
+    }
+
+
+    /**
+     * Derives the ETag of a representation composed of the given entities. A single entity is tagged by its version,
+     * several by the version of the first followed by a digest of all versions.
+     *
+     * @param parts the given entities in a stable order, null entries are skipped
+     * @return the ETag value, quoted as a strong ETag
+     */
+    static String eTag(final List<? extends Versioned> parts) {
+        final List<String> versions = parts.stream()
+                .filter(Objects::nonNull)
+                .map(part -> String.valueOf(part.getVersion()))
+                .toList();
+        if (versions.size() == 1) {
+            return "\"" + versions.get(0) + "\"";
+        }
+
+        final String digest = DigestUtils.md5DigestAsHex(String.join(".", versions).getBytes(StandardCharsets.UTF_8));
+        return "\"" + versions.get(0) + "-" + digest.substring(0, 16) + "\"";
+    }
+
+
+    /**
+     * Returns the latest modification of the given entities.
+     *
+     * @param parts the given entities, null entries are skipped
+     * @return an Instant or null if no entity carries a modification time
+     */
+    static Instant lastModified(final List<? extends Versioned> parts) {
+        return parts.stream()
+                .filter(Objects::nonNull)
+                .map(Versioned::getLastModified)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+
+    /**
+     * Returns the entities the representation of the given book is composed of: the book, its publisher, its authors
+     * and its tags, each association ordered by id.
+     *
+     * @param book the given book
+     * @return a List of type Versioned
+     */
+    static List<Versioned> partsOf(final Book book) {
+        final List<Versioned> parts = new ArrayList<>();
+        parts.add(book);
+        parts.add(book.getPublisher());
+        book.getAuthors().stream().sorted(Comparator.comparing(Author::getAuthorId, BY_ID)).forEach(parts::add);
+        book.getTags().stream().sorted(Comparator.comparing(Tag::getTagId, BY_ID)).forEach(parts::add);
+
+        return parts;
+    }
+}
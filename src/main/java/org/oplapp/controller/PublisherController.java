@@ -1,9 +1,12 @@
 package org.oplapp.controller;
 
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.service.*;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.*;
 
 import java.util.*;
 
@@ -23,7 +26,7 @@ public class PublisherController {
 
 
     /**
-     * Get publisherById: returns a publisher as JSON if found in the database.
+     * Get publisherById: returns a publisher as JSON if found in the database, or 304 if the client's copy is unchanged.
      * @param publisherId the given publisher id
      * @return a ResponseEntity of type Publisher
      */
@@ -31,20 +34,37 @@ public class PublisherController {
     public ResponseEntity<Publisher> getPublisherById(@PathVariable("publisherId") final Long publisherId) {
         final Publisher publisher = publisherService.getPublisherById(publisherId);
 
-        return new ResponseEntity<>(publisher, HttpStatus.OK);
+        return ConditionalResponses.ok(publisher);
+    }
+
+
+    /**
+     * Get publishersByIds: returns the publishers with the given ids as JSON, queried at once. Ids which do not exist are
+     * listed as missing instead of failing the whole request.
+     *
+     * @param publisherIds the given publisher ids, either comma separated or as repeated parameters
+     * @return a ResponseEntity of type BatchResult of Publisher
+     */
+    @GetMapping(params = {"ids", "!cursor"})
+    public ResponseEntity<BatchResult<Publisher>> getPublishersByIds(@RequestParam(name = "ids") final List<Long> publisherIds) {
+        final BatchResult<Publisher> publishers = publisherService.getPublishersByIds(publisherIds);
+
+        return new ResponseEntity<>(publishers, HttpStatus.OK);
     }
 
 
     /**
      * Get publishers: returns the filtered publishers as JSON.
-     * @return a ResponseEntity of type Map of String and Object, containing a list of Publisher instances and pagination information
+     * @param withTotal whether the total amount is counted (true), skipped (false) or estimated (estimate)
+     * @return a ResponseEntity of type PublisherPage, containing a list of PublisherSummary instances and pagination information
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllPublishers(
+    public ResponseEntity<PublisherPage> getAllPublishers(
             @RequestParam(defaultValue = "0") final int page,
-            @RequestParam(defaultValue = "25") final int size
+            @RequestParam(defaultValue = "25") final int size,
+            @RequestParam(defaultValue = "true") final String withTotal
     ) {
-        final Map<String, Object> response = publisherService.getAllPublishers(page, size);
+        final PublisherPage response = publisherService.getAllPublishers(page, size, TotalMode.fromParameter(withTotal));
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
@@ -52,20 +72,57 @@ public class PublisherController {
 
     /**
      * Get publishers: returns the filtered publishers as JSON.
-     * @return a ResponseEntity of type Map of String and Object, containing a list of Publisher instances and pagination information
+     * @param withTotal whether the total amount is counted (true), skipped (false) or estimated (estimate)
+     * @return a ResponseEntity of type PublisherPage, containing a list of PublisherSummary instances and pagination information
      */
     @GetMapping(path = "/filter")
-    public ResponseEntity<Map<String, Object>> filterPublishers(
+    public ResponseEntity<PublisherPage> filterPublishers(
             @RequestParam(name = "name", required = false) final String publisherName,
             @RequestParam(defaultValue = "0") final int page,
-            @RequestParam(defaultValue = "25") final int size
+            @RequestParam(defaultValue = "25") final int size,
+            @RequestParam(defaultValue = "true") final String withTotal
     ) {
-        final Map<String, Object> response = publisherService.filterPublishers(publisherName, page, size);
+        final PublisherPage response = publisherService.filterPublishers(publisherName, page, size, TotalMode.fromParameter(withTotal));
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
 
+    /**
+     * Get publishers: streams the (optionally filtered) publishers as NDJSON or server-sent events, ordered by name and
+     * id. Selected instead of the paginated variants if the client accepts one of these media types.
+     * @param publisherName the given publisher name
+     * @param windowSize the amount of publishers queried at once
+     * @return a Flux of type PublisherSummary
+     */
+    @GetMapping(path = {"", "/filter"}, produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PublisherSummary> streamPublishers(
+            @RequestParam(name = "name", required = false) final String publisherName,
+            @RequestParam(defaultValue = "100") final int windowSize
+    ) {
+        return publisherService.streamPublishers(publisherName, windowSize);
+    }
+
+
+    /**
+     * Get publishers: returns a keyset paginated window of the (optionally filtered) publishers as JSON. Selected
+     * instead of the offset based variants as soon as a cursor parameter is present, an empty cursor requests the first window.
+     * @param publisherName the given publisher name
+     * @param cursor the given cursor token
+     * @param size the amount of items that should be present on a page
+     * @return a ResponseEntity of type Map of String and Object, containing a list of Publisher instances and the neighbouring cursors
+     */
+    @GetMapping(path = {"", "/filter"}, params = "cursor")
+    public ResponseEntity<Map<String, Object>> seekPublishers(
+            @RequestParam(name = "name", required = false) final String publisherName,
+            @RequestParam(name = "cursor") final String cursor,
+            @RequestParam(defaultValue = "25") final int size
+    ) {
+        final Map<String, Object> response = publisherService.seekPublishers(publisherName, cursor, size);
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Post publishers: inserts a new publisher or updates an existing one
      * @param publisher the given publisher
@@ -79,6 +136,21 @@ public class PublisherController {
     }
 
 
+    /**
+     * Post publishers in batch: inserts or updates all valid publishers of the given array in a single transaction. Invalid
+     * publishers and publishers with an outdated version are reported by their position instead of failing the batch.
+     *
+     * @param publishers the given publishers
+     * @return a ResponseEntity of type BatchWriteResult of Publisher
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<BatchWriteResult<Publisher>> saveOrUpdatePublishers(@RequestBody final List<Publisher> publishers) {
+        final BatchWriteResult<Publisher> result = publisherService.saveOrUpdatePublishers(publishers);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+
     /**
      * Delete publisher: Deletes the associated publisher if it's existing in the database.
      * @param publisherId the given publisher id
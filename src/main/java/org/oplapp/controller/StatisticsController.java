@@ -1,10 +1,12 @@
 package org.oplapp.controller;
 
-import jakarta.transaction.*;
-import org.oplapp.repository.*;
+import org.oplapp.service.*;
+import org.oplapp.statistics.*;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.*;
+
 
 /**
  * Controller class providing statistics related api endpoints.
@@ -13,14 +15,40 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping(path = "/statistics")
 public class StatisticsController {
 
-    private final BookRepository bookRepository;
-    private final AuthorRepository authorRepository;
-    private final PublisherRepository publisherRepository;
+    private final CatalogCounters counters;
+    private final CatalogAggregates aggregates;
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public StatisticsController(final CatalogCounters counters, final CatalogAggregates aggregates,
+                                final CacheStatisticsService cacheStatisticsService) {
+        this.counters = counters;
+        this.aggregates = aggregates;
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
 
-    public StatisticsController(BookRepository bookRepository, final AuthorRepository authorRepository, final PublisherRepository publisherRepository) {
-        this.bookRepository = bookRepository;
-        this.authorRepository = authorRepository;
-        this.publisherRepository = publisherRepository;
+
+    /**
+     * Get getSummary: returns the total amounts of books, authors, publishers and tags in one response.
+     *
+     * @return a ResponseEntity of type Map of String and Object, containing the amount per entity type
+     */
+    @GetMapping(path = "/summary")
+    public ResponseEntity<Map<String, Object>> getSummary() {
+        final Map<String, Object> summary = counters.getSummary();
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+
+
+    /**
+     * Get getAggregates: returns book counts and page totals grouped by genre, publisher, decade, shelf and tag,
+     * as well as the authors with the most books.
+     *
+     * @return a ResponseEntity of type Map of String and Object, containing the groups per aggregate
+     */
+    @GetMapping(path = "/aggregates")
+    public ResponseEntity<Map<String, Object>> getAggregates() {
+        final Map<String, Object> catalogAggregates = aggregates.getAggregates();
+        return new ResponseEntity<>(catalogAggregates, HttpStatus.OK);
     }
 
 
@@ -29,10 +57,9 @@ public class StatisticsController {
      *
      * @return a ResponseEntity of type Integer which represents the total amount of books
      */
-    @Transactional
     @GetMapping(path = "/books-total")
     public ResponseEntity<Integer> getTotalBooks() {
-        final Integer totalBooks = bookRepository.getTotalBooksCount();
+        final Integer totalBooks = Math.toIntExact(counters.get(CatalogCounters.Counter.BOOKS));
         return new ResponseEntity<>(totalBooks, HttpStatus.OK);
     }
 
@@ -42,10 +69,9 @@ public class StatisticsController {
      *
      * @return a ResponseEntity of type Integer which represents the total amount of authors
      */
-    @Transactional
     @GetMapping(path = "/authors-total")
     public ResponseEntity<Integer> getTotalAuthors() {
-        final Integer totalAuthors = authorRepository.getTotalAuthorsCount();
+        final Integer totalAuthors = Math.toIntExact(counters.get(CatalogCounters.Counter.AUTHORS));
         return new ResponseEntity<>(totalAuthors, HttpStatus.OK);
     }
 
@@ -55,10 +81,21 @@ public class StatisticsController {
      *
      * @return a ResponseEntity of type Integer which represents the total amount of publishers
      */
-    @Transactional
     @GetMapping(path = "/publishers-total")
     public ResponseEntity<Integer> getTotalPublishers() {
-        final Integer totalPublishers = publisherRepository.getTotalPublishersCount();
+        final Integer totalPublishers = Math.toIntExact(counters.get(CatalogCounters.Counter.PUBLISHERS));
         return new ResponseEntity<>(totalPublishers, HttpStatus.OK);
     }
+
+
+    /**
+     * Get getCacheStatistics: returns the hit and miss counts of the second-level and query cache.
+     *
+     * @return a ResponseEntity of type Map of String and Object, containing the counters per cache region
+     */
+    @GetMapping(path = "/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        final Map<String, Object> cacheStatistics = cacheStatisticsService.getCacheStatistics();
+        return new ResponseEntity<>(cacheStatistics, HttpStatus.OK);
+    }
 }
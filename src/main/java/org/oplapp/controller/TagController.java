@@ -1,5 +1,6 @@
 package org.oplapp.controller;
 
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
 import org.oplapp.service.*;
 import org.springframework.http.*;
@@ -23,7 +24,7 @@ public class TagController {
 
 
     /**
-     * Get tagById: returns a tag as JSON if it's existing in the database.
+     * Get tagById: returns a tag as JSON if it's existing in the database, or 304 if the client's copy is unchanged.
      * @param tagId the given tag id
      * @return a ResponseEntity of type Tag
      */
@@ -31,7 +32,22 @@ public class TagController {
     public ResponseEntity<Tag> getTagById(@PathVariable("tagId") final Long tagId) {
         final Tag tag = tagService.getTagById(tagId);
 
-        return new ResponseEntity<>(tag, HttpStatus.OK);
+        return ConditionalResponses.ok(tag);
+    }
+
+
+    /**
+     * Get tagsByIds: returns the tags with the given ids as JSON, queried at once. Ids which do not exist are
+     * listed as missing instead of failing the whole request.
+     *
+     * @param tagIds the given tag ids, either comma separated or as repeated parameters
+     * @return a ResponseEntity of type BatchResult of Tag
+     */
+    @GetMapping(params = {"ids", "!cursor"})
+    public ResponseEntity<BatchResult<Tag>> getTagsByIds(@RequestParam(name = "ids") final List<Long> tagIds) {
+        final BatchResult<Tag> tags = tagService.getTagsByIds(tagIds);
+
+        return new ResponseEntity<>(tags, HttpStatus.OK);
     }
 
 
@@ -60,6 +76,21 @@ public class TagController {
     }
 
 
+    /**
+     * Post tags in batch: inserts or updates all valid tags of the given array in a single transaction. Invalid
+     * tags and tags with an outdated version are reported by their position instead of failing the batch.
+     *
+     * @param tags the given tags
+     * @return a ResponseEntity of type BatchWriteResult of Tag
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<BatchWriteResult<Tag>> saveOrUpdateTags(@RequestBody final List<Tag> tags) {
+        final BatchWriteResult<Tag> result = tagService.saveOrUpdateTags(tags);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+
     /**
      * Delete tag: Deletes the associated tag if it's existing in the database.
      * @param tagId the given tag id
@@ -0,0 +1,130 @@
+package org.oplapp.datasource;
+
+import org.springframework.jdbc.datasource.*;
+
+import javax.sql.*;
+import java.lang.reflect.*;
+import java.sql.*;
+import java.time.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * An instance of this class limits the amount of connections borrowed from the target DataSource at the same time.
+ * Callers beyond the limit wait in a fair queue for a permit, which is returned when the connection is closed.
+ * <p>
+ * With virtual threads the amount of concurrent requests is no longer bounded by a thread pool, and thousands of
+ * them may ask the connection pool at once. Waiting on the semaphore unmounts a virtual thread from its carrier,
+ * whereas waiting inside the connection pool or the JDBC driver may pin it while synchronized.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+
+    public ConcurrencyLimitingDataSource(final DataSource targetDataSource, final int maxConcurrency,
+                                         final Duration acquireTimeout) {
+        super(targetDataSource);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return withPermit(super.getConnection());
+        } catch (final SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        acquirePermit();
+        try {
+            return withPermit(super.getConnection(username, password));
+        } catch (final SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+
+    /**
+     * Returns the amount of connections which may currently be borrowed without waiting.
+     *
+     * @return the amount of available permits
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+
+    /**
+     * Returns the amount of callers currently waiting for a permit.
+     *
+     * @return the estimated length of the queue
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No connection permit available within " + acquireTimeout
+                        + ", " + permits.getQueueLength() + " callers waiting");
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", exception);
+        }
+    }
+
+
+    private Connection withPermit(final Connection connection) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> connection;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        close(connection, released);
+                        yield null;
+                    }
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+
+    private void close(final Connection connection, final AtomicBoolean released) throws SQLException {
+        try {
+            connection.close();
+        } finally {
+            // Closing twice must not return the permit twice
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+
+    private static Object invoke(final Connection connection, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (final InvocationTargetException exception) {
+            throw exception.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.oplapp.diagnostics;
+
+/**
+ * An instance of this class sums up the statements executed while handling one request. It is only accessed by the
+ * thread handling the request.
+ */
+final class QueryTrace {
+
+    private final String request;
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+
+
+    QueryTrace(final String request) {
+        this.request = request;
+    }
+
+
+    void addStatement(final long elapsedMillis) {
+        statements++;
+        this.elapsedMillis += elapsedMillis;
+    }
+
+
+    void addRow() {
+        rows++;
+    }
+
+
+    String getRequest() {
+        return request;
+    }
+
+
+    int getStatements() {
+        return statements;
+    }
+
+
+    long getRows() {
+        return rows;
+    }
+
+
+    long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,69 @@
+package org.oplapp.diagnostics;
+
+import io.micrometer.core.instrument.*;
+import jakarta.servlet.*;
+import jakarta.servlet.http.*;
+import org.slf4j.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.stereotype.*;
+import org.springframework.web.filter.*;
+import org.springframework.web.servlet.*;
+
+import java.io.*;
+
+/**
+ * An instance of this class traces the statements executed while handling each request. The amounts of statements
+ * and fetched rows are recorded per endpoint as oplapp.request.statements and oplapp.request.rows, and the totals of
+ * each request are logged at debug level. Like the QueryTracer, it is only active if oplapp.diagnostics.enabled is
+ * set to true, as the statements of an unwrapped DataSource are not counted.
+ */
+@Component
+@ConditionalOnProperty(name = "oplapp.diagnostics.enabled")
+public class QueryTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryTraceFilter.class);
+
+    private final QueryTracer queryTracer;
+    private final MeterRegistry meterRegistry;
+
+
+    public QueryTraceFilter(final QueryTracer queryTracer, final MeterRegistry meterRegistry) {
+        this.queryTracer = queryTracer;
+        this.meterRegistry = meterRegistry;
+    }
+
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String query = request.getQueryString();
+        final QueryTrace trace = queryTracer.begin(request.getMethod() + " " + request.getRequestURI()
+                + (query != null ? "?" + query : ""));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queryTracer.end();
+            record(request, trace);
+        }
+    }
+
+
+    private void record(final HttpServletRequest request, final QueryTrace trace) {
+        // Tagged with the mapped pattern like http.server.requests, so path variables do not create new series
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+        DistributionSummary.builder("oplapp.request.statements")
+                .description("Statements executed per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(trace.getStatements());
+        DistributionSummary.builder("oplapp.request.rows")
+                .description("Rows fetched per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(trace.getRows());
+
+        logger.debug("{}: {} statements, {} rows, {} ms in the database", trace.getRequest(), trace.getStatements(),
+                trace.getRows(), trace.getElapsedMillis());
+    }
+}
@@ -0,0 +1,204 @@
+package org.oplapp.diagnostics;
+
+import net.ttddyy.dsproxy.*;
+import net.ttddyy.dsproxy.listener.*;
+import net.ttddyy.dsproxy.proxy.*;
+import net.ttddyy.dsproxy.support.*;
+import org.aopalliance.intercept.*;
+import org.slf4j.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.stereotype.*;
+
+import javax.sql.*;
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * An instance of this class listens to the statements executed through the application's DataSource. It sums up
+ * statements, fetched rows and execution time per request, and captures the statements exceeding the slow query
+ * threshold together with their bound parameters and the repository method which issued them. The first capture of
+ * a statement within the explain interval is logged and explained on a background thread, so the slow request does
+ * not wait for a second connection.
+ */
+@Component
+@ConditionalOnProperty(name = "oplapp.diagnostics.enabled")
+public class QueryTracer implements QueryExecutionListener, MethodExecutionListener, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryTracer.class);
+
+    private final SlowQueryLog slowQueryLog;
+    private final ObjectProvider<DataSource> dataSource;
+    private final long thresholdMillis;
+    private final ThreadLocal<QueryTrace> requestTrace = new ThreadLocal<>();
+    private final ThreadLocal<String> repositoryMethod = new ThreadLocal<>();
+    private final ExecutorService explainExecutor;
+
+
+    public QueryTracer(final SlowQueryLog slowQueryLog, final ObjectProvider<DataSource> dataSource,
+                       @Value("${oplapp.diagnostics.slow-query.threshold:PT0.2S}") final Duration threshold) {
+        this.slowQueryLog = slowQueryLog;
+        this.dataSource = dataSource;
+        this.thresholdMillis = threshold.toMillis();
+        // Explanations beyond a short backlog are dropped, they are samples only
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+
+    /**
+     * Starts summing up the statements executed by the current thread for the given request.
+     *
+     * @param request the given request description
+     * @return the QueryTrace instance of the request
+     */
+    QueryTrace begin(final String request) {
+        final QueryTrace trace = new QueryTrace(request);
+        requestTrace.set(trace);
+        return trace;
+    }
+
+
+    /**
+     * Stops summing up the statements executed by the current thread.
+     */
+    void end() {
+        requestTrace.remove();
+    }
+
+
+    /**
+     * Proceeds with the given repository invocation, attributing the statements it executes to the repository
+     * method. Nested invocations, e.g. of a default method calling a query method, are attributed to the outermost.
+     *
+     * @param repository the given name of the repository interface
+     * @param invocation the given method invocation
+     * @return the result of the invocation
+     * @throws Throwable the exception thrown by the invocation
+     */
+    public Object traceRepositoryInvocation(final String repository, final MethodInvocation invocation) throws Throwable {
+        if (repositoryMethod.get() != null) {
+            return invocation.proceed();
+        }
+
+        repositoryMethod.set(repository + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            repositoryMethod.remove();
+        }
+    }
+
+
+    @Override
+    public void beforeQuery(final ExecutionInfo executionInfo, final List<QueryInfo> queries) {
+    }
+
+
+    @Override
+    public void afterQuery(final ExecutionInfo executionInfo, final List<QueryInfo> queries) {
+        final QueryTrace trace = requestTrace.get();
+        if (trace != null) {
+            trace.addStatement(executionInfo.getElapsedTime());
+        }
+        if (executionInfo.getElapsedTime() >= thresholdMillis && !queries.isEmpty()) {
+            capture(executionInfo, queries.get(0), trace);
+        }
+    }
+
+
+    @Override
+    public void beforeMethod(final MethodExecutionContext executionContext) {
+    }
+
+
+    @Override
+    public void afterMethod(final MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            final QueryTrace trace = requestTrace.get();
+            if (trace != null) {
+                trace.addRow();
+            }
+        }
+    }
+
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+
+    private void capture(final ExecutionInfo executionInfo, final QueryInfo query, final QueryTrace trace) {
+        final String sql = query.getQuery();
+        // Batches bind one parameter set per statement, the first one stands for all
+        final List<ParameterSetOperation> operations = query.getParametersList().isEmpty()
+                ? List.of()
+                : query.getParametersList().get(0);
+        final SlowQuery slowQuery = new SlowQuery(sql, parameters(operations), executionInfo.getElapsedTime(),
+                repositoryMethod.get(), trace != null ? trace.getRequest() : null, Instant.now(), null);
+        slowQueryLog.add(slowQuery);
+
+        if (!slowQueryLog.claimExplain(sql)) {
+            logger.debug("Slow query took {} ms: {}", slowQuery.elapsedMillis(), sql);
+            return;
+        }
+        logger.warn("Slow query took {} ms in {} during {}: {} with parameters {}", slowQuery.elapsedMillis(),
+                slowQuery.repositoryMethod(), slowQuery.request(), sql, slowQuery.parameters());
+        if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+            explainExecutor.execute(() -> explain(sql, operations));
+        }
+    }
+
+
+    private void explain(final String sql, final List<ParameterSetOperation> operations) {
+        // The plan is queried past the proxy, so the EXPLAIN statement is not traced itself
+        final DataSource target = dataSource.getObject() instanceof ProxyDataSource proxy
+                ? proxy.getDataSource()
+                : dataSource.getObject();
+        try (Connection connection = target.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (final ParameterSetOperation operation : operations) {
+                operation.getMethod().invoke(statement, operation.getArgs());
+            }
+
+            final List<String> plan = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery()) {
+                final ResultSetMetaData metaData = rows.getMetaData();
+                while (rows.next()) {
+                    final StringJoiner row = new StringJoiner(", ");
+                    for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                        row.add(metaData.getColumnLabel(column) + "=" + rows.getObject(column));
+                    }
+                    plan.add(row.toString());
+                }
+            }
+            slowQueryLog.recordPlan(sql, plan);
+            logger.warn("Plan of slow query {}:\n{}", sql, String.join("\n", plan));
+        } catch (final SQLException | ReflectiveOperationException exception) {
+            logger.warn("Slow query could not be explained: {}", sql, exception);
+        }
+    }
+
+
+    private static List<Object> parameters(final List<ParameterSetOperation> operations) {
+        final SortedMap<Integer, Object> parameters = new TreeMap<>();
+        for (final ParameterSetOperation operation : operations) {
+            final Object[] args = operation.getArgs();
+            if (args.length > 0 && args[0] instanceof Integer index) {
+                parameters.put(index, ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2
+                        ? null
+                        : args[1]);
+            }
+        }
+        return new ArrayList<>(parameters.values());
+    }
+}
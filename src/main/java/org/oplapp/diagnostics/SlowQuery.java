@@ -0,0 +1,32 @@
+package org.oplapp.diagnostics;
+
+import com.fasterxml.jackson.annotation.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * This record describes a statement whose execution exceeded the slow query threshold.
+ *
+ * @param sql              the executed SQL statement
+ * @param parameters       the bound parameters in the order of their placeholders
+ * @param elapsedMillis    the execution time in milliseconds
+ * @param repositoryMethod the repository method which issued the statement, e.g. BookRepository.sliceBooks
+ * @param request          the HTTP request during which the statement was executed
+ * @param capturedAt       the time of capture
+ * @param plan             the rows returned by EXPLAIN for the statement, null until explained
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SlowQuery(String sql, List<Object> parameters, long elapsedMillis, String repositoryMethod,
+                        String request, Instant capturedAt, List<String> plan) {
+
+    /**
+     * Returns a copy of this record with the given execution plan.
+     *
+     * @param plan the given rows returned by EXPLAIN
+     * @return a SlowQuery instance
+     */
+    public SlowQuery withPlan(final List<String> plan) {
+        return new SlowQuery(sql, parameters, elapsedMillis, repositoryMethod, request, capturedAt, plan);
+    }
+}
@@ -0,0 +1,95 @@
+package org.oplapp.diagnostics;
+
+import com.github.benmanes.caffeine.cache.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.stereotype.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * An instance of this class keeps the most recent slow queries and the execution plans of their statements. Each
+ * statement is explained at most once per explain interval, so a statement which is slow on every execution is
+ * logged and explained only as a sample.
+ */
+@Component
+@ConditionalOnProperty(name = "oplapp.diagnostics.enabled")
+public class SlowQueryLog {
+
+    private final int capacity;
+    private final Deque<SlowQuery> recentQueries;
+    private final Cache<String, List<String>> plans;
+
+
+    public SlowQueryLog(@Value("${oplapp.diagnostics.slow-query.capacity:100}") final int capacity,
+                        @Value("${oplapp.diagnostics.slow-query.explain-interval:PT5M}") final Duration explainInterval) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("oplapp.diagnostics.slow-query.capacity must be positive, but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.recentQueries = new ArrayDeque<>(capacity);
+        this.plans = Caffeine.newBuilder()
+                .expireAfterWrite(explainInterval)
+                .maximumSize(1000)
+                .build();
+    }
+
+
+    /**
+     * Adds the given slow query, dropping the oldest one if the capacity is reached.
+     *
+     * @param slowQuery the given slow query
+     */
+    public synchronized void add(final SlowQuery slowQuery) {
+        if (recentQueries.size() == capacity) {
+            recentQueries.removeFirst();
+        }
+        recentQueries.addLast(slowQuery);
+    }
+
+
+    /**
+     * Claims the explanation of the given statement. Only the first caller within the explain interval succeeds.
+     *
+     * @param sql the given SQL statement
+     * @return true if the statement should be explained and logged, false if it has been recently
+     */
+    public boolean claimExplain(final String sql) {
+        return plans.asMap().putIfAbsent(sql, List.of()) == null;
+    }
+
+
+    /**
+     * Stores the execution plan of the given statement.
+     *
+     * @param sql  the given SQL statement
+     * @param plan the rows returned by EXPLAIN
+     */
+    public void recordPlan(final String sql, final List<String> plan) {
+        plans.put(sql, List.copyOf(plan));
+    }
+
+
+    /**
+     * Returns the slowest of the recent slow queries together with the plans of their statements, if explained.
+     *
+     * @param limit the maximum amount of slow queries to return
+     * @return a List of type SlowQuery, ordered by descending execution time
+     */
+    public List<SlowQuery> slowest(final int limit) {
+        final List<SlowQuery> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(recentQueries);
+        }
+
+        return snapshot.stream()
+                .sorted(Comparator.comparingLong(SlowQuery::elapsedMillis).reversed())
+                .limit(limit)
+                .map(slowQuery -> {
+                    final List<String> plan = plans.getIfPresent(slowQuery.sql());
+                    return plan == null || plan.isEmpty() ? slowQuery : slowQuery.withPlan(plan);
+                })
+                .toList();
+    }
+}
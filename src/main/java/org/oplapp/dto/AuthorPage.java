@@ -0,0 +1,14 @@
+package org.oplapp.dto;
+
+import com.fasterxml.jackson.annotation.*;
+
+import java.util.*;
+
+/**
+ * This record models one page of an offset paginated list of authors.
+ *
+ * @param authors the authors of the page
+ * @param page    the pagination information, serialized next to the authors
+ */
+public record AuthorPage(List<AuthorSummary> authors, @JsonUnwrapped PageInfo page) {
+}
@@ -0,0 +1,11 @@
+package org.oplapp.dto;
+
+/**
+ * This record models an author as shown in lists.
+ *
+ * @param authorId  the author's id
+ * @param firstname the author's firstname
+ * @param lastname  the author's lastname
+ */
+public record AuthorSummary(Long authorId, String firstname, String lastname) {
+}
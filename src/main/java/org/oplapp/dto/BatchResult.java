@@ -0,0 +1,67 @@
+package org.oplapp.dto;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * This record holds the outcome of a batch read by id. Ids which do not exist are reported instead of failing the
+ * whole batch.
+ *
+ * @param items      the found items in the order of the requested ids
+ * @param missingIds the requested ids which do not exist, in the order of the request
+ */
+public record BatchResult<T>(List<T> items, List<Long> missingIds) {
+
+    /**
+     * The maximum amount of distinct ids a single batch read may request.
+     */
+    public static final int MAX_IDS = 200;
+
+
+    /**
+     * Removes duplicates and null values from the given ids, keeping the order of their first occurrence.
+     *
+     * @param ids the given ids
+     * @return a list of distinct ids
+     * @throws IllegalArgumentException if no id or more than MAX_IDS distinct ids are given
+     */
+    public static List<Long> distinctIds(final Collection<Long> ids) {
+        final List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (distinctIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one id has to be given");
+        }
+        if (distinctIds.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be read at once");
+        }
+        return distinctIds;
+    }
+
+
+    /**
+     * Orders the given found items by the given requested ids and collects the ids nothing was found for.
+     *
+     * @param ids   the given distinct requested ids
+     * @param found the given items found for the ids, in any order
+     * @param id    the given function returning the id of an item
+     * @return a BatchResult instance
+     */
+    public static <T> BatchResult<T> of(final List<Long> ids, final Collection<T> found, final Function<T, Long> id) {
+        final Map<Long, T> foundById = new HashMap<>();
+        found.forEach(item -> foundById.put(id.apply(item), item));
+
+        final List<T> items = new ArrayList<>(foundById.size());
+        final List<Long> missingIds = new ArrayList<>();
+        for (final Long requestedId : ids) {
+            final T item = foundById.get(requestedId);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(requestedId);
+            }
+        }
+        return new BatchResult<>(items, missingIds);
+    }
+}
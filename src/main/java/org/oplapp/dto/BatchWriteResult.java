@@ -0,0 +1,20 @@
+package org.oplapp.dto;
+
+import java.util.*;
+
+/**
+ * This record holds the outcome of a batch upsert. The valid items are persisted together, the invalid ones are
+ * reported by their position without preventing the others from being saved.
+ *
+ * @param items  the saved items at the positions of the request, null at the positions of rejected items
+ * @param saved  the amount of saved items
+ * @param failed the amount of rejected items
+ * @param errors the errors of the rejected items
+ */
+public record BatchWriteResult<T>(List<T> items, int saved, int failed, List<RecordError> errors) {
+
+    /**
+     * The maximum amount of items a single batch upsert may contain.
+     */
+    public static final int MAX_ITEMS = 500;
+}
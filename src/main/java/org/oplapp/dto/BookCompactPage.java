@@ -0,0 +1,49 @@
+package org.oplapp.dto;
+
+import com.fasterxml.jackson.annotation.*;
+
+import java.util.*;
+
+/**
+ * This record models one page of an offset paginated list of books in the compact view. Each author and publisher
+ * occurring on the page is listed once, the books refer to them by id.
+ *
+ * @param books      the books of the page
+ * @param authors    the distinct authors of the books, in order of their first occurrence
+ * @param publishers the distinct publishers of the books, in order of their first occurrence
+ * @param page       the pagination information, serialized next to the books
+ */
+public record BookCompactPage(List<CompactBook> books, List<AuthorSummary> authors, List<PublisherSummary> publishers,
+                              @JsonUnwrapped PageInfo page) implements BookListPage {
+
+    /**
+     * Creates a compact page from the given book summaries.
+     *
+     * @param summaries the given book summaries
+     * @param page      the given pagination information
+     * @return a BookCompactPage instance
+     */
+    public static BookCompactPage of(final List<BookSummary> summaries, final PageInfo page) {
+        final Map<Long, AuthorSummary> authors = new LinkedHashMap<>();
+        final Map<Long, PublisherSummary> publishers = new LinkedHashMap<>();
+        final List<CompactBook> books = new ArrayList<>(summaries.size());
+
+        for (final BookSummary summary : summaries) {
+            final List<Long> authorIds = new ArrayList<>(summary.authors().size());
+            for (final AuthorSummary author : summary.authors()) {
+                authors.putIfAbsent(author.authorId(), author);
+                authorIds.add(author.authorId());
+            }
+
+            final Long publisherId = summary.publisher() != null ? summary.publisher().publisherId() : null;
+            if (publisherId != null) {
+                publishers.putIfAbsent(publisherId, summary.publisher());
+            }
+
+            books.add(new CompactBook(summary.bookId(), summary.bookTitle(), summary.edition(), summary.genre(), authorIds,
+                    summary.publishingYear(), summary.isbn(), publisherId, summary.shelf(), summary.ledge()));
+        }
+
+        return new BookCompactPage(books, List.copyOf(authors.values()), List.copyOf(publishers.values()), page);
+    }
+}
@@ -0,0 +1,14 @@
+package org.oplapp.dto;
+
+import com.fasterxml.jackson.annotation.*;
+
+import java.util.*;
+
+/**
+ * This record models one page of an offset paginated list of books in the grid view.
+ *
+ * @param books the books of the page
+ * @param page  the pagination information, serialized next to the books
+ */
+public record BookGridPage(List<BookGridRow> books, @JsonUnwrapped PageInfo page) implements BookListPage {
+}
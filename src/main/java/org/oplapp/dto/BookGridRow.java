@@ -0,0 +1,14 @@
+package org.oplapp.dto;
+
+import java.util.*;
+
+/**
+ * This record models a book as shown in the catalog grid.
+ *
+ * @param bookId         the book's id
+ * @param bookTitle      the book's title
+ * @param authors        the names of the book's authors, ordered by lastname
+ * @param publishingYear the book's publishing year
+ */
+public record BookGridRow(Long bookId, String bookTitle, List<String> authors, Integer publishingYear) {
+}
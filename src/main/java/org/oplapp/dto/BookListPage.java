@@ -0,0 +1,9 @@
+package org.oplapp.dto;
+
+/**
+ * This interface is implemented by the pages of each view of the book list.
+ */
+public sealed interface BookListPage permits BookPage, BookGridPage, BookCompactPage {
+
+    PageInfo page();
+}
@@ -0,0 +1,25 @@
+package org.oplapp.dto;
+
+import com.fasterxml.jackson.annotation.*;
+
+import java.util.*;
+
+/**
+ * This record models a book as shown in lists, leaving out the page count, the notes and the tags only needed by
+ * the detail view. Attributes without a value are left out of the JSON representation.
+ *
+ * @param bookId         the book's id
+ * @param bookTitle      the book's title
+ * @param edition        the book's edition
+ * @param genre          the book's genre
+ * @param authors        the book's authors, ordered by name
+ * @param publishingYear the book's publishing year
+ * @param isbn           the book's isbn
+ * @param publisher      the book's publisher
+ * @param shelf          the shelf the book is stored on
+ * @param ledge          the ledge the book is stored on
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookSummary(Long bookId, String bookTitle, String edition, String genre, List<AuthorSummary> authors,
+                          Integer publishingYear, String isbn, PublisherSummary publisher, String shelf, String ledge) {
+}
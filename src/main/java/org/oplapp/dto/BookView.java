@@ -0,0 +1,40 @@
+package org.oplapp.dto;
+
+import java.util.*;
+
+/**
+ * The views the book list can be requested in, each selecting only the columns it shows.
+ */
+public enum BookView {
+
+    /**
+     * Lists books as BookSummary records, as shown by the catalog's list view.
+     */
+    SUMMARY,
+
+    /**
+     * Lists books as BookGridRow records with title, author names and publishing year only.
+     */
+    GRID,
+
+    /**
+     * Lists books as CompactBook records, which refer to the authors and publishers listed once per page.
+     */
+    COMPACT;
+
+
+    /**
+     * Maps the value of the view request parameter to a view.
+     *
+     * @param view the given parameter value, one of summary, grid or compact
+     * @return a BookView instance
+     */
+    public static BookView fromParameter(final String view) {
+        return switch (view.toLowerCase(Locale.ROOT)) {
+            case "summary" -> SUMMARY;
+            case "grid" -> GRID;
+            case "compact" -> COMPACT;
+            default -> throw new IllegalArgumentException("Invalid view value: " + view + ", expected summary, grid or compact");
+        };
+    }
+}
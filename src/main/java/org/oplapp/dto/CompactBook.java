@@ -0,0 +1,25 @@
+package org.oplapp.dto;
+
+import com.fasterxml.jackson.annotation.*;
+
+import java.util.*;
+
+/**
+ * This record models a book of the compact list view. It refers to its authors and its publisher by id, they are
+ * listed once per page next to the books.
+ *
+ * @param bookId         the book's id
+ * @param bookTitle      the book's title
+ * @param edition        the book's edition
+ * @param genre          the book's genre
+ * @param authorIds      the ids of the book's authors, ordered by name
+ * @param publishingYear the book's publishing year
+ * @param isbn           the book's isbn
+ * @param publisherId    the id of the book's publisher
+ * @param shelf          the shelf the book is stored on
+ * @param ledge          the ledge the book is stored on
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CompactBook(Long bookId, String bookTitle, String edition, String genre, List<Long> authorIds,
+                          Integer publishingYear, String isbn, Long publisherId, String shelf, String ledge) {
+}
@@ -0,0 +1,11 @@
+package org.oplapp.dto;
+
+/**
+ * This record summarizes the outcome of a bulk delete. Ids which did not exist are not an error, so repeating the
+ * request is harmless.
+ *
+ * @param requested the amount of distinct ids requested
+ * @param deleted   the amount of rows actually deleted
+ */
+public record DeleteReport(int requested, int deleted) {
+}
@@ -0,0 +1,13 @@
+package org.oplapp.dto;
+
+import java.util.*;
+
+/**
+ * This record summarizes the outcome of a bulk import.
+ *
+ * @param imported the amount of records persisted
+ * @param failed   the amount of records rejected
+ * @param errors   the errors of the rejected records, capped to a configured maximum
+ */
+public record ImportReport(long imported, long failed, List<RecordError> errors) {
+}
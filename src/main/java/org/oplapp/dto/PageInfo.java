@@ -0,0 +1,19 @@
+package org.oplapp.dto;
+
+import com.fasterxml.jackson.annotation.*;
+
+/**
+ * This record holds the pagination information of an offset paginated list. The totals are omitted from the JSON
+ * representation if they have not been requested.
+ *
+ * @param currentPage    the one based page number
+ * @param pageSize       the requested page size
+ * @param hasNext        whether a following page exists
+ * @param totalElements  the total amount of elements or null
+ * @param totalPages     the total amount of pages or null
+ * @param totalEstimated true if the totals are estimated, null if they are exact or absent
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PageInfo(int currentPage, int pageSize, boolean hasNext, Long totalElements, Integer totalPages,
+                       Boolean totalEstimated) {
+}
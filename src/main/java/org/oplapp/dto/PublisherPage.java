@@ -0,0 +1,14 @@
+package org.oplapp.dto;
+
+import com.fasterxml.jackson.annotation.*;
+
+import java.util.*;
+
+/**
+ * This record models one page of an offset paginated list of publishers.
+ *
+ * @param publishers the publishers of the page
+ * @param page       the pagination information, serialized next to the publishers
+ */
+public record PublisherPage(List<PublisherSummary> publishers, @JsonUnwrapped PageInfo page) {
+}
@@ -0,0 +1,10 @@
+package org.oplapp.dto;
+
+/**
+ * This record models a publisher as shown in lists.
+ *
+ * @param publisherId   the publisher's id
+ * @param publisherName the publisher's name
+ */
+public record PublisherSummary(Long publisherId, String publisherName) {
+}
@@ -0,0 +1,12 @@
+package org.oplapp.dto;
+
+import java.util.*;
+
+/**
+ * This record describes why a single record of a multi record request could not be processed.
+ *
+ * @param index    the zero based position of the record within the request
+ * @param messages the error messages
+ */
+public record RecordError(int index, Set<String> messages) {
+}
@@ -0,0 +1,10 @@
+package org.oplapp.exceptions;
+
+/**
+ * This exception gets thrown when a publisher which is still referenced by books is about to be deleted.
+ */
+public class PublisherInUseException extends RuntimeException {
+    public PublisherInUseException(final Long publisherId) {
+        super("Publisher with id " + publisherId + " is still referenced by books");
+    }
+}
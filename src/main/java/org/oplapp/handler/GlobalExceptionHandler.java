@@ -3,6 +3,7 @@ package org.oplapp.handler;
 import jakarta.persistence.*;
 import org.oplapp.exceptions.*;
 import org.slf4j.*;
+import org.springframework.dao.*;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -55,6 +56,30 @@ public class GlobalExceptionHandler {
     }
 
 
+    /**
+     * Handles updates based on an outdated version of the entity.
+     * @param exception the given exception
+     * @return a ResponseEntity of type String
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(final OptimisticLockingFailureException exception) {
+        logger.error("Optimistic locking failure: {}", exception.getMessage());
+        return new ResponseEntity<>("The resource has been modified in the meantime, reload it and retry", HttpStatus.CONFLICT);
+    }
+
+
+    /**
+     * Handles deletes of publishers which are still referenced by books.
+     * @param exception the given exception
+     * @return a ResponseEntity of type String
+     */
+    @ExceptionHandler(PublisherInUseException.class)
+    public ResponseEntity<String> handlePublisherInUseException(final PublisherInUseException exception) {
+        logger.error("Publisher in use exception: {}", exception.getMessage());
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.CONFLICT);
+    }
+
+
     /**
      * Handles SQL related exceptions.
      * @return a ResponseEntity of type String
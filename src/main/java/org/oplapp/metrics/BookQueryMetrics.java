@@ -0,0 +1,71 @@
+package org.oplapp.metrics;
+
+import io.micrometer.core.instrument.*;
+import org.aopalliance.intercept.*;
+import org.oplapp.repository.*;
+import org.springframework.stereotype.*;
+
+/**
+ * An instance of this class times the BookRepository methods which take filter criteria. The timer is tagged with
+ * the method, the supplied criteria and the thrown exception, so that slow filter combinations can be told apart.
+ * Invocations without filter criteria are left to the repository timers of Spring Boot.
+ */
+@Component
+public class BookQueryMetrics implements MethodInterceptor {
+
+    static final String TIMER_NAME = "oplapp.book.queries";
+
+    private final MeterRegistry meterRegistry;
+
+
+    public BookQueryMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final BookFilter filter = findFilter(invocation.getArguments());
+        if (filter == null) {
+            return invocation.proceed();
+        }
+
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (final Throwable throwable) {
+            exception = throwable.getClass().getSimpleName();
+            throw throwable;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Duration of the book queries taking filter criteria")
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("filters", filters(filter))
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+
+    /**
+     * Returns the tag value naming the supplied criteria of the given filter, e.g. authorLastname+tag.
+     *
+     * @param filter the given filter criteria
+     * @return the names of the supplied criteria joined by +, or none
+     */
+    static String filters(final BookFilter filter) {
+        final String criteria = String.join("+", filter.suppliedCriteria());
+        return criteria.isEmpty() ? "none" : criteria;
+    }
+
+
+    private static BookFilter findFilter(final Object[] arguments) {
+        for (final Object argument : arguments) {
+            if (argument instanceof BookFilter filter) {
+                return filter;
+            }
+        }
+        return null;
+    }
+}
@@ -1,16 +1,27 @@
 package org.oplapp.model;
 
+import com.fasterxml.jackson.annotation.*;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.*;
 
 /**
  * This class models author entities.
  */
 @Entity
 @Table(name = "Author")
-public class Author {
+@BatchSize(size = 100)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
+public class Author implements Versioned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "Author_seq", allocationSize = 50)
     @Column(name = "author_id")
     private Long authorId;
 
@@ -24,6 +35,17 @@ public class Author {
     @Column(name = "lastname")
     private String lastname;
 
+    @Version
+    @Column(name = "version")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
 
     public Author() {
     }
@@ -62,4 +84,23 @@ public class Author {
     public void setLastname(final String lastname) {
         this.lastname = lastname;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(final Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 }
@@ -1,8 +1,12 @@
 package org.oplapp.model;
 
+import com.fasterxml.jackson.annotation.*;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.*;
 import java.util.*;
 
 /**
@@ -10,10 +14,11 @@ import java.util.*;
  */
 @Entity
 @Table(name = "Book")
-public class Book {
+public class Book implements Versioned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "Book_seq", allocationSize = 50)
     @Column(name = "book_id")
     private Long bookId;
 
@@ -32,6 +37,7 @@ public class Book {
 
     @NotNull(message = "authors: May not be null")
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(name = "Book_Authors",
             joinColumns = @JoinColumn(name = "book_id"),
             inverseJoinColumns = @JoinColumn(name = "author_id"))
@@ -60,6 +66,7 @@ public class Book {
     private Publisher publisher;
 
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(name = "Book_Tags",
             joinColumns = @JoinColumn(name = "book_id"),
             inverseJoinColumns = @JoinColumn(name = "tag_id"))
@@ -73,6 +80,17 @@ public class Book {
     @Column(name = "ledge")
     private String ledge;
 
+    @Version
+    @Column(name = "version")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
 
     public Book() {
     }
@@ -139,7 +157,7 @@ public class Book {
         this.publisher = publisher;
     }
 
-    public int getPublishingYear() {
+    public Integer getPublishingYear() {
         return publishingYear;
     }
 
@@ -202,4 +220,23 @@ public class Book {
     public void setPageCount(Integer pageCount) {
         this.pageCount = pageCount;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 }
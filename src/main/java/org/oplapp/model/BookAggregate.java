@@ -0,0 +1,16 @@
+package org.oplapp.model;
+
+/**
+ * This interface models a projection of one group of a grouped book query: the group key, an optional
+ * human-readable label, the number of books in the group and the sum of their page counts.
+ */
+public interface BookAggregate {
+
+    Object getGroupKey();
+
+    String getGroupLabel();
+
+    Long getBookCount();
+
+    Long getPageTotal();
+}
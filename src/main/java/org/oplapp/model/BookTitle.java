@@ -0,0 +1,11 @@
+package org.oplapp.model;
+
+/**
+ * This interface models a lightweight projection of a book consisting of its id and title only.
+ */
+public interface BookTitle {
+
+    Long getBookId();
+
+    String getBookTitle();
+}
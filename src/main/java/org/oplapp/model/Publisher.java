@@ -1,16 +1,27 @@
 package org.oplapp.model;
 
+import com.fasterxml.jackson.annotation.*;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.*;
 
 /**
  * This class models publisher entities.
  */
 @Entity
 @Table(name = "Publisher")
-public class Publisher {
+@BatchSize(size = 100)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "publishers")
+public class Publisher implements Versioned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "publisher_seq")
+    @SequenceGenerator(name = "publisher_seq", sequenceName = "Publisher_seq", allocationSize = 50)
     @Column(name = "publisher_id")
     private Long publisherId;
 
@@ -19,6 +30,17 @@ public class Publisher {
     @Column(name = "publisher_name")
     private String publisherName;
 
+    @Version
+    @Column(name = "version")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
 
     public Publisher() {
     }
@@ -47,4 +69,23 @@ public class Publisher {
     public void setPublisherName(final String publisherName) {
         this.publisherName = publisherName;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(final Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,31 @@
+package org.oplapp.model;
+
+import java.time.*;
+
+/**
+ * This interface is implemented by the entities carrying an optimistic locking version and the time of their last
+ * modification, which identify a state of the entity towards HTTP clients.
+ */
+public interface Versioned {
+
+    /**
+     * Returns the version, incremented by every update of the entity.
+     *
+     * @return the version or null if the entity has not been persisted yet
+     */
+    Long getVersion();
+
+    /**
+     * Sets the version the entity is expected to have when it gets updated.
+     *
+     * @param version the given version
+     */
+    void setVersion(Long version);
+
+    /**
+     * Returns the time the entity was last inserted or updated.
+     *
+     * @return an Instant or null if the entity has not been persisted yet
+     */
+    Instant getLastModified();
+}
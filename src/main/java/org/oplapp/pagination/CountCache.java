@@ -0,0 +1,39 @@
+package org.oplapp.pagination;
+
+import com.github.benmanes.caffeine.cache.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.stereotype.*;
+
+import java.time.*;
+import java.util.function.*;
+
+/**
+ * An instance of this class remembers the results of COUNT queries for a short time, so paging through a filtered
+ * list with estimated totals only counts once per filter and time to live.
+ */
+@Component
+public class CountCache {
+
+    private final Cache<Object, Long> counts;
+
+
+    public CountCache(@Value("${oplapp.pagination.count-cache.ttl:PT1M}") final Duration timeToLive,
+                      @Value("${oplapp.pagination.count-cache.maximum-size:1000}") final long maximumSize) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+
+    /**
+     * Returns the cached count for the given key or counts and caches it.
+     *
+     * @param key     the given key, identifying the entity and the filter criteria
+     * @param counter the given function executing the COUNT query
+     * @return the cached or counted amount
+     */
+    public long get(final Object key, final LongSupplier counter) {
+        return counts.get(key, ignored -> counter.getAsLong());
+    }
+}
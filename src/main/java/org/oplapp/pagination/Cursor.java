@@ -0,0 +1,100 @@
+package org.oplapp.pagination;
+
+import java.nio.charset.*;
+import java.util.*;
+
+/**
+ * An instance of this class represents an opaque keyset pagination cursor. It stores the sort key and the id
+ * of the row a page starts after (forward) or ends before (backward), so the next page can be
+ * fetched with a range predicate instead of an OFFSET.
+ */
+public final class Cursor {
+
+    private static final String FORWARD = "f";
+    private static final String BACKWARD = "b";
+    private static final String SEPARATOR = "|";
+
+    private final String sortKey;
+    private final Long id;
+    private final boolean backward;
+
+
+    private Cursor(final String sortKey, final Long id, final boolean backward) {
+        this.sortKey = sortKey;
+        this.id = id;
+        this.backward = backward;
+    }
+
+
+    /**
+     * Creates a cursor pointing to the rows following the given position.
+     *
+     * @param sortKey the sort key of the last row of the current page
+     * @param id      the id of the last row of the current page
+     * @return a Cursor instance
+     */
+    public static Cursor after(final String sortKey, final Long id) {
+        return new Cursor(sortKey, id, false);
+    }
+
+
+    /**
+     * Creates a cursor pointing to the rows preceding the given position.
+     *
+     * @param sortKey the sort key of the first row of the current page
+     * @param id      the id of the first row of the current page
+     * @return a Cursor instance
+     */
+    public static Cursor before(final String sortKey, final Long id) {
+        return new Cursor(sortKey, id, true);
+    }
+
+
+    /**
+     * Decodes the given cursor token. A missing or blank token denotes the first page.
+     *
+     * @param token the given cursor token
+     * @return a Cursor instance or null if the first page is requested
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Cursor decode(final String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final String[] parts = decoded.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3 || !(FORWARD.equals(parts[0]) || BACKWARD.equals(parts[0]))) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+
+            return new Cursor(parts[2], Long.valueOf(parts[1]), BACKWARD.equals(parts[0]));
+        } catch (final IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+
+    /**
+     * Encodes this cursor as an url safe token.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        final String raw = (backward ? BACKWARD : FORWARD) + SEPARATOR + id + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+}
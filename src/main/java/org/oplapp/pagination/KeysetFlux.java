@@ -0,0 +1,84 @@
+package org.oplapp.pagination;
+
+import reactor.core.publisher.*;
+import reactor.core.scheduler.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * This class turns a keyset paginated query into a Flux of its rows. A window is only queried once the subscriber
+ * has consumed the previous one, so a slow client holds back the queries instead of buffering the result set.
+ * The blocking queries run on Reactor's bounded elastic scheduler, not on the thread requesting the rows.
+ */
+public final class KeysetFlux {
+
+    private KeysetFlux() {
+    }
+
+
+    /**
+     * Creates a Flux emitting the rows of all windows of the given seek query, from the first to the last.
+     *
+     * @param window  a function querying up to the given amount of rows following the given sort key and id, both null for the first window
+     * @param size    the amount of rows per window
+     * @param sortKey a function extracting the sort key of a row
+     * @param id      a function extracting the id of a row
+     * @param <T>     the given datatype
+     * @return a Flux of type T
+     * @throws IllegalArgumentException if the window size is not positive
+     */
+    public static <T> Flux<T> of(final SeekQuery<T> window, final int size,
+                                 final Function<T, String> sortKey, final Function<T, Long> id) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+
+        return Flux.<List<T>, Position>generate(() -> Position.FIRST, (position, sink) -> {
+                    final List<T> rows = window.seek(position.sortKey(), position.id(), size + 1);
+                    final boolean hasMore = rows.size() > size;
+                    final List<T> content = hasMore ? rows.subList(0, size) : rows;
+
+                    if (content.isEmpty()) {
+                        sink.complete();
+                        return position;
+                    }
+                    sink.next(content);
+                    if (!hasMore) {
+                        sink.complete();
+                    }
+
+                    final T last = content.get(content.size() - 1);
+                    return new Position(sortKey.apply(last), id.apply(last));
+                })
+                // Prefetching a single window keeps at most one window ahead of the subscriber
+                .flatMapIterable(Function.identity(), 1)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+
+    /**
+     * A seek query returning the rows following a keyset position.
+     *
+     * @param <T> the given datatype
+     */
+    @FunctionalInterface
+    public interface SeekQuery<T> {
+
+        /**
+         * Queries the rows following the given keyset position.
+         *
+         * @param sortKey the sort key of the last row of the previous window or null for the first window
+         * @param id      the id of the last row of the previous window or null for the first window
+         * @param limit   the maximum amount of rows to return
+         * @return a List of type T
+         */
+        List<T> seek(String sortKey, Long id, int limit);
+    }
+
+
+    private record Position(String sortKey, Long id) {
+
+        static final Position FIRST = new Position(null, null);
+    }
+}
@@ -0,0 +1,86 @@
+package org.oplapp.pagination;
+
+import org.springframework.data.domain.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An instance of this class holds one keyset paginated window of rows together with the cursors
+ * pointing to its neighbouring windows.
+ *
+ * @param <T> the given datatype
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final String prevCursor;
+
+
+    private KeysetPage(final List<T> content, final String nextCursor, final String prevCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+
+
+    /**
+     * Returns the pageable the repository has to be queried with. It requests one additional row
+     * to find out whether a further window exists without issuing a count query.
+     *
+     * @param size the given page size
+     * @return a Pageable instance
+     */
+    public static Pageable window(final int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+
+    /**
+     * Creates a keyset page from the rows returned by a seek query.
+     *
+     * @param rows     the rows as returned by the repository, in descending order for backward cursors
+     * @param size     the given page size
+     * @param position the cursor the rows have been queried with or null for the first page
+     * @param sortKey  a function extracting the sort key of a row
+     * @param id       a function extracting the id of a row
+     * @param <T>      the given datatype
+     * @return a KeysetPage instance
+     */
+    public static <T> KeysetPage<T> of(final List<T> rows, final int size, final Cursor position,
+                                       final Function<T, String> sortKey, final Function<T, Long> id) {
+        final boolean hasMore = rows.size() > size;
+        final List<T> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        final boolean backward = position != null && position.isBackward();
+        if (backward) {
+            Collections.reverse(content);
+        }
+
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null);
+        }
+
+        final T first = content.get(0);
+        final T last = content.get(content.size() - 1);
+        final boolean hasNext = backward || hasMore;
+        final boolean hasPrev = backward ? hasMore : position != null;
+
+        final String nextCursor = hasNext ? Cursor.after(sortKey.apply(last), id.apply(last)).encode() : null;
+        final String prevCursor = hasPrev ? Cursor.before(sortKey.apply(first), id.apply(first)).encode() : null;
+
+        return new KeysetPage<>(content, nextCursor, prevCursor);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+}
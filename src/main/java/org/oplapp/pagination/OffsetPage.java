@@ -0,0 +1,81 @@
+package org.oplapp.pagination;
+
+import org.oplapp.dto.*;
+import org.springframework.data.domain.*;
+
+import java.util.function.*;
+
+/**
+ * This class builds the pagination information of offset paginated lists, with or without the total amount of elements.
+ */
+public final class OffsetPage {
+
+    private OffsetPage() {
+    }
+
+
+    /**
+     * Builds the pagination information of a slice, determining the total amount of elements as requested.
+     *
+     * @param slice     the given slice
+     * @param totalMode the given way of determining the total amount of elements
+     * @param counter   the given function executing the COUNT query
+     * @param estimator the given function returning a maintained or cached count
+     * @return a PageInfo instance
+     */
+    public static PageInfo of(final Slice<?> slice, final TotalMode totalMode, final LongSupplier counter, final LongSupplier estimator) {
+        return switch (totalMode) {
+            case EXACT -> counted(slice, counter);
+            case NONE -> withoutTotal(slice);
+            case ESTIMATE -> estimated(slice, estimator.getAsLong());
+        };
+    }
+
+
+    /**
+     * Builds the pagination information of a slice together with the counted total amount of elements. The count
+     * query is skipped if the slice is the last one, as its position already determines the total.
+     *
+     * @param slice   the given slice
+     * @param counter the given function executing the COUNT query
+     * @return a PageInfo instance
+     */
+    public static PageInfo counted(final Slice<?> slice, final LongSupplier counter) {
+        final long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        final long totalElements = !slice.hasNext() && (slice.hasContent() || offset == 0)
+                ? offset + slice.getNumberOfElements()
+                : counter.getAsLong();
+
+        return new PageInfo(slice.getNumber() + 1, slice.getSize(), slice.hasNext(), totalElements,
+                totalPages(totalElements, slice.getSize()), null);
+    }
+
+
+    /**
+     * Builds the pagination information of a slice together with an estimated total amount of elements.
+     *
+     * @param slice         the given slice
+     * @param totalElements the estimated total amount of elements
+     * @return a PageInfo instance
+     */
+    public static PageInfo estimated(final Slice<?> slice, final long totalElements) {
+        return new PageInfo(slice.getNumber() + 1, slice.getSize(), slice.hasNext(), totalElements,
+                totalPages(totalElements, slice.getSize()), true);
+    }
+
+
+    /**
+     * Builds the pagination information of a slice, which only tells whether a following page exists.
+     *
+     * @param slice the given slice
+     * @return a PageInfo instance
+     */
+    public static PageInfo withoutTotal(final Slice<?> slice) {
+        return new PageInfo(slice.getNumber() + 1, slice.getSize(), slice.hasNext(), null, null, null);
+    }
+
+
+    private static int totalPages(final long totalElements, final int size) {
+        return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+}
@@ -0,0 +1,40 @@
+package org.oplapp.pagination;
+
+import java.util.*;
+
+/**
+ * The ways the total amount of elements of an offset paginated list can be determined.
+ */
+public enum TotalMode {
+
+    /**
+     * Counts the matching rows with an additional COUNT query.
+     */
+    EXACT,
+
+    /**
+     * Skips counting, the response only tells whether a following page exists.
+     */
+    NONE,
+
+    /**
+     * Reports a maintained or recently cached count instead of counting on every request.
+     */
+    ESTIMATE;
+
+
+    /**
+     * Maps the value of the withTotal request parameter to a mode.
+     *
+     * @param withTotal the given parameter value, one of true, false or estimate
+     * @return a TotalMode instance
+     */
+    public static TotalMode fromParameter(final String withTotal) {
+        return switch (withTotal.toLowerCase(Locale.ROOT)) {
+            case "true" -> EXACT;
+            case "false" -> NONE;
+            case "estimate" -> ESTIMATE;
+            default -> throw new IllegalArgumentException("Invalid withTotal value: " + withTotal + ", expected true, false or estimate");
+        };
+    }
+}
@@ -1,10 +1,17 @@
 package org.oplapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.jpa.repository.query.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+
+import java.time.*;
+import java.util.*;
 
 /**
  * Repository interface providing author related CRUD operations.
@@ -12,6 +19,9 @@ import org.springframework.stereotype.*;
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
 
+    String AUTHOR_FILTER = "(:authorFirstname is null or a.firstname like :authorFirstname) and " +
+            "(:authorLastname is null or a.lastname like :authorLastname)";
+
     /**
      * Query's authors matching the given filter criteria from the database.
      *
@@ -19,16 +29,136 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
      * @param authorLastname  the given author's lastname
      * @return a page of type Author
      */
+    @Query("select a from Author as a where " + AUTHOR_FILTER)
+    Page<Author> queryAuthors(final String authorFirstname, final String authorLastname, final Pageable pageable);
+
+
+    /**
+     * Queries a slice of the authors matching the given filter criteria without issuing a count query. The authors
+     * are selected as AuthorSummary records rather than managed entities.
+     *
+     * @param authorFirstname the given author's firstname
+     * @param authorLastname  the given author's lastname
+     * @param pageable        the given pageable information
+     * @return a Slice of type AuthorSummary
+     */
+    @Query("select new org.oplapp.dto.AuthorSummary(a.authorId, a.firstname, a.lastname) from Author as a where " + AUTHOR_FILTER)
+    Slice<AuthorSummary> sliceAuthors(final String authorFirstname, final String authorLastname, final Pageable pageable);
+
+
+    /**
+     * Counts the authors matching the given filter criteria.
+     *
+     * @param authorFirstname the given author's firstname
+     * @param authorLastname  the given author's lastname
+     * @return the amount of matching authors
+     */
+    @Query("select count(a) from Author as a where " + AUTHOR_FILTER)
+    long countAuthors(final String authorFirstname, final String authorLastname);
+
+
+    /**
+     * Queries the window of authors matching the given filter criteria and following the given keyset position,
+     * ordered by lastname and id.
+     *
+     * @param authorFirstname the given author's firstname
+     * @param authorLastname  the given author's lastname
+     * @param cursorLastname  the lastname of the last author of the previous window or null for the first window
+     * @param cursorId        the id of the last author of the previous window
+     * @param pageable        the given pageable information limiting the window size
+     * @return a List of type Author
+     */
     @Query("select a from Author as a where " +
             "(:authorFirstname is null or a.firstname like :authorFirstname) and " +
-            "(:authorLastname is null or a.lastname like :authorLastname)")
-    Page<Author> queryAuthors(final String authorFirstname, final String authorLastname, final Pageable pageable);
+            "(:authorLastname is null or a.lastname like :authorLastname) and " +
+            "(:cursorLastname is null or a.lastname > :cursorLastname or (a.lastname = :cursorLastname and a.authorId > :cursorId)) " +
+            "order by a.lastname asc, a.authorId asc")
+    List<Author> seekAuthorsForward(final String authorFirstname, final String authorLastname,
+                                    final String cursorLastname, final Long cursorId, final Pageable pageable);
+
+
+    /**
+     * Queries the window of authors matching the given filter criteria and preceding the given keyset position,
+     * in descending lastname and id order.
+     *
+     * @param authorFirstname the given author's firstname
+     * @param authorLastname  the given author's lastname
+     * @param cursorLastname  the lastname of the first author of the following window
+     * @param cursorId        the id of the first author of the following window
+     * @param pageable        the given pageable information limiting the window size
+     * @return a List of type Author
+     */
+    @Query("select a from Author as a where " +
+            "(:authorFirstname is null or a.firstname like :authorFirstname) and " +
+            "(:authorLastname is null or a.lastname like :authorLastname) and " +
+            "(a.lastname < :cursorLastname or (a.lastname = :cursorLastname and a.authorId < :cursorId)) " +
+            "order by a.lastname desc, a.authorId desc")
+    List<Author> seekAuthorsBackward(final String authorFirstname, final String authorLastname,
+                                     final String cursorLastname, final Long cursorId, final Pageable pageable);
 
+    /**
+     * Queries the first author with exactly the given name.
+     *
+     * @param firstname the given firstname
+     * @param lastname  the given lastname
+     * @return an Optional of type Author
+     */
+    Optional<Author> findFirstByFirstnameAndLastname(final String firstname, final String lastname);
+
+    /**
+     * Queries the current version of the author with the given id.
+     *
+     * @param authorId the given author id
+     * @return an Optional of type Long, empty if no such author exists
+     */
+    @Query("select a.version from Author as a where a.authorId = :authorId")
+    Optional<Long> findVersionById(final Long authorId);
 
     /**
-     * Executes a stored procedure in the database to query the total amount of rows in the author table.
-     * @return the total number of authors in the database
+     * Deletes the author with the given id after removing it from the books it is linked to. The version and the
+     * last modification of those books are updated as well, as the author is part of their representation.
+     *
+     * @param authorId the given author id
+     * @return the amount of deleted authors, 0 if no such author exists
+     */
+    @Transactional
+    default int deleteAuthor(final Long authorId) {
+        touchBooks(authorId, Instant.now());
+        unlinkBooks(authorId);
+        return deleteAuthorRow(authorId);
+    }
+
+    /**
+     * Increments the version and sets the last modification of the books linked to the author with the given id.
+     *
+     * @param authorId     the given author id
+     * @param lastModified the given time of the modification
+     * @return the amount of updated books
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book"))
+    @Query(value = "update Book set version = version + 1, last_modified = :lastModified "
+            + "where book_id in (select book_id from Book_Authors where author_id = :authorId)", nativeQuery = true)
+    int touchBooks(final Long authorId, final Instant lastModified);
+
+    /**
+     * Deletes the rows linking the author with the given id to its books.
+     *
+     * @param authorId the given author id
+     * @return the amount of deleted rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_authors"))
+    @Query(value = "delete from Book_Authors where author_id = :authorId", nativeQuery = true)
+    int unlinkBooks(final Long authorId);
+
+    /**
+     * Deletes the author with the given id, which must not be linked to books anymore.
+     *
+     * @param authorId the given author id
+     * @return the amount of deleted authors
      */
-    @Procedure("getTotalAuthorsCount")
-    Integer getTotalAuthorsCount();
+    @Modifying
+    @Query("delete from Author as a where a.authorId = :authorId")
+    int deleteAuthorRow(final Long authorId);
 }
@@ -0,0 +1,53 @@
+package org.oplapp.repository;
+
+import java.util.*;
+
+/**
+ * This record holds the optional filter criteria of a book query. Criteria left null are not applied.
+ *
+ * @param bookTitle       the given book title
+ * @param authorId        the given author id
+ * @param authorFirstname the given author firstname
+ * @param authorLastname  the given author lastname
+ * @param publishedBefore the given publishing year min
+ * @param publishedAfter  the given publishing year max
+ * @param isbn            the given isbn
+ * @param publisherId     the given publisher id
+ * @param publisher       the given publisher name
+ * @param tag             the given tag
+ * @param shelf           the given shelf
+ * @param ledge           the given ledge
+ */
+public record BookFilter(String bookTitle, Long authorId, String authorFirstname, String authorLastname,
+                         Integer publishedBefore, Integer publishedAfter, String isbn, Long publisherId,
+                         String publisher, String tag, String shelf, String ledge) {
+
+    /**
+     * Returns the names of the criteria which are supplied, in the order of their declaration.
+     *
+     * @return a List of type String, empty if no criterion is supplied
+     */
+    public List<String> suppliedCriteria() {
+        final List<String> criteria = new ArrayList<>();
+        addIfSupplied(criteria, "bookTitle", bookTitle);
+        addIfSupplied(criteria, "authorId", authorId);
+        addIfSupplied(criteria, "authorFirstname", authorFirstname);
+        addIfSupplied(criteria, "authorLastname", authorLastname);
+        addIfSupplied(criteria, "publishedBefore", publishedBefore);
+        addIfSupplied(criteria, "publishedAfter", publishedAfter);
+        addIfSupplied(criteria, "isbn", isbn);
+        addIfSupplied(criteria, "publisherId", publisherId);
+        addIfSupplied(criteria, "publisher", publisher);
+        addIfSupplied(criteria, "tag", tag);
+        addIfSupplied(criteria, "shelf", shelf);
+        addIfSupplied(criteria, "ledge", ledge);
+        return criteria;
+    }
+
+
+    private static void addIfSupplied(final List<String> criteria, final String name, final Object value) {
+        if (value != null) {
+            criteria.add(name);
+        }
+    }
+}
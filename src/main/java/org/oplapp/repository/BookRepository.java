@@ -1,16 +1,24 @@
 package org.oplapp.repository;
 
-import org.oplapp.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.oplapp.dto.*;
+import org.oplapp.model.*;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.jpa.repository.query.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+
+import java.util.*;
+import java.util.stream.*;
 
 /**
  * Repository interface providing book related CRUD operations.
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookRepositoryCustom {
 
     /**
      * Queries all books from the database.
@@ -18,61 +26,241 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param pageable the given pageable information
      * @return a Page of type Book
      */
+    @EntityGraph(attributePaths = "publisher")
     Page<Book> findAll(final Pageable pageable);
 
 
     /**
-     * Queries books matching the given filter criteria from the database.
+     * Queries books matching the given filter criteria from the database. Only the criteria actually supplied
+     * are turned into predicates, see BookSpecifications.
+     *
+     * @param filter   the given filter criteria
+     * @param pageable the given pageable information
+     * @return a page of type Book
+     */
+    default Page<Book> queryBooks(final BookFilter filter, final Pageable pageable) {
+        return findAll(BookSpecifications.matching(filter), pageable);
+    }
+
+
+    /**
+     * Queries a slice of the books matching the given filter criteria without issuing a count query.
+     *
+     * @param filter   the given filter criteria
+     * @param pageable the given pageable information
+     * @return a Slice of type BookSummary
+     */
+    default Slice<BookSummary> sliceBooks(final BookFilter filter, final Pageable pageable) {
+        return findSummaries(BookSpecifications.matching(filter), pageable);
+    }
+
+
+    /**
+     * Queries a slice of the books matching the given filter criteria for the catalog grid without issuing a count query.
+     *
+     * @param filter   the given filter criteria
+     * @param pageable the given pageable information
+     * @return a Slice of type BookGridRow
+     */
+    default Slice<BookGridRow> sliceBookGrid(final BookFilter filter, final Pageable pageable) {
+        return findGridRows(BookSpecifications.matching(filter), pageable);
+    }
+
+
+    /**
+     * Counts the books matching the given filter criteria.
+     *
+     * @param filter the given filter criteria
+     * @return the amount of matching books
+     */
+    default long countBooks(final BookFilter filter) {
+        return count(BookSpecifications.matching(filter));
+    }
+
+
+    /**
+     * Queries books matching the given specification, fetching the publisher with the page.
      *
-     * @param bookTitle       the given book title
-     * @param authorId        the given author id
-     * @param authorFirstname the given author firstname
-     * @param authorLastname  the given author lastname
-     * @param publishedBefore the given publishing year min
-     * @param publishedAfter  the given publishing year max
-     * @param isbn            the given isbn
-     * @param publisherId     the given publisher id
-     * @param publisher       the given publisher name
-     * @param tag             tge given tag
-     * @param shelf           the given shelf
-     * @param ledge           the given ledge
+     * @param specification the given specification
+     * @param pageable      the given pageable information
      * @return a page of type Book
      */
-    @Query("select b from Book as b left join b.authors as a left join tags as t where " +
-            "(:bookTitle is null or b.bookTitle like '%' || :bookTitle || '%') and " +
-            "(:authorId is null or a.authorId = :authorId) and " +
-            "(:authorFirstname is null or a.firstname like :authorFirstname) and " +
-            "(:authorLastname is null or a.lastname like :authorLastname) and " +
-            "(:publishedBefore is null or b.publishingYear >= :publishedBefore) and " +
-            "(:publishedAfter is null or b.publishingYear <= :publishedAfter) and " +
-            "(:isbn is null or b.isbn like :isbn) and " +
-            "(:publisherId is null or b.publisher.publisherId = :publisherId) and " +
-            "(:publisher is null or b.publisher.publisherName like :publisher) and " +
-            "(:tag is null or t.tagName like :tag) and " +
-            "(:shelf is null or b.shelf = :shelf) and " +
-            "(:ledge is null or b.ledge = :ledge) " +
-            "order by b.bookTitle asc")
-    Page<Book> queryBooks(
-            final String bookTitle,
-            final Long authorId,
-            final String authorFirstname,
-            final String authorLastname,
-            final Integer publishedBefore,
-            final Integer publishedAfter,
-            final String isbn,
-            final Long publisherId,
-            final String publisher,
-            final String tag,
-            final String shelf,
-            final String ledge,
-            final Pageable pageable
-    );
-
-
-    /**
-     * Executes a stored procedure in the database to query the total amount of rows in the book table.
-     * @return the total number of books in the database
-     */
-    @Procedure("getTotalBooksCount")
-    Integer getTotalBooksCount();
+    @Override
+    @EntityGraph(attributePaths = "publisher")
+    Page<Book> findAll(final Specification<Book> specification, final Pageable pageable);
+
+
+    /**
+     * Queries the window of books following the given keyset position, ordered by title and id.
+     *
+     * @param bookTitle the title of the last book of the previous window or null for the first window
+     * @param bookId    the id of the last book of the previous window
+     * @param pageable  the given pageable information limiting the window size
+     * @return a List of type Book
+     */
+    @EntityGraph(attributePaths = "publisher")
+    @Query("select b from Book as b where " +
+            "(:bookTitle is null or b.bookTitle > :bookTitle or (b.bookTitle = :bookTitle and b.bookId > :bookId)) " +
+            "order by b.bookTitle asc, b.bookId asc")
+    List<Book> seekBooksForward(final String bookTitle, final Long bookId, final Pageable pageable);
+
+
+    /**
+     * Queries the window of books preceding the given keyset position, in descending title and id order.
+     *
+     * @param bookTitle the title of the first book of the following window
+     * @param bookId    the id of the first book of the following window
+     * @param pageable  the given pageable information limiting the window size
+     * @return a List of type Book
+     */
+    @EntityGraph(attributePaths = "publisher")
+    @Query("select b from Book as b where " +
+            "b.bookTitle < :bookTitle or (b.bookTitle = :bookTitle and b.bookId < :bookId) " +
+            "order by b.bookTitle desc, b.bookId desc")
+    List<Book> seekBooksBackward(final String bookTitle, final Long bookId, final Pageable pageable);
+
+
+    /**
+     * Queries the window of books matching the given filter criteria and following the given keyset position,
+     * ordered by title and id.
+     *
+     * @param filter      the given filter criteria
+     * @param cursorTitle the title of the last book of the previous window or null for the first window
+     * @param cursorId    the id of the last book of the previous window
+     * @param pageable    the given pageable information limiting the window size
+     * @return a List of type Book
+     */
+    default List<Book> seekFilteredBooksForward(final BookFilter filter, final String cursorTitle, final Long cursorId, final Pageable pageable) {
+        return findWindow(BookSpecifications.matching(filter).and(BookSpecifications.after(cursorTitle, cursorId)),
+                Sort.by(Sort.Direction.ASC, "bookTitle", "bookId"), pageable.getPageSize());
+    }
+
+
+    /**
+     * Queries the window of books matching the given filter criteria and preceding the given keyset position,
+     * in descending title and id order.
+     *
+     * @param filter      the given filter criteria
+     * @param cursorTitle the title of the first book of the following window
+     * @param cursorId    the id of the first book of the following window
+     * @param pageable    the given pageable information limiting the window size
+     * @return a List of type Book
+     */
+    default List<Book> seekFilteredBooksBackward(final BookFilter filter, final String cursorTitle, final Long cursorId, final Pageable pageable) {
+        return findWindow(BookSpecifications.matching(filter).and(BookSpecifications.before(cursorTitle, cursorId)),
+                Sort.by(Sort.Direction.DESC, "bookTitle", "bookId"), pageable.getPageSize());
+    }
+
+
+    /**
+     * Queries the summaries of the books matching the given filter criteria and following the given keyset
+     * position, ordered by title and id.
+     *
+     * @param filter      the given filter criteria
+     * @param cursorTitle the title of the last book of the previous window or null for the first window
+     * @param cursorId    the id of the last book of the previous window
+     * @param limit       the maximum amount of books to return
+     * @return a List of type BookSummary
+     */
+    default List<BookSummary> seekBookSummariesForward(final BookFilter filter, final String cursorTitle, final Long cursorId, final int limit) {
+        return findSummaries(BookSpecifications.matching(filter).and(BookSpecifications.after(cursorTitle, cursorId)),
+                PageRequest.of(0, limit, Sort.by(Sort.Direction.ASC, "bookTitle", "bookId"))).getContent();
+    }
+
+    /**
+     * Streams the id and title of every book in the database. Must be consumed within a transaction.
+     *
+     * @return a Stream of type BookTitle
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.bookId as bookId, b.bookTitle as bookTitle from Book as b")
+    Stream<BookTitle> streamBookTitles();
+
+    /**
+     * Groups all books by genre.
+     *
+     * @return a List of type BookAggregate, keyed by genre
+     */
+    @Query("select b.genre as groupKey, count(b) as bookCount, coalesce(sum(b.pageCount), 0) as pageTotal " +
+            "from Book as b group by b.genre")
+    List<BookAggregate> aggregateByGenre();
+
+    /**
+     * Groups all books by publisher.
+     *
+     * @return a List of type BookAggregate, keyed by publisher id and labeled with the publisher name
+     */
+    @Query("select p.publisherId as groupKey, p.publisherName as groupLabel, count(b) as bookCount, coalesce(sum(b.pageCount), 0) as pageTotal " +
+            "from Book as b join b.publisher as p group by p.publisherId, p.publisherName")
+    List<BookAggregate> aggregateByPublisher();
+
+    /**
+     * Groups all books by the decade of their publishing year.
+     *
+     * @return a List of type BookAggregate, keyed by the first year of the decade
+     */
+    @Query("select b.publishingYear - mod(b.publishingYear, 10) as groupKey, count(b) as bookCount, coalesce(sum(b.pageCount), 0) as pageTotal " +
+            "from Book as b group by b.publishingYear - mod(b.publishingYear, 10)")
+    List<BookAggregate> aggregateByDecade();
+
+    /**
+     * Groups all books by their shelf and ledge.
+     *
+     * @return a List of type BookAggregate, keyed by shelf and labeled with the ledge
+     */
+    @Query("select b.shelf as groupKey, b.ledge as groupLabel, count(b) as bookCount, coalesce(sum(b.pageCount), 0) as pageTotal " +
+            "from Book as b group by b.shelf, b.ledge")
+    List<BookAggregate> aggregateByShelf();
+
+    /**
+     * Groups all books by tag, a book with several tags is counted in each of their groups.
+     *
+     * @return a List of type BookAggregate, keyed by tag id and labeled with the tag name
+     */
+    @Query("select t.tagId as groupKey, t.tagName as groupLabel, count(b) as bookCount, coalesce(sum(b.pageCount), 0) as pageTotal " +
+            "from Book as b join b.tags as t group by t.tagId, t.tagName")
+    List<BookAggregate> aggregateByTag();
+
+    /**
+     * Queries the authors with the most books.
+     *
+     * @param pageable the given pageable information limiting the number of authors
+     * @return a List of type BookAggregate, keyed by author id and labeled with "Lastname, Firstname"
+     */
+    @Query("select a.authorId as groupKey, concat(a.lastname, ', ', a.firstname) as groupLabel, count(b) as bookCount, coalesce(sum(b.pageCount), 0) as pageTotal " +
+            "from Book as b join b.authors as a group by a.authorId, a.lastname, a.firstname order by count(b) desc, a.authorId")
+    List<BookAggregate> aggregateTopAuthors(final Pageable pageable);
+
+    /**
+     * Queries the current version of the book with the given id.
+     *
+     * @param bookId the given book id
+     * @return an Optional of type Long, empty if no such book exists
+     */
+    @Query("select b.version from Book as b where b.bookId = :bookId")
+    Optional<Long> findVersionById(final Long bookId);
+
+
+    /**
+     * Queries the books with the given ids in a single statement, fetching their publishers along. Their authors and
+     * tags are loaded in batches when accessed.
+     *
+     * @param bookIds the given book ids
+     * @return a list of the existing books, in no particular order
+     */
+    @EntityGraph(attributePaths = "publisher")
+    List<Book> findAllByBookIdIn(final Collection<Long> bookIds);
+
+
+    /**
+     * Deletes the books with the given ids without loading them first. Hibernate removes the rows linking them to
+     * their authors and tags set-wise before, with one statement per join table.
+     *
+     * @param bookIds the given book ids
+     * @return the amount of deleted books
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Book as b where b.bookId in :bookIds")
+    int deleteBooks(final Collection<Long> bookIds);
 }
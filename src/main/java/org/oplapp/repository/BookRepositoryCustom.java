@@ -0,0 +1,55 @@
+package org.oplapp.repository;
+
+import org.oplapp.dto.*;
+import org.oplapp.model.*;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.*;
+
+import java.util.*;
+
+/**
+ * Repository fragment providing book queries which are not covered by Spring Data's query derivation.
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Queries a window of books matching the given specification without issuing a count query.
+     *
+     * @param specification the given specification, may be null
+     * @param sort          the given sort order
+     * @param limit         the maximum amount of books to return
+     * @return a List of type Book
+     */
+    List<Book> findWindow(final Specification<Book> specification, final Sort sort, final int limit);
+
+    /**
+     * Queries a slice of books matching the given specification without issuing a count query. Only the columns
+     * of BookSummary are selected, the authors by one additional query for the whole slice. One additional book is
+     * requested to find out whether a following slice exists.
+     *
+     * @param specification the given specification, may be null
+     * @param pageable      the given pageable information
+     * @return a Slice of type BookSummary
+     */
+    Slice<BookSummary> findSummaries(final Specification<Book> specification, final Pageable pageable);
+
+    /**
+     * Queries a slice of books matching the given specification for the catalog grid. Only the id, the title and
+     * the publishing year are selected, without joining the publisher, and the author names by one additional query
+     * for the whole slice.
+     *
+     * @param specification the given specification, may be null
+     * @param pageable      the given pageable information
+     * @return a Slice of type BookGridRow
+     */
+    Slice<BookGridRow> findGridRows(final Specification<Book> specification, final Pageable pageable);
+
+    /**
+     * Replaces the publisher, the authors and the tags the given book references by id with the persistent entities.
+     * Hibernate would take the references for new entities otherwise, as they carry no version. References to
+     * unknown ids are left as they are.
+     *
+     * @param book the given book
+     */
+    void attachReferences(final Book book);
+}
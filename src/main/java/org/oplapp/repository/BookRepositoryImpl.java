@@ -0,0 +1,148 @@
+package org.oplapp.repository;
+
+import jakarta.persistence.*;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.*;
+import org.oplapp.dto.*;
+import org.oplapp.model.*;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.*;
+import org.springframework.data.jpa.repository.query.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Implementation of the BookRepositoryCustom fragment based on the JPA criteria API.
+ */
+public class BookRepositoryImpl implements BookRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public BookRepositoryImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+
+    @Override
+    public List<Book> findWindow(final Specification<Book> specification, final Sort sort, final int limit) {
+        return createQuery(specification, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+
+    @Override
+    public Slice<BookSummary> findSummaries(final Specification<Book> specification, final Pageable pageable) {
+        final CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        final Root<Book> book = query.from(Book.class);
+        final Join<Book, Publisher> publisher = book.join("publisher");
+        query.multiselect(book.get("bookId"), book.get("bookTitle"), book.get("edition"), book.get("genre"),
+                book.get("publishingYear"), book.get("isbn"), publisher.get("publisherId"), publisher.get("publisherName"),
+                book.get("shelf"), book.get("ledge"));
+
+        final Slice<Tuple> rows = findRows(query, book, specification, pageable);
+        final Map<Long, List<AuthorSummary>> authors = findAuthorSummaries(rows);
+
+        return rows.map(row -> new BookSummary(row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class),
+                row.get(3, String.class), authors.getOrDefault(row.get(0, Long.class), List.of()), row.get(4, Integer.class),
+                row.get(5, String.class), new PublisherSummary(row.get(6, Long.class), row.get(7, String.class)),
+                row.get(8, String.class), row.get(9, String.class)));
+    }
+
+
+    @Override
+    public Slice<BookGridRow> findGridRows(final Specification<Book> specification, final Pageable pageable) {
+        final CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        final Root<Book> book = query.from(Book.class);
+        query.multiselect(book.get("bookId"), book.get("bookTitle"), book.get("publishingYear"));
+
+        final Slice<Tuple> rows = findRows(query, book, specification, pageable);
+        final Map<Long, List<AuthorSummary>> authors = findAuthorSummaries(rows);
+
+        return rows.map(row -> new BookGridRow(row.get(0, Long.class), row.get(1, String.class),
+                authors.getOrDefault(row.get(0, Long.class), List.of()).stream()
+                        .map(author -> author.firstname() + " " + author.lastname())
+                        .toList(),
+                row.get(2, Integer.class)));
+    }
+
+
+    @Override
+    public void attachReferences(final Book book) {
+        if (book.getPublisher() != null && book.getPublisher().getPublisherId() != null) {
+            book.setPublisher(find(Publisher.class, book.getPublisher().getPublisherId(), book.getPublisher()));
+        }
+        book.setAuthors(book.getAuthors().stream()
+                .map(author -> author.getAuthorId() != null ? find(Author.class, author.getAuthorId(), author) : author)
+                .collect(Collectors.toCollection(HashSet::new)));
+        if (book.getTags() != null) {
+            book.setTags(book.getTags().stream()
+                    .map(tag -> tag.getTagId() != null ? find(Tag.class, tag.getTagId(), tag) : tag)
+                    .collect(Collectors.toCollection(HashSet::new)));
+        }
+    }
+
+
+    private Slice<Tuple> findRows(final CriteriaQuery<Tuple> query, final Root<Book> book,
+                                  final Specification<Book> specification, final Pageable pageable) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final Predicate predicate = specification != null ? specification.toPredicate(book, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), book, builder));
+
+        final List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        final boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+
+    private Map<Long, List<AuthorSummary>> findAuthorSummaries(final Slice<Tuple> rows) {
+        if (!rows.hasContent()) {
+            return Map.of();
+        }
+
+        final Map<Long, List<AuthorSummary>> authors = new HashMap<>();
+        entityManager.createQuery("select b.bookId, a.authorId, a.firstname, a.lastname from Book as b join b.authors as a " +
+                        "where b.bookId in :bookIds order by a.lastname, a.firstname, a.authorId", Tuple.class)
+                .setParameter("bookIds", rows.map(row -> row.get(0, Long.class)).getContent())
+                .getResultList()
+                .forEach(row -> authors.computeIfAbsent(row.get(0, Long.class), bookId -> new ArrayList<>())
+                        .add(new AuthorSummary(row.get(1, Long.class), row.get(2, String.class), row.get(3, String.class))));
+
+        return authors;
+    }
+
+
+    // Publishers, authors and tags are kept in the second level cache, so this rarely queries the database
+    private <T> T find(final Class<T> type, final Long id, final T reference) {
+        final T entity = entityManager.find(type, id);
+        return entity != null ? entity : reference;
+    }
+
+
+    private TypedQuery<Book> createQuery(final Specification<Book> specification, final Sort sort) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Book> query = builder.createQuery(Book.class);
+        final Root<Book> book = query.from(Book.class);
+
+        final Predicate predicate = specification != null ? specification.toPredicate(book, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, book, builder));
+
+        // Fetches the publisher with the books, the collections are batch fetched
+        final EntityGraph<Book> publisherGraph = entityManager.createEntityGraph(Book.class);
+        publisherGraph.addAttributeNodes("publisher");
+
+        return entityManager.createQuery(query)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, publisherGraph);
+    }
+}
@@ -0,0 +1,130 @@
+package org.oplapp.repository;
+
+import jakarta.persistence.criteria.*;
+import org.oplapp.model.*;
+import org.springframework.data.jpa.domain.*;
+
+import java.util.*;
+
+/**
+ * This class builds the criteria queries used to filter books. Only the predicates of the criteria actually
+ * supplied are added, and author and tag criteria are expressed as correlated EXISTS subqueries, so a book
+ * never gets multiplied by its associations and unfiltered queries stay plain scans of the book table.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+
+    /**
+     * Creates a specification matching the books that fulfill all given filter criteria.
+     *
+     * @param filter the given filter criteria
+     * @return a Specification of type Book
+     */
+    public static Specification<Book> matching(final BookFilter filter) {
+        return (book, query, builder) -> {
+            final List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.bookTitle() != null) {
+                predicates.add(builder.like(book.get("bookTitle"), "%" + filter.bookTitle() + "%"));
+            }
+            if (filter.publishedBefore() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(book.get("publishingYear"), filter.publishedBefore()));
+            }
+            if (filter.publishedAfter() != null) {
+                predicates.add(builder.lessThanOrEqualTo(book.get("publishingYear"), filter.publishedAfter()));
+            }
+            if (filter.isbn() != null) {
+                predicates.add(builder.like(book.get("isbn"), filter.isbn()));
+            }
+            if (filter.publisherId() != null) {
+                predicates.add(builder.equal(book.get("publisher").get("publisherId"), filter.publisherId()));
+            }
+            if (filter.publisher() != null) {
+                predicates.add(builder.like(book.join("publisher").get("publisherName"), filter.publisher()));
+            }
+            if (filter.shelf() != null) {
+                predicates.add(builder.equal(book.get("shelf"), filter.shelf()));
+            }
+            if (filter.ledge() != null) {
+                predicates.add(builder.equal(book.get("ledge"), filter.ledge()));
+            }
+            if (filter.authorId() != null || filter.authorFirstname() != null || filter.authorLastname() != null) {
+                predicates.add(hasAuthor(filter, book, query, builder));
+            }
+            if (filter.tag() != null) {
+                predicates.add(hasTag(filter.tag(), book, query, builder));
+            }
+
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+
+    /**
+     * Creates a specification matching the books following the given keyset position in title and id order.
+     *
+     * @param bookTitle the title of the last book of the previous window or null for the first window
+     * @param bookId    the id of the last book of the previous window
+     * @return a Specification of type Book or null if no position is given
+     */
+    public static Specification<Book> after(final String bookTitle, final Long bookId) {
+        if (bookTitle == null) {
+            return null;
+        }
+
+        return (book, query, builder) -> builder.or(
+                builder.greaterThan(book.get("bookTitle"), bookTitle),
+                builder.and(builder.equal(book.get("bookTitle"), bookTitle), builder.greaterThan(book.get("bookId"), bookId)));
+    }
+
+
+    /**
+     * Creates a specification matching the books preceding the given keyset position in title and id order.
+     *
+     * @param bookTitle the title of the first book of the following window
+     * @param bookId    the id of the first book of the following window
+     * @return a Specification of type Book
+     */
+    public static Specification<Book> before(final String bookTitle, final Long bookId) {
+        return (book, query, builder) -> builder.or(
+                builder.lessThan(book.get("bookTitle"), bookTitle),
+                builder.and(builder.equal(book.get("bookTitle"), bookTitle), builder.lessThan(book.get("bookId"), bookId)));
+    }
+
+
+    // All author criteria have to be fulfilled by the same author, as with the former joined query
+    private static Predicate hasAuthor(final BookFilter filter, final Root<Book> book, final CriteriaQuery<?> query,
+                                       final CriteriaBuilder builder) {
+        final Subquery<Integer> subquery = query.subquery(Integer.class);
+        final Root<Book> correlatedBook = subquery.correlate(book);
+        final Join<Book, Author> author = correlatedBook.join("authors");
+
+        final List<Predicate> predicates = new ArrayList<>();
+        if (filter.authorId() != null) {
+            predicates.add(builder.equal(author.get("authorId"), filter.authorId()));
+        }
+        if (filter.authorFirstname() != null) {
+            predicates.add(builder.like(author.get("firstname"), filter.authorFirstname()));
+        }
+        if (filter.authorLastname() != null) {
+            predicates.add(builder.like(author.get("lastname"), filter.authorLastname()));
+        }
+
+        subquery.select(builder.literal(1)).where(predicates.toArray(Predicate[]::new));
+        return builder.exists(subquery);
+    }
+
+
+    private static Predicate hasTag(final String tagName, final Root<Book> book, final CriteriaQuery<?> query,
+                                    final CriteriaBuilder builder) {
+        final Subquery<Integer> subquery = query.subquery(Integer.class);
+        final Root<Book> correlatedBook = subquery.correlate(book);
+        final Join<Book, Tag> tag = correlatedBook.join("tags");
+
+        subquery.select(builder.literal(1)).where(builder.like(tag.get("tagName"), tagName));
+        return builder.exists(subquery);
+    }
+}
@@ -1,10 +1,14 @@
 package org.oplapp.repository;
 
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.jpa.repository.query.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+
+import java.util.*;
 
 /**
  * Repository interface providing publisher related CRUD operations.
@@ -12,21 +16,101 @@ import org.springframework.stereotype.*;
 @Repository
 public interface PublisherRepository extends JpaRepository<Publisher, Long> {
 
+    String PUBLISHER_FILTER = "(:publisherName is null or p.publisherName like :publisherName)";
+
     /**
      * Query's publishers matching the given filter criteria from the database.
      *
      * @param publisherName the given publisher name
      * @return a Page of type Publisher
      */
-    @Query("select p from Publisher as p where " +
-            "(:publisherName is null or p.publisherName like :publisherName)")
+    @Query("select p from Publisher as p where " + PUBLISHER_FILTER)
     Page<Publisher> queryPublishers(final String publisherName, final Pageable pageable);
 
 
     /**
-     * Executes a stored procedure in the database to query the total amount of rows in the publisher table.
-     * @return the total number of publishers in the database
+     * Queries a slice of the publishers matching the given filter criteria without issuing a count query. The
+     * publishers are selected as PublisherSummary records rather than managed entities.
+     *
+     * @param publisherName the given publisher name
+     * @param pageable      the given pageable information
+     * @return a Slice of type PublisherSummary
+     */
+    @Query("select new org.oplapp.dto.PublisherSummary(p.publisherId, p.publisherName) from Publisher as p where " + PUBLISHER_FILTER)
+    Slice<PublisherSummary> slicePublishers(final String publisherName, final Pageable pageable);
+
+
+    /**
+     * Counts the publishers matching the given filter criteria.
+     *
+     * @param publisherName the given publisher name
+     * @return the amount of matching publishers
+     */
+    @Query("select count(p) from Publisher as p where " + PUBLISHER_FILTER)
+    long countPublishers(final String publisherName);
+
+
+    /**
+     * Queries the window of publishers matching the given filter criteria and following the given keyset position,
+     * ordered by name and id.
+     *
+     * @param publisherName the given publisher name
+     * @param cursorName    the name of the last publisher of the previous window or null for the first window
+     * @param cursorId      the id of the last publisher of the previous window
+     * @param pageable      the given pageable information limiting the window size
+     * @return a List of type Publisher
+     */
+    @Query("select p from Publisher as p where " +
+            "(:publisherName is null or p.publisherName like :publisherName) and " +
+            "(:cursorName is null or p.publisherName > :cursorName or (p.publisherName = :cursorName and p.publisherId > :cursorId)) " +
+            "order by p.publisherName asc, p.publisherId asc")
+    List<Publisher> seekPublishersForward(final String publisherName, final String cursorName, final Long cursorId,
+                                          final Pageable pageable);
+
+
+    /**
+     * Queries the window of publishers matching the given filter criteria and preceding the given keyset position,
+     * in descending name and id order.
+     *
+     * @param publisherName the given publisher name
+     * @param cursorName    the name of the first publisher of the following window
+     * @param cursorId      the id of the first publisher of the following window
+     * @param pageable      the given pageable information limiting the window size
+     * @return a List of type Publisher
+     */
+    @Query("select p from Publisher as p where " +
+            "(:publisherName is null or p.publisherName like :publisherName) and " +
+            "(p.publisherName < :cursorName or (p.publisherName = :cursorName and p.publisherId < :cursorId)) " +
+            "order by p.publisherName desc, p.publisherId desc")
+    List<Publisher> seekPublishersBackward(final String publisherName, final String cursorName, final Long cursorId,
+                                           final Pageable pageable);
+
+    /**
+     * Queries the first publisher with exactly the given name.
+     *
+     * @param publisherName the given publisher name
+     * @return an Optional of type Publisher
+     */
+    Optional<Publisher> findFirstByPublisherName(final String publisherName);
+
+    /**
+     * Queries the current version of the publisher with the given id.
+     *
+     * @param publisherId the given publisher id
+     * @return an Optional of type Long, empty if no such publisher exists
+     */
+    @Query("select p.version from Publisher as p where p.publisherId = :publisherId")
+    Optional<Long> findVersionById(final Long publisherId);
+
+    /**
+     * Deletes the publisher with the given id unless it is still referenced by books.
+     *
+     * @param publisherId the given publisher id
+     * @return the amount of deleted publishers, 0 if no such publisher exists or it is still referenced by books
      */
-    @Procedure("getTotalPublishersCount")
-    Integer getTotalPublishersCount();
+    @Transactional
+    @Modifying
+    @Query("delete from Publisher as p where p.publisherId = :publisherId "
+            + "and not exists (select b from Book as b where b.publisher = p)")
+    int deletePublisher(final Long publisherId);
 }
@@ -1,10 +1,90 @@
 package org.oplapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.oplapp.model.*;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.transaction.annotation.*;
+
+import java.time.*;
+import java.util.*;
 
 /**
  * Repository interface providing tag related CRUD operations.
  */
 public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    /**
+     * Queries all tags. The result is kept in the query cache, which Hibernate invalidates whenever a tag is written.
+     *
+     * @return a List of Tag instances
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Tag> findAll();
+
+    /**
+     * Queries the first tag with exactly the given name.
+     *
+     * @param tagName the given tag name
+     * @return an Optional of type Tag
+     */
+    Optional<Tag> findFirstByTagName(final String tagName);
+
+    /**
+     * Queries the current version of the tag with the given id.
+     *
+     * @param tagId the given tag id
+     * @return an Optional of type Long, empty if no such tag exists
+     */
+    @Query("select t.version from Tag as t where t.tagId = :tagId")
+    Optional<Long> findVersionById(final Long tagId);
+
+    /**
+     * Deletes the tag with the given id after removing it from the books it is linked to. The version and the
+     * last modification of those books are updated as well, as the tag is part of their representation.
+     *
+     * @param tagId the given tag id
+     * @return the amount of deleted tags, 0 if no such tag exists
+     */
+    @Transactional
+    default int deleteTag(final Long tagId) {
+        touchBooks(tagId, Instant.now());
+        unlinkBooks(tagId);
+        return deleteTagRow(tagId);
+    }
+
+    /**
+     * Increments the version and sets the last modification of the books linked to the tag with the given id.
+     *
+     * @param tagId        the given tag id
+     * @param lastModified the given time of the modification
+     * @return the amount of updated books
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book"))
+    @Query(value = "update Book set version = version + 1, last_modified = :lastModified "
+            + "where book_id in (select book_id from Book_Tags where tag_id = :tagId)", nativeQuery = true)
+    int touchBooks(final Long tagId, final Instant lastModified);
+
+    /**
+     * Deletes the rows linking the tag with the given id to its books.
+     *
+     * @param tagId the given tag id
+     * @return the amount of deleted rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_tags"))
+    @Query(value = "delete from Book_Tags where tag_id = :tagId", nativeQuery = true)
+    int unlinkBooks(final Long tagId);
+
+    /**
+     * Deletes the tag with the given id, which must not be linked to books anymore.
+     *
+     * @param tagId the given tag id
+     * @return the amount of deleted tags
+     */
+    @Modifying
+    @Query("delete from Tag as t where t.tagId = :tagId")
+    int deleteTagRow(final Long tagId);
 }
@@ -0,0 +1,162 @@
+package org.oplapp.search;
+
+import org.oplapp.model.*;
+import org.oplapp.repository.*;
+import org.slf4j.*;
+import org.springframework.boot.context.event.*;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+
+import java.text.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * An instance of this class serves as an in-memory inverted index over book titles. Titles are split into
+ * normalized tokens, each token maps to the ids of the books containing it. Lookups only touch the postings
+ * of the query tokens, so search cost depends on the number of matches rather than on the catalog size.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    // Query tokens shorter than this only match whole title tokens to keep prefix expansion cheap
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int EXACT_MATCH_SCORE = 2;
+    private static final int PREFIX_MATCH_SCORE = 1;
+
+    private final BookRepository bookRepository;
+    private final ConcurrentNavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+
+
+    public BookSearchIndex(final BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+
+    /**
+     * Rebuilds the whole index from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        postings.clear();
+        documents.clear();
+
+        try (Stream<BookTitle> titles = bookRepository.streamBookTitles()) {
+            titles.forEach(title -> index(title.getBookId(), title.getBookTitle()));
+        }
+
+        logger.info("Book search index rebuilt with {} books and {} tokens", documents.size(), postings.size());
+    }
+
+
+    /**
+     * Adds the given book to the index or replaces its previously indexed title.
+     *
+     * @param bookId    the given book id
+     * @param bookTitle the given book title
+     */
+    public void index(final Long bookId, final String bookTitle) {
+        remove(bookId);
+
+        final String[] tokens = tokenize(bookTitle).distinct().toArray(String[]::new);
+        documents.put(bookId, tokens);
+        for (final String token : tokens) {
+            postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(bookId);
+        }
+    }
+
+
+    /**
+     * Removes the given book from the index.
+     *
+     * @param bookId the given book id
+     */
+    public void remove(final Long bookId) {
+        final String[] tokens = documents.remove(bookId);
+        if (tokens == null) {
+            return;
+        }
+
+        for (final String token : tokens) {
+            postings.computeIfPresent(token, (key, ids) -> {
+                ids.remove(bookId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+
+    /**
+     * Searches the index for books whose titles contain the tokens of the given query. Whole token matches rank
+     * above prefix matches, ties are broken in favour of shorter titles.
+     *
+     * @param query the given search query
+     * @param limit the maximum amount of ids to return
+     * @return a List of book ids ordered by relevance
+     */
+    public List<Long> search(final String query, final int limit) {
+        final Map<Long, Integer> scores = new HashMap<>();
+        tokenize(query).distinct().forEach(token -> {
+            final Set<Long> exactMatches = postings.getOrDefault(token, Set.of());
+            exactMatches.forEach(bookId -> scores.merge(bookId, EXACT_MATCH_SCORE, Integer::sum));
+
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                final Set<Long> prefixMatches = new HashSet<>();
+                postings.subMap(token, false, token + Character.MAX_VALUE, false)
+                        .values()
+                        .forEach(prefixMatches::addAll);
+                prefixMatches.removeAll(exactMatches);
+                prefixMatches.forEach(bookId -> scores.merge(bookId, PREFIX_MATCH_SCORE, Integer::sum));
+            }
+        });
+
+        final Comparator<Map.Entry<Long, Integer>> relevance = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(entry -> -titleLength(entry.getKey()))
+                .thenComparing(entry -> -entry.getKey());
+        final PriorityQueue<Map.Entry<Long, Integer>> topMatches = new PriorityQueue<>(relevance);
+        for (final Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            topMatches.add(entry);
+            if (topMatches.size() > limit) {
+                topMatches.poll();
+            }
+        }
+
+        final LinkedList<Long> rankedIds = new LinkedList<>();
+        while (!topMatches.isEmpty()) {
+            rankedIds.addFirst(topMatches.poll().getKey());
+        }
+
+        return rankedIds;
+    }
+
+
+    private int titleLength(final Long bookId) {
+        final String[] tokens = documents.get(bookId);
+        return tokens != null ? tokens.length : Integer.MAX_VALUE;
+    }
+
+
+    /**
+     * Splits the given text into lowercase tokens without diacritics, so that e.g. "Müller" and "muller" match.
+     *
+     * @param text the given text
+     * @return a Stream of tokens
+     */
+    static Stream<String> tokenize(final String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+
+        final String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT).replace("ß", "ss"), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "");
+
+        return Arrays.stream(normalized.split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty());
+    }
+}
@@ -1,13 +1,19 @@
 package org.oplapp.service;
 
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.repository.*;
+import org.oplapp.statistics.*;
 import org.oplapp.validator.*;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+import reactor.core.publisher.*;
 
 import java.util.*;
+import java.util.function.*;
 
 /**
  * This class provides author related service methods.
@@ -17,11 +23,20 @@ public class AuthorService {
 
     private final AuthorRepository authorRepository;
     private final ValidationHandler<Author> validator;
+    private final BatchUpsert<Author> batchUpsert;
+    private final CatalogCounters counters;
+    private final CountCache countCache;
+    private final CatalogAggregates aggregates;
 
 
-    public AuthorService(final AuthorRepository authorRepository, final ValidationHandler<Author> validator) {
+    public AuthorService(final AuthorRepository authorRepository, final ValidationHandler<Author> validator,
+                         final CatalogCounters counters, final CountCache countCache, final CatalogAggregates aggregates) {
         this.authorRepository = authorRepository;
         this.validator = validator;
+        this.batchUpsert = new BatchUpsert<>(validator, Author::getAuthorId, Author::setAuthorId, authorRepository::findAllById);
+        this.counters = counters;
+        this.countCache = countCache;
+        this.aggregates = aggregates;
     }
 
 
@@ -39,55 +54,101 @@ public class AuthorService {
 
 
     /**
-     * Calls the CrudRepository's findAll method to query all authors in the database.
+     * Calls the CrudRepository's findAllById method to query the authors with the given ids at once.
+     *
+     * @param authorIds the given author ids
+     * @return a BatchResult instance, containing the found authors and the ids of the missing ones
+     */
+    public BatchResult<Author> getAuthorsByIds(final Collection<Long> authorIds) {
+        final List<Long> ids = BatchResult.distinctIds(authorIds);
+
+        return BatchResult.of(ids, authorRepository.findAllById(ids), Author::getAuthorId);
+    }
+
+
+    /**
+     * Calls the AuthorRepository's sliceAuthors method to query all authors in the database.
      *
      * @param page the given page number
      * @param size the given page size
-     * @return a Map of String and Object, containing a list of Author instances and pagination information
+     * @param totalMode the given way of determining the total amount of authors
+     * @return an AuthorPage instance, containing a list of AuthorSummary instances and pagination information
      */
-    public Map<String, Object> getAllAuthors(final int page, final int size) {
+    public AuthorPage getAllAuthors(final int page, final int size, final TotalMode totalMode) {
         final int oneBasedPage = page == 0 ? page : page - 1;
         final Pageable initialPage = PageRequest.of(oneBasedPage, size, Sort.by("lastname"));
-        final Page<Author> authorPage = authorRepository.findAll(initialPage);
-        final List<Author> allAuthors = authorPage.getContent();
+        final Slice<AuthorSummary> authors = authorRepository.sliceAuthors(null, null, initialPage);
 
-        final Map<String, Object> response = new HashMap<>();
-        response.put("authors", allAuthors);
-        response.put("totalElements", authorPage.getTotalElements());
-        response.put("totalPages", authorPage.getTotalPages());
-        response.put("currentPage", authorPage.getNumber() + 1);
-        response.put("pageSize", authorPage.getSize());
-
-        return response;
+        return new AuthorPage(authors.getContent(), OffsetPage.of(authors, totalMode, authorRepository::count,
+                () -> counters.get(CatalogCounters.Counter.AUTHORS)));
     }
 
 
     /**
-     * Calls the AuthorRepository's queryAuthors method to query all authors matching the given filter criteria.
+     * Calls the AuthorRepository's sliceAuthors method to query all authors matching the given filter criteria.
      *
      * @param authorFirstname the given firstname
      * @param authorLastname the given lastname
      * @param page the given page number
      * @param size the given page size
-     * @return a Map of String and Object, containing a list of Author instances and pagination information
+     * @param totalMode the given way of determining the total amount of matching authors
+     * @return an AuthorPage instance, containing a list of AuthorSummary instances and pagination information
      */
-    public Map<String, Object> filterAuthors(final String authorFirstname, final String authorLastname, final int page, final int size) {
+    public AuthorPage filterAuthors(final String authorFirstname, final String authorLastname, final int page, final int size, final TotalMode totalMode) {
         final int oneBasedPage = page == 0 ? page : page - 1;
         final Pageable initialPage = PageRequest.of(oneBasedPage, size, Sort.by("lastname"));
-        final Page<Author> authorPage = authorRepository.queryAuthors(authorFirstname, authorLastname, initialPage);
-        final List<Author> filteredAuthors = authorPage.getContent();
+        final Slice<AuthorSummary> authors = authorRepository.sliceAuthors(authorFirstname, authorLastname, initialPage);
+        final LongSupplier counter = () -> authorRepository.countAuthors(authorFirstname, authorLastname);
+        final LongSupplier estimator = () -> countCache.get(Arrays.asList("authors", authorFirstname, authorLastname), counter);
+
+        return new AuthorPage(authors.getContent(), OffsetPage.of(authors, totalMode, counter, estimator));
+    }
+
+
+    /**
+     * Calls the AuthorRepository's seek methods to query a keyset paginated window of the authors matching the given
+     * filter criteria, ordered by lastname and id.
+     *
+     * @param authorFirstname the given firstname
+     * @param authorLastname the given lastname
+     * @param cursor the given cursor token, a blank token requests the first window
+     * @param size the given page size
+     * @return a Map of String and Object, containing a list of Author instances and the neighbouring cursors
+     */
+    public Map<String, Object> seekAuthors(final String authorFirstname, final String authorLastname, final String cursor, final int size) {
+        final Cursor position = Cursor.decode(cursor);
+        final Pageable window = KeysetPage.window(size);
+        final List<Author> rows = position != null && position.isBackward()
+                ? authorRepository.seekAuthorsBackward(authorFirstname, authorLastname, position.getSortKey(), position.getId(), window)
+                : authorRepository.seekAuthorsForward(authorFirstname, authorLastname,
+                position != null ? position.getSortKey() : null, position != null ? position.getId() : null, window);
+        final KeysetPage<Author> authorPage = KeysetPage.of(rows, size, position, Author::getLastname, Author::getAuthorId);
 
         final Map<String, Object> response = new HashMap<>();
-        response.put("authors", filteredAuthors);
-        response.put("totalElements", authorPage.getTotalElements());
-        response.put("totalPages", authorPage.getTotalPages());
-        response.put("currentPage", authorPage.getNumber() + 1);
-        response.put("pageSize", authorPage.getSize());
+        response.put("authors", authorPage.getContent());
+        response.put("nextCursor", authorPage.getNextCursor());
+        response.put("prevCursor", authorPage.getPrevCursor());
+        response.put("pageSize", size);
 
         return response;
     }
 
 
+    /**
+     * Streams all authors matching the given filter criteria, ordered by lastname and id. The authors are queried
+     * window by window as the subscriber requests them.
+     *
+     * @param authorFirstname the given firstname
+     * @param authorLastname the given lastname
+     * @param windowSize the amount of authors queried at once
+     * @return a Flux of type AuthorSummary
+     */
+    public Flux<AuthorSummary> streamAuthors(final String authorFirstname, final String authorLastname, final int windowSize) {
+        return KeysetFlux.<Author>of((cursorLastname, cursorId, limit) -> authorRepository.seekAuthorsForward(authorFirstname,
+                        authorLastname, cursorLastname, cursorId, PageRequest.of(0, limit)), windowSize, Author::getLastname, Author::getAuthorId)
+                .map(author -> new AuthorSummary(author.getAuthorId(), author.getFirstname(), author.getLastname()));
+    }
+
     /**
      * Calls the CrudRepository's save method to persist the given Author instance.
      * @param author the given Author instance
@@ -98,19 +159,48 @@ public class AuthorService {
         // throws an exception if not so
         validator.handleValidation(author);
 
-        return authorRepository.save(author);
+        final Long authorIdBeforeSave = author.getAuthorId();
+        Versions.adoptCurrentVersion(author, Author::getAuthorId, Author::setAuthorId, authorRepository::findVersionById);
+
+        final Author savedAuthor = authorRepository.save(author);
+        if (!Objects.equals(savedAuthor.getAuthorId(), authorIdBeforeSave)) {
+            counters.add(CatalogCounters.Counter.AUTHORS, 1);
+        }
+
+        return savedAuthor;
     }
 
 
     /**
-     * Calls the CrudRepository's deleteById method to delete an author from the database by the given id.
+     * Validates all given Author instances and persists the valid ones in a single transaction, which lets the
+     * inserts and updates be sent in JDBC batches.
+     *
+     * @param authors the given Author instances
+     * @return a BatchWriteResult instance, containing the saved authors and the errors of the rejected ones
+     */
+    @Transactional
+    public BatchWriteResult<Author> saveOrUpdateAuthors(final List<Author> authors) {
+        return batchUpsert.upsert(authors, accepted -> {
+            final long newAuthors = accepted.stream().filter(author -> author.getAuthorId() == null).count();
+            final List<Author> savedAuthors = authorRepository.saveAllAndFlush(accepted);
+            counters.add(CatalogCounters.Counter.AUTHORS, newAuthors);
+
+            return savedAuthors;
+        });
+    }
+
+
+    /**
+     * Calls the AuthorRepository's deleteAuthor method to delete an author from the database by the given id. The
+     * author is removed from the books it is linked to.
      * @param authorId the given author id
      */
     public void deleteAuthorById(final Long authorId) {
-        if (!authorRepository.existsById(authorId)) {
+        if (authorRepository.deleteAuthor(authorId) == 0) {
             throw new AuthorNotFoundException(authorId);
-        } else {
-            authorRepository.deleteById(authorId);
         }
+
+        counters.add(CatalogCounters.Counter.AUTHORS, -1);
+        aggregates.markDirty();
     }
 }
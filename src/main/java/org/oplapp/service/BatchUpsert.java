@@ -0,0 +1,114 @@
+package org.oplapp.service;
+
+import org.oplapp.dto.*;
+import org.oplapp.exceptions.*;
+import org.oplapp.model.*;
+import org.oplapp.validator.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * An instance of this class validates and prepares the items of a batch upsert for one entity type. All items are
+ * validated first, then the existing rows of the valid ones are loaded with a single query. Loading them puts the
+ * persistent entities into the persistence context, so the subsequent merges need no select per item.
+ *
+ * @param <T> the given entity type
+ */
+final class BatchUpsert<T extends Versioned> {
+
+    static final String OUTDATED_VERSION = "The resource has been modified in the meantime, reload it and retry";
+
+    private final ValidationHandler<T> validator;
+    private final Function<T, Long> id;
+    private final BiConsumer<T, Long> setId;
+    private final Function<List<Long>, List<T>> findAllById;
+
+
+    BatchUpsert(final ValidationHandler<T> validator, final Function<T, Long> id, final BiConsumer<T, Long> setId,
+                final Function<List<Long>, List<T>> findAllById) {
+        this.validator = validator;
+        this.id = id;
+        this.setId = setId;
+        this.findAllById = findAllById;
+    }
+
+
+    /**
+     * Validates the given items and hands the valid ones to the given save function. Items with an id which does
+     * not exist are inserted, items without a version overwrite the current state of their row, and items whose
+     * version is outdated are rejected.
+     *
+     * @param items the given items
+     * @param save  the given function persisting the accepted items and returning the saved ones in the same order
+     * @return a BatchWriteResult instance
+     * @throws IllegalArgumentException if no item or more than MAX_ITEMS items are given
+     */
+    BatchWriteResult<T> upsert(final List<T> items, final UnaryOperator<List<T>> save) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item has to be given");
+        }
+        if (items.size() > BatchWriteResult.MAX_ITEMS) {
+            throw new IllegalArgumentException("At most " + BatchWriteResult.MAX_ITEMS + " items can be saved at once");
+        }
+
+        final SortedMap<Integer, Set<String>> errors = new TreeMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            if (items.get(index) == null) {
+                errors.put(index, Set.of("Expected an object"));
+                continue;
+            }
+            try {
+                validator.handleValidation(items.get(index));
+            } catch (final InvalidInstanceException exception) {
+                errors.put(index, exception.getErrorMessages());
+            }
+        }
+
+        final List<Long> ids = new ArrayList<>();
+        for (int index = 0; index < items.size(); index++) {
+            if (!errors.containsKey(index) && id.apply(items.get(index)) != null) {
+                ids.add(id.apply(items.get(index)));
+            }
+        }
+        final Map<Long, T> existing = new HashMap<>();
+        if (!ids.isEmpty()) {
+            findAllById.apply(ids).forEach(entity -> existing.put(id.apply(entity), entity));
+        }
+
+        final List<Integer> acceptedIndexes = new ArrayList<>();
+        final List<T> accepted = new ArrayList<>();
+        for (int index = 0; index < items.size(); index++) {
+            if (errors.containsKey(index)) {
+                continue;
+            }
+
+            final T item = items.get(index);
+            final T persistent = id.apply(item) != null ? existing.get(id.apply(item)) : null;
+            if (id.apply(item) != null && persistent == null) {
+                // An unknown id is replaced by a generated one, as by the single item save
+                setId.accept(item, null);
+            } else if (persistent != null && item.getVersion() == null) {
+                item.setVersion(persistent.getVersion());
+            } else if (persistent != null && !item.getVersion().equals(persistent.getVersion())) {
+                errors.put(index, Set.of(OUTDATED_VERSION));
+                continue;
+            }
+            acceptedIndexes.add(index);
+            accepted.add(item);
+        }
+
+        final List<T> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        if (!accepted.isEmpty()) {
+            final List<T> saved = save.apply(accepted);
+            for (int position = 0; position < saved.size(); position++) {
+                results.set(acceptedIndexes.get(position), saved.get(position));
+            }
+        }
+
+        final List<RecordError> recordErrors = errors.entrySet().stream()
+                .map(error -> new RecordError(error.getKey(), error.getValue()))
+                .toList();
+        return new BatchWriteResult<>(results, accepted.size(), recordErrors.size(), recordErrors);
+    }
+}
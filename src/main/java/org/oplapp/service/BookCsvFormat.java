@@ -0,0 +1,134 @@
+package org.oplapp.service;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class defines the CSV representation of books shared by the bulk import and export. Records follow
+ * RFC 4180, authors are listed as "Lastname, Firstname" and multiple authors or tags are separated by ";".
+ */
+final class BookCsvFormat {
+
+    static final String BOOK_TITLE = "bookTitle";
+    static final String AUTHORS = "authors";
+    static final String PUBLISHER = "publisher";
+    static final String TAGS = "tags";
+    static final String EDITION = "edition";
+    static final String GENRE = "genre";
+    static final String PUBLISHING_YEAR = "publishingYear";
+    static final String PAGE_COUNT = "pageCount";
+    static final String ISBN = "isbn";
+    static final String NOTES = "notes";
+    static final String SHELF = "shelf";
+    static final String LEDGE = "ledge";
+
+    static final List<String> COLUMNS = List.of(BOOK_TITLE, AUTHORS, PUBLISHER, TAGS, EDITION, GENRE,
+            PUBLISHING_YEAR, PAGE_COUNT, ISBN, NOTES, SHELF, LEDGE);
+
+    static final String LIST_SEPARATOR = ";";
+    static final String NAME_SEPARATOR = ",";
+
+    private BookCsvFormat() {
+    }
+
+
+    /**
+     * Reads the next record from the given reader. Quoted fields may contain separators, escaped quotes and line breaks.
+     *
+     * @param reader the given reader
+     * @return a List of field values or null if the end of the input has been reached
+     * @throws IOException if the input can not be read
+     */
+    static List<String> readRecord(final Reader reader) throws IOException {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean readAny = false;
+
+        int current;
+        while ((current = reader.read()) != -1) {
+            readAny = true;
+            final char character = (char) current;
+
+            if (quoted) {
+                if (character != '"') {
+                    field.append(character);
+                    continue;
+                }
+
+                reader.mark(1);
+                final int next = reader.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (character == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (character == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (character == '\n') {
+                break;
+            } else if (character != '\r') {
+                field.append(character);
+            }
+        }
+
+        if (!readAny) {
+            return null;
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+
+    /**
+     * Formats the given field values as one CSV record including the trailing line break.
+     *
+     * @param fields the given field values, null values are written as empty fields
+     * @return the formatted record
+     */
+    static String formatRecord(final List<String> fields) {
+        final StringJoiner record = new StringJoiner(",", "", "\r\n");
+        for (final String field : fields) {
+            record.add(escape(field));
+        }
+
+        return record.toString();
+    }
+
+
+    private static String escape(final String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+
+        return field;
+    }
+
+
+    /**
+     * Splits a list cell into its trimmed, non empty items.
+     *
+     * @param cell the given cell value
+     * @return a List of items
+     */
+    static List<String> splitList(final String cell) {
+        if (cell == null || cell.isBlank()) {
+            return List.of();
+        }
+
+        return Arrays.stream(cell.split(LIST_SEPARATOR))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,216 @@
+package org.oplapp.service;
+
+import com.fasterxml.jackson.databind.*;
+import org.oplapp.model.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.jdbc.core.*;
+import org.springframework.stereotype.*;
+
+import javax.sql.*;
+import java.io.*;
+import java.nio.charset.*;
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * This class provides the export of the whole catalog. All books are read by a single forward-only query
+ * and written to the output one at a time, so the memory usage does not depend on the size of the catalog.
+ */
+@Service
+public class BookExportService {
+
+    // One row per combination of a book's authors and tags, ordered by book so the rows of a book are adjacent
+    static final String EXPORT_QUERY = """
+            SELECT b.book_id, b.book_title, b.edition, b.genre, b.publishing_year, b.page_count, b.isbn, b.notes,
+                   b.shelf, b.ledge, b.version, b.last_modified,
+                   p.publisher_id, p.publisher_name, p.version AS publisher_version,
+                   p.last_modified AS publisher_last_modified,
+                   a.author_id, a.firstname, a.lastname, a.version AS author_version,
+                   a.last_modified AS author_last_modified,
+                   t.tag_id, t.tag_name, t.version AS tag_version, t.last_modified AS tag_last_modified
+            FROM Book b
+            LEFT JOIN Publisher p ON p.publisher_id = b.publisher_id
+            LEFT JOIN Book_Authors ba ON ba.book_id = b.book_id
+            LEFT JOIN Author a ON a.author_id = ba.author_id
+            LEFT JOIN Book_Tags bt ON bt.book_id = b.book_id
+            LEFT JOIN Tag t ON t.tag_id = bt.tag_id
+            ORDER BY b.book_id
+            """;
+
+    // The output is flushed to the client after this many books
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter bookWriter;
+
+    public BookExportService(final DataSource dataSource, final ObjectMapper objectMapper,
+                             @Value("${oplapp.export.fetch-size:1000}") final int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.bookWriter = objectMapper.writerFor(Book.class);
+    }
+
+
+    /**
+     * Writes all books as newline delimited JSON, one book per line in the shape returned by GET /books/{bookId}.
+     *
+     * @param output the given output stream
+     * @throws IOException if the output can not be written
+     */
+    public void exportNdjson(final OutputStream output) throws IOException {
+        final BufferedOutputStream buffer = new BufferedOutputStream(output);
+
+        streamBooks(book -> {
+            buffer.write(bookWriter.writeValueAsBytes(book));
+            buffer.write('\n');
+        }, buffer::flush);
+        buffer.flush();
+    }
+
+
+    /**
+     * Writes all books as CSV with a header line, in the format accepted by the bulk import.
+     *
+     * @param output the given output stream
+     * @throws IOException if the output can not be written
+     */
+    public void exportCsv(final OutputStream output) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(BookCsvFormat.formatRecord(BookCsvFormat.COLUMNS));
+
+        streamBooks(book -> writer.write(BookCsvFormat.formatRecord(toCsvFields(book))), writer::flush);
+        writer.flush();
+    }
+
+
+    private void streamBooks(final BookSink sink, final Flushable flushable) throws IOException {
+        final BookAssembler assembler = new BookAssembler(book -> {
+            try {
+                sink.write(book);
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }, flushable);
+
+        try {
+            jdbcTemplate.query(EXPORT_QUERY, assembler);
+            assembler.finish();
+        } catch (final UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+
+    private static List<String> toCsvFields(final Book book) {
+        final String authors = book.getAuthors().stream()
+                .map(author -> author.getLastname() + BookCsvFormat.NAME_SEPARATOR + " " + author.getFirstname())
+                .collect(Collectors.joining(BookCsvFormat.LIST_SEPARATOR));
+        final String tags = book.getTags().stream()
+                .map(Tag::getTagName)
+                .collect(Collectors.joining(BookCsvFormat.LIST_SEPARATOR));
+
+        return Arrays.asList(book.getBookTitle(), authors, book.getPublisher() != null ? book.getPublisher().getPublisherName() : null,
+                tags, book.getEdition(), book.getGenre(), Objects.toString(book.getPublishingYear(), null),
+                Objects.toString(book.getPageCount(), null), book.getIsbn(), book.getNotes(), book.getShelf(), book.getLedge());
+    }
+
+
+    @FunctionalInterface
+    private interface BookSink {
+        void write(Book book) throws IOException;
+    }
+
+
+    /**
+     * Collects the adjacent rows of a book and passes the book on once the rows of the next one begin.
+     */
+    private static final class BookAssembler implements RowCallbackHandler {
+
+        private final Consumer<Book> consumer;
+        private final Flushable flushable;
+        private final Map<Long, Author> authors = new LinkedHashMap<>();
+        private final Map<Long, Tag> tags = new LinkedHashMap<>();
+        private Book current;
+        private long written;
+
+        BookAssembler(final Consumer<Book> consumer, final Flushable flushable) {
+            this.consumer = consumer;
+            this.flushable = flushable;
+        }
+
+
+        @Override
+        public void processRow(final ResultSet resultSet) throws SQLException {
+            final long bookId = resultSet.getLong("book_id");
+            if (current == null || current.getBookId() != bookId) {
+                finish();
+                current = toBook(resultSet);
+            }
+
+            final long authorId = resultSet.getLong("author_id");
+            if (!resultSet.wasNull() && !authors.containsKey(authorId)) {
+                final Author author = new Author(authorId, resultSet.getString("firstname"), resultSet.getString("lastname"));
+                author.setVersion(resultSet.getObject("author_version", Long.class));
+                author.setLastModified(toInstant(resultSet.getTimestamp("author_last_modified")));
+                authors.put(authorId, author);
+            }
+            final long tagId = resultSet.getLong("tag_id");
+            if (!resultSet.wasNull() && !tags.containsKey(tagId)) {
+                final Tag tag = new Tag(tagId, resultSet.getString("tag_name"));
+                tag.setVersion(resultSet.getObject("tag_version", Long.class));
+                tag.setLastModified(toInstant(resultSet.getTimestamp("tag_last_modified")));
+                tags.put(tagId, tag);
+            }
+        }
+
+
+        void finish() {
+            if (current == null) {
+                return;
+            }
+
+            current.setAuthors(new LinkedHashSet<>(authors.values()));
+            current.setTags(new LinkedHashSet<>(tags.values()));
+            consumer.accept(current);
+            authors.clear();
+            tags.clear();
+            current = null;
+
+            if (++written % FLUSH_INTERVAL == 0) {
+                try {
+                    flushable.flush();
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+        }
+
+
+        private static Book toBook(final ResultSet resultSet) throws SQLException {
+            final long publisherId = resultSet.getLong("publisher_id");
+            Publisher publisher = null;
+            if (!resultSet.wasNull()) {
+                publisher = new Publisher(publisherId, resultSet.getString("publisher_name"));
+                publisher.setVersion(resultSet.getObject("publisher_version", Long.class));
+                publisher.setLastModified(toInstant(resultSet.getTimestamp("publisher_last_modified")));
+            }
+
+            final Book book = new Book(resultSet.getLong("book_id"), resultSet.getString("book_title"),
+                    resultSet.getString("edition"), resultSet.getString("genre"), null,
+                    resultSet.getObject("publishing_year", Integer.class), resultSet.getObject("page_count", Integer.class),
+                    resultSet.getString("isbn"), resultSet.getString("notes"), publisher, null,
+                    resultSet.getString("shelf"), resultSet.getString("ledge"));
+            book.setVersion(resultSet.getObject("version", Long.class));
+            book.setLastModified(toInstant(resultSet.getTimestamp("last_modified")));
+            return book;
+        }
+
+
+        private static Instant toInstant(final Timestamp timestamp) {
+            return timestamp != null ? timestamp.toInstant() : null;
+        }
+    }
+}
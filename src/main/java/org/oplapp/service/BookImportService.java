@@ -0,0 +1,496 @@
+package org.oplapp.service;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.databind.*;
+import jakarta.persistence.*;
+import org.oplapp.dto.*;
+import org.oplapp.exceptions.*;
+import org.oplapp.model.*;
+import org.oplapp.repository.*;
+import org.oplapp.search.*;
+import org.oplapp.statistics.*;
+import org.oplapp.validator.*;
+import org.slf4j.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.core.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * This class provides the bulk import of books. Uploads are parsed record by record while they are read, valid
+ * records are persisted in batches of a configurable size, each in its own transaction, so the heap usage does
+ * not depend on the size of the upload. A batch which fails is saved again record by record, so only the failing
+ * records are reported.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    // Upper bound of the name to id mappings remembered per import, least recently used names get evicted first
+    private static final int MAX_CACHED_NAMES = 10_000;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final PublisherRepository publisherRepository;
+    private final TagRepository tagRepository;
+    private final ValidationHandler<Object> validator;
+    private final BookSearchIndex searchIndex;
+    private final CatalogCounters counters;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public BookImportService(final BookRepository bookRepository, final AuthorRepository authorRepository,
+                             final PublisherRepository publisherRepository, final TagRepository tagRepository,
+                             final ValidationHandler<Object> validator, final BookSearchIndex searchIndex,
+                             final CatalogCounters counters,
+                             final PlatformTransactionManager transactionManager, final EntityManager entityManager,
+                             final ObjectMapper objectMapper,
+                             @Value("${oplapp.import.batch-size:500}") final int batchSize,
+                             @Value("${oplapp.import.max-reported-errors:1000}") final int maxReportedErrors) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.tagRepository = tagRepository;
+        this.validator = validator;
+        this.searchIndex = searchIndex;
+        this.counters = counters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+
+    /**
+     * Imports the books of the given JSON array. Every array element has the shape of a book as accepted by
+     * POST /books, except that authors, the publisher and tags may be given by name instead of by id.
+     *
+     * @param input the given JSON input
+     * @return an ImportReport instance
+     */
+    public ImportReport importJson(final InputStream input) {
+        final ImportRun run = new ImportRun();
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of books");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    run.reject(index++, Set.of("Expected a JSON object"));
+                    continue;
+                }
+
+                // Each element is read into its own small tree, so a record which does not map to a book
+                // can be reported without losing the position within the stream
+                final JsonNode node = parser.readValueAsTree();
+                try {
+                    run.accept(index, objectMapper.treeToValue(node, Book.class));
+                } catch (final JsonProcessingException exception) {
+                    run.reject(index, Set.of("Malformed record: " + exception.getOriginalMessage()));
+                }
+                index++;
+            }
+        } catch (final IOException exception) {
+            run.abort(index, exception);
+        }
+
+        return run.complete();
+    }
+
+
+    /**
+     * Imports the books of the given CSV input. The first record has to be a header naming the columns, see
+     * BookCsvFormat for the supported columns and the representation of authors and tags.
+     *
+     * @param input the given CSV input
+     * @return an ImportReport instance
+     */
+    public ImportReport importCsv(final InputStream input) {
+        final ImportRun run = new ImportRun();
+        int index = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            final Map<String, Integer> columns = readHeader(reader);
+
+            List<String> fields;
+            while ((fields = BookCsvFormat.readRecord(reader)) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+
+                try {
+                    run.accept(index, toBook(columns, fields));
+                } catch (final IllegalArgumentException exception) {
+                    run.reject(index, Set.of(exception.getMessage()));
+                }
+                index++;
+            }
+        } catch (final IOException exception) {
+            run.abort(index, exception);
+        }
+
+        return run.complete();
+    }
+
+
+    private Map<String, Integer> readHeader(final BufferedReader reader) throws IOException {
+        final List<String> header = BookCsvFormat.readRecord(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("Expected a CSV header");
+        }
+
+        final Map<String, Integer> columns = new HashMap<>();
+        for (int position = 0; position < header.size(); position++) {
+            final String column = header.get(position).replace(String.valueOf(BYTE_ORDER_MARK), "").trim();
+            columns.put(column, position);
+        }
+        if (!columns.containsKey(BookCsvFormat.BOOK_TITLE)) {
+            throw new IllegalArgumentException("The CSV header has to contain the column " + BookCsvFormat.BOOK_TITLE);
+        }
+
+        return columns;
+    }
+
+
+    private Book toBook(final Map<String, Integer> columns, final List<String> fields) {
+        final Book book = new Book();
+        book.setBookTitle(field(columns, fields, BookCsvFormat.BOOK_TITLE));
+        book.setEdition(field(columns, fields, BookCsvFormat.EDITION));
+        book.setGenre(field(columns, fields, BookCsvFormat.GENRE));
+        book.setPublishingYear(number(columns, fields, BookCsvFormat.PUBLISHING_YEAR));
+        book.setPageCount(number(columns, fields, BookCsvFormat.PAGE_COUNT));
+        book.setIsbn(field(columns, fields, BookCsvFormat.ISBN));
+        book.setNotes(field(columns, fields, BookCsvFormat.NOTES));
+        book.setShelf(field(columns, fields, BookCsvFormat.SHELF));
+        book.setLedge(field(columns, fields, BookCsvFormat.LEDGE));
+
+        final String publisherName = field(columns, fields, BookCsvFormat.PUBLISHER);
+        book.setPublisher(publisherName != null ? new Publisher(publisherName) : null);
+
+        final Set<Author> authors = new HashSet<>();
+        for (final String name : BookCsvFormat.splitList(field(columns, fields, BookCsvFormat.AUTHORS))) {
+            final int separator = name.indexOf(BookCsvFormat.NAME_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("authors: Expected \"Lastname, Firstname\" but got \"" + name + "\"");
+            }
+            authors.add(new Author(name.substring(separator + 1).trim(), name.substring(0, separator).trim()));
+        }
+        book.setAuthors(authors);
+
+        book.setTags(BookCsvFormat.splitList(field(columns, fields, BookCsvFormat.TAGS))
+                .stream()
+                .map(Tag::new)
+                .collect(Collectors.toSet()));
+
+        return book;
+    }
+
+
+    private static String field(final Map<String, Integer> columns, final List<String> fields, final String column) {
+        final Integer position = columns.get(column);
+        if (position == null || position >= fields.size() || fields.get(position).isBlank()) {
+            return null;
+        }
+
+        return fields.get(position).trim();
+    }
+
+
+    private static Integer number(final Map<String, Integer> columns, final List<String> fields, final String column) {
+        final String value = field(columns, fields, column);
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (final NumberFormatException exception) {
+            throw new IllegalArgumentException(column + ": Must be a number");
+        }
+    }
+
+
+    private static <K, V> Map<K, V> boundedCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > MAX_CACHED_NAMES;
+            }
+        };
+    }
+
+
+    /**
+     * The state of a single import: the records waiting for the next batch, the outcome so far and the
+     * mappings of already resolved names to ids.
+     */
+    private final class ImportRun {
+
+        private final List<PendingBook> pending = new ArrayList<>();
+        private final List<RecordError> errors = new ArrayList<>();
+        private final Map<String, Long> authorIds = boundedCache();
+        private final Map<String, Long> publisherIds = boundedCache();
+        private final Map<String, Long> tagIds = boundedCache();
+        private long imported;
+        private long failed;
+
+
+        void accept(final int index, final Book book) {
+            if (book.getAuthors() == null) {
+                book.setAuthors(new HashSet<>());
+            }
+            if (book.getTags() == null) {
+                book.setTags(new HashSet<>());
+            }
+
+            final Set<String> violations = new TreeSet<>(violationsOf(book));
+            if (book.getPublisher() != null && book.getPublisher().getPublisherId() == null) {
+                violations.addAll(violationsOf(book.getPublisher()));
+            }
+            book.getAuthors().stream()
+                    .filter(author -> author.getAuthorId() == null)
+                    .forEach(author -> violations.addAll(violationsOf(author)));
+            book.getTags().stream()
+                    .filter(tag -> tag.getTagId() == null)
+                    .forEach(tag -> violations.addAll(violationsOf(tag)));
+
+            if (!violations.isEmpty()) {
+                reject(index, violations);
+                return;
+            }
+
+            pending.add(new PendingBook(index, book));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+
+        void reject(final int index, final Set<String> messages) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RecordError(index, messages));
+            }
+        }
+
+
+        void abort(final int index, final IOException exception) {
+            logger.error("Bulk import aborted at record {}: {}", index, exception.getMessage());
+            reject(index, Set.of("Malformed input, import aborted: " + exception.getMessage()));
+        }
+
+
+        ImportReport complete() {
+            flush();
+            logger.info("Bulk import finished: {} books imported, {} records rejected", imported, failed);
+
+            return new ImportReport(imported, failed, List.copyOf(errors));
+        }
+
+
+        private Set<String> violationsOf(final Object instance) {
+            try {
+                validator.handleValidation(instance);
+                return Set.of();
+            } catch (final InvalidInstanceException exception) {
+                return exception.getErrorMessages();
+            }
+        }
+
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            final List<PendingBook> batch = withExistingReferences(pending);
+            pending.clear();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                save(batch);
+            } catch (final RuntimeException exception) {
+                logger.warn("Bulk import batch rolled back, saving its {} records one by one: {}", batch.size(),
+                        NestedExceptionUtils.getMostSpecificCause(exception).getMessage());
+                forgetResolvedNames();
+
+                // Only the failing records are reported, the others of the batch are saved on their own
+                for (final PendingBook pendingBook : batch) {
+                    try {
+                        save(List.of(pendingBook));
+                    } catch (final RuntimeException recordException) {
+                        forgetResolvedNames();
+                        reject(pendingBook.index(), Set.of("Not saved: "
+                                + NestedExceptionUtils.getMostSpecificCause(recordException).getMessage()));
+                    }
+                }
+            }
+        }
+
+
+        private void save(final List<PendingBook> batch) {
+            final List<Book> savedBooks = transactionTemplate.execute(status -> {
+                final List<Book> books = batch.stream()
+                        .map(PendingBook::book)
+                        .map(this::resolveReferences)
+                        .toList();
+                final long newBooks = books.stream().filter(book -> book.getBookId() == null).count();
+                final List<Book> saved = bookRepository.saveAll(books);
+                counters.add(CatalogCounters.Counter.BOOKS, newBooks);
+
+                // Detaches the batch, so the persistence context does not grow with the upload
+                entityManager.flush();
+                entityManager.clear();
+                return saved;
+            });
+
+            savedBooks.forEach(book -> searchIndex.index(book.getBookId(), book.getBookTitle()));
+            imported += savedBooks.size();
+        }
+
+
+        private void forgetResolvedNames() {
+            // Ids of references created within a rolled back transaction are gone as well
+            authorIds.clear();
+            publisherIds.clear();
+            tagIds.clear();
+        }
+
+
+        /**
+         * Rejects the records of the given batch which reference a publisher, author or tag by an id which does not
+         * exist, checking the ids of each type with a single query.
+         */
+        private List<PendingBook> withExistingReferences(final List<PendingBook> batch) {
+            final Set<Long> existingPublishers = existingIds(batch.stream()
+                    .map(pendingBook -> pendingBook.book().getPublisher().getPublisherId()),
+                    publisherRepository::findAllById, Publisher::getPublisherId);
+            final Set<Long> existingAuthors = existingIds(batch.stream()
+                    .flatMap(pendingBook -> pendingBook.book().getAuthors().stream())
+                    .map(Author::getAuthorId), authorRepository::findAllById, Author::getAuthorId);
+            final Set<Long> existingTags = existingIds(batch.stream()
+                    .flatMap(pendingBook -> pendingBook.book().getTags().stream())
+                    .map(Tag::getTagId), tagRepository::findAllById, Tag::getTagId);
+
+            final List<PendingBook> accepted = new ArrayList<>(batch.size());
+            for (final PendingBook pendingBook : batch) {
+                final Book book = pendingBook.book();
+                final Set<String> violations = new TreeSet<>();
+                unknownIds(Stream.of(book.getPublisher().getPublisherId()), existingPublishers)
+                        .forEach(id -> violations.add("publisher: No publisher with id " + id + " exists"));
+                unknownIds(book.getAuthors().stream().map(Author::getAuthorId), existingAuthors)
+                        .forEach(id -> violations.add("authors: No author with id " + id + " exists"));
+                unknownIds(book.getTags().stream().map(Tag::getTagId), existingTags)
+                        .forEach(id -> violations.add("tags: No tag with id " + id + " exists"));
+
+                if (violations.isEmpty()) {
+                    accepted.add(pendingBook);
+                } else {
+                    reject(pendingBook.index(), violations);
+                }
+            }
+
+            return accepted;
+        }
+
+
+        private static <T> Set<Long> existingIds(final Stream<Long> ids, final Function<Set<Long>, List<T>> findAllById,
+                                                 final Function<T, Long> id) {
+            final Set<Long> requestedIds = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+            if (requestedIds.isEmpty()) {
+                return Set.of();
+            }
+
+            return findAllById.apply(requestedIds).stream().map(id).collect(Collectors.toSet());
+        }
+
+
+        private static Stream<Long> unknownIds(final Stream<Long> ids, final Set<Long> existingIds) {
+            return ids.filter(Objects::nonNull).filter(id -> !existingIds.contains(id));
+        }
+
+
+        // Builds a new entity instead of changing the parsed record, so the record can be saved again after a
+        // rolled back attempt
+        private Book resolveReferences(final Book book) {
+            final Book entity = new Book(book.getBookId(), book.getBookTitle(), book.getEdition(), book.getGenre(),
+                    book.getAuthors().stream().map(this::resolveAuthor).collect(Collectors.toSet()),
+                    book.getPublishingYear(), book.getPageCount(), book.getIsbn(), book.getNotes(),
+                    resolvePublisher(book.getPublisher()),
+                    book.getTags().stream().map(this::resolveTag).collect(Collectors.toSet()),
+                    book.getShelf(), book.getLedge());
+            // Imported records usually carry no version, existing books are overwritten as before
+            entity.setVersion(book.getVersion());
+            Versions.adoptCurrentVersion(entity, Book::getBookId, Book::setBookId, bookRepository::findVersionById);
+
+            return entity;
+        }
+
+
+        private Publisher resolvePublisher(final Publisher publisher) {
+            if (publisher.getPublisherId() != null) {
+                return publisherRepository.getReferenceById(publisher.getPublisherId());
+            }
+
+            final Long publisherId = publisherIds.computeIfAbsent(publisher.getPublisherName(), name ->
+                    publisherRepository.findFirstByPublisherName(name)
+                            .orElseGet(() -> create(CatalogCounters.Counter.PUBLISHERS, publisherRepository.save(new Publisher(name))))
+                            .getPublisherId());
+            return publisherRepository.getReferenceById(publisherId);
+        }
+
+
+        private Author resolveAuthor(final Author author) {
+            if (author.getAuthorId() != null) {
+                return authorRepository.getReferenceById(author.getAuthorId());
+            }
+
+            final String key = author.getLastname() + '\u0000' + author.getFirstname();
+            final Long authorId = authorIds.computeIfAbsent(key, name ->
+                    authorRepository.findFirstByFirstnameAndLastname(author.getFirstname(), author.getLastname())
+                            .orElseGet(() -> create(CatalogCounters.Counter.AUTHORS,
+                                    authorRepository.save(new Author(author.getFirstname(), author.getLastname()))))
+                            .getAuthorId());
+            return authorRepository.getReferenceById(authorId);
+        }
+
+
+        private Tag resolveTag(final Tag tag) {
+            if (tag.getTagId() != null) {
+                return tagRepository.getReferenceById(tag.getTagId());
+            }
+
+            final Long tagId = tagIds.computeIfAbsent(tag.getTagName(), name ->
+                    tagRepository.findFirstByTagName(name)
+                            .orElseGet(() -> create(CatalogCounters.Counter.TAGS, tagRepository.save(new Tag(name))))
+                            .getTagId());
+            return tagRepository.getReferenceById(tagId);
+        }
+
+
+        private <T> T create(final CatalogCounters.Counter counter, final T reference) {
+            counters.add(counter, 1);
+            return reference;
+        }
+    }
+
+
+    private record PendingBook(int index, Book book) {
+    }
+}
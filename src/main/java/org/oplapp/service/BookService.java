@@ -1,13 +1,20 @@
 package org.oplapp.service;
 
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.repository.*;
+import org.oplapp.search.*;
+import org.oplapp.statistics.*;
 import org.oplapp.validator.*;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+import reactor.core.publisher.*;
 
 import java.util.*;
+import java.util.function.*;
 
 /**
  * This class provides author related service methods.
@@ -17,10 +24,21 @@ public class BookService {
 
     private final BookRepository bookRepository;
     private final ValidationHandler<Book> validator;
+    private final BatchUpsert<Book> batchUpsert;
+    private final BookSearchIndex searchIndex;
+    private final CatalogCounters counters;
+    private final CountCache countCache;
+    private final CatalogAggregates aggregates;
 
-    public BookService(final BookRepository bookRepository, final ValidationHandler<Book> validator) {
+    public BookService(final BookRepository bookRepository, final ValidationHandler<Book> validator, final BookSearchIndex searchIndex,
+                       final CatalogCounters counters, final CountCache countCache, final CatalogAggregates aggregates) {
         this.bookRepository = bookRepository;
         this.validator = validator;
+        this.batchUpsert = new BatchUpsert<>(validator, Book::getBookId, Book::setBookId, bookRepository::findAllByBookIdIn);
+        this.searchIndex = searchIndex;
+        this.counters = counters;
+        this.countCache = countCache;
+        this.aggregates = aggregates;
     }
 
 
@@ -37,32 +55,51 @@ public class BookService {
 
 
     /**
-     * Calls the CrudRepository's findAll method to query all books in the database.
+     * Calls the BookRepository's findAllByBookIdIn method to query the books with the given ids at once.
      *
-     * @param page the given page number
-     * @param size the given page size
-     * @return a Map of String and Object, containing a list of Book instances and pagination information
+     * @param bookIds the given book ids
+     * @return a BatchResult instance, containing the found books and the ids of the missing ones
      */
-    public Map<String, Object> getAllBooks(final int page, final int size) {
-        final int oneBasedPage = page == 0 ? page : page - 1;
-        final Pageable initialPage = PageRequest.of(oneBasedPage, size, Sort.by("bookTitle"));
-        final Page<Book> bookPage = bookRepository.findAll(initialPage);
+    public BatchResult<Book> getBooksByIds(final Collection<Long> bookIds) {
+        final List<Long> ids = BatchResult.distinctIds(bookIds);
 
-        final List<Book> allBooks = bookPage.getContent();
+        return BatchResult.of(ids, bookRepository.findAllByBookIdIn(ids), Book::getBookId);
+    }
 
-        final Map<String, Object> response = new HashMap<>();
-        response.put("books", allBooks);
-        response.put("totalElements", bookPage.getTotalElements());
-        response.put("totalPages", bookPage.getTotalPages());
-        response.put("currentPage", bookPage.getNumber() + 1);
-        response.put("pageSize", bookPage.getSize());
 
-        return response;
+    /**
+     * Calls the BookRepository's findSummaries or findGridRows method to query all books in the database.
+     *
+     * @param page      the given page number
+     * @param size      the given page size
+     * @param totalMode the given way of determining the total amount of books
+     * @param view      the given view, determining the selected columns
+     * @return a BookListPage instance, containing a list of books in the given view and pagination information
+     */
+    public BookListPage getAllBooks(final int page, final int size, final TotalMode totalMode, final BookView view) {
+        final int oneBasedPage = page == 0 ? page : page - 1;
+        final Pageable initialPage = PageRequest.of(oneBasedPage, size, Sort.by("bookTitle"));
+        final LongSupplier estimator = () -> counters.get(CatalogCounters.Counter.BOOKS);
+
+        return switch (view) {
+            case SUMMARY -> {
+                final Slice<BookSummary> books = bookRepository.findSummaries(null, initialPage);
+                yield new BookPage(books.getContent(), OffsetPage.of(books, totalMode, bookRepository::count, estimator));
+            }
+            case GRID -> {
+                final Slice<BookGridRow> books = bookRepository.findGridRows(null, initialPage);
+                yield new BookGridPage(books.getContent(), OffsetPage.of(books, totalMode, bookRepository::count, estimator));
+            }
+            case COMPACT -> {
+                final Slice<BookSummary> books = bookRepository.findSummaries(null, initialPage);
+                yield BookCompactPage.of(books.getContent(), OffsetPage.of(books, totalMode, bookRepository::count, estimator));
+            }
+        };
     }
 
 
     /**
-     * Calls the AuthorRepository's queryAuthors method to query all books matching the given filter criteria.
+     * Calls the BookRepository's sliceBooks or sliceBookGrid method to query all books matching the given filter criteria.
      *
      * @param bookTitle       the given book title
      * @param authorId        the given author id
@@ -78,26 +115,140 @@ public class BookService {
      * @param ledge           the given ledge
      * @param page            the given page number
      * @param size            the amount of items that should be present on a page
-     * @return a Map of String and Object, containing a list of Book instances and pagination information
+     * @param totalMode       the given way of determining the total amount of matching books
+     * @param view            the given view, determining the selected columns
+     * @return a BookListPage instance, containing a list of books in the given view and pagination information
      */
-    public Map<String, Object> filterBooks(final String bookTitle, final Long authorId, final String authorFirstname, final String authorLastname, final Integer publishedBefore, final Integer publishedAfter, final String isbn, final Long publisherId, final String publisher, final String tag, final String shelf, final String ledge, final int page, final int size) {
+    public BookListPage filterBooks(final String bookTitle, final Long authorId, final String authorFirstname, final String authorLastname, final Integer publishedBefore, final Integer publishedAfter, final String isbn, final Long publisherId, final String publisher, final String tag, final String shelf, final String ledge, final int page, final int size, final TotalMode totalMode, final BookView view) {
         final int oneBasedPage = page == 0 ? page : page - 1;
         final Pageable initialPage = PageRequest.of(oneBasedPage, size, Sort.by("bookTitle"));
-        final Page<Book> bookPage = bookRepository.queryBooks(bookTitle, authorId, authorFirstname, authorLastname,
-                publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge, initialPage);
-        final List<Book> filteredBooks = bookPage.getContent();
+        final BookFilter filter = new BookFilter(bookTitle, authorId, authorFirstname, authorLastname,
+                publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge);
+        final LongSupplier counter = () -> bookRepository.countBooks(filter);
+        final LongSupplier estimator = () -> countCache.get(filter, counter);
+
+        return switch (view) {
+            case SUMMARY -> {
+                final Slice<BookSummary> books = bookRepository.sliceBooks(filter, initialPage);
+                yield new BookPage(books.getContent(), OffsetPage.of(books, totalMode, counter, estimator));
+            }
+            case GRID -> {
+                final Slice<BookGridRow> books = bookRepository.sliceBookGrid(filter, initialPage);
+                yield new BookGridPage(books.getContent(), OffsetPage.of(books, totalMode, counter, estimator));
+            }
+            case COMPACT -> {
+                final Slice<BookSummary> books = bookRepository.sliceBooks(filter, initialPage);
+                yield BookCompactPage.of(books.getContent(), OffsetPage.of(books, totalMode, counter, estimator));
+            }
+        };
+    }
+
+
+    /**
+     * Calls the BookRepository's seek methods to query a keyset paginated window of all books, ordered by title and id.
+     *
+     * @param cursor the given cursor token, a blank token requests the first window
+     * @param size   the given page size
+     * @return a Map of String and Object, containing a list of Book instances and the neighbouring cursors
+     */
+    public Map<String, Object> seekAllBooks(final String cursor, final int size) {
+        final Cursor position = Cursor.decode(cursor);
+        final Pageable window = KeysetPage.window(size);
+        final List<Book> rows = position != null && position.isBackward()
+                ? bookRepository.seekBooksBackward(position.getSortKey(), position.getId(), window)
+                : bookRepository.seekBooksForward(position != null ? position.getSortKey() : null,
+                position != null ? position.getId() : null, window);
+
+        return toKeysetResponse(KeysetPage.of(rows, size, position, Book::getBookTitle, Book::getBookId), size);
+    }
+
+
+    /**
+     * Calls the BookRepository's seek methods to query a keyset paginated window of the books matching the given
+     * filter criteria, ordered by title and id.
+     *
+     * @param bookTitle       the given book title
+     * @param authorId        the given author id
+     * @param authorFirstname the given author firstname
+     * @param authorLastname  the given author lastname
+     * @param publishedBefore the given publishing year min
+     * @param publishedAfter  the given publishing year max
+     * @param isbn            the given isbn
+     * @param publisherId     the given publisher id
+     * @param publisher       the given publisher name
+     * @param tag             the given tag
+     * @param shelf           the given shelf
+     * @param ledge           the given ledge
+     * @param cursor          the given cursor token, a blank token requests the first window
+     * @param size            the amount of items that should be present on a page
+     * @return a Map of String and Object, containing a list of Book instances and the neighbouring cursors
+     */
+    public Map<String, Object> seekFilteredBooks(final String bookTitle, final Long authorId, final String authorFirstname, final String authorLastname, final Integer publishedBefore, final Integer publishedAfter, final String isbn, final Long publisherId, final String publisher, final String tag, final String shelf, final String ledge, final String cursor, final int size) {
+        final Cursor position = Cursor.decode(cursor);
+        final Pageable window = KeysetPage.window(size);
+        final BookFilter filter = new BookFilter(bookTitle, authorId, authorFirstname, authorLastname,
+                publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge);
+        final List<Book> rows = position != null && position.isBackward()
+                ? bookRepository.seekFilteredBooksBackward(filter, position.getSortKey(), position.getId(), window)
+                : bookRepository.seekFilteredBooksForward(filter,
+                position != null ? position.getSortKey() : null, position != null ? position.getId() : null, window);
+
+        return toKeysetResponse(KeysetPage.of(rows, size, position, Book::getBookTitle, Book::getBookId), size);
+    }
+
+
+    /**
+     * Streams the summaries of all books matching the given filter criteria, ordered by title and id. The books are
+     * queried window by window as the subscriber requests them.
+     *
+     * @param bookTitle       the given book title
+     * @param authorId        the given author id
+     * @param authorFirstname the given author firstname
+     * @param authorLastname  the given author lastname
+     * @param publishedBefore the given publishing year min
+     * @param publishedAfter  the given publishing year max
+     * @param isbn            the given isbn
+     * @param publisherId     the given publisher id
+     * @param publisher       the given publisher name
+     * @param tag             the given tag
+     * @param shelf           the given shelf
+     * @param ledge           the given ledge
+     * @param windowSize      the amount of books queried at once
+     * @return a Flux of type BookSummary
+     */
+    public Flux<BookSummary> streamFilteredBooks(final String bookTitle, final Long authorId, final String authorFirstname, final String authorLastname, final Integer publishedBefore, final Integer publishedAfter, final String isbn, final Long publisherId, final String publisher, final String tag, final String shelf, final String ledge, final int windowSize) {
+        final BookFilter filter = new BookFilter(bookTitle, authorId, authorFirstname, authorLastname,
+                publishedBefore, publishedAfter, isbn, publisherId, publisher, tag, shelf, ledge);
+
+        return KeysetFlux.of((cursorTitle, cursorId, limit) -> bookRepository.seekBookSummariesForward(filter, cursorTitle, cursorId, limit),
+                windowSize, BookSummary::bookTitle, BookSummary::bookId);
+    }
+
+    /**
+     * Queries the search index for books whose titles match the given query and loads them ranked by relevance.
+     *
+     * @param query the given search query
+     * @param size  the maximum amount of books to return
+     * @return a Map of String and Object, containing a ranked list of Book instances
+     */
+    public Map<String, Object> searchBooks(final String query, final int size) {
+        final List<Long> rankedIds = searchIndex.search(query, size);
+
+        final Map<Long, Book> booksById = new HashMap<>();
+        bookRepository.findAllById(rankedIds).forEach(book -> booksById.put(book.getBookId(), book));
+        final List<Book> rankedBooks = rankedIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
 
         final Map<String, Object> response = new HashMap<>();
-        response.put("books", filteredBooks);
-        response.put("totalElements", bookPage.getTotalElements());
-        response.put("totalPages", bookPage.getTotalPages());
-        response.put("currentPage", bookPage.getNumber() + 1);
-        response.put("pageSize", bookPage.getSize());
+        response.put("books", rankedBooks);
+        response.put("query", query);
+        response.put("pageSize", size);
 
         return response;
     }
 
-
     /**
      * Calls the CrudRepository's save method to persist the given Book instance.
      *
@@ -109,23 +260,88 @@ public class BookService {
         // throws an exception if not so
         validator.handleValidation(book);
 
-        return bookRepository.save(book);
+        // A new entity is given its id by save, an unknown id is replaced by a generated one
+        final Long bookIdBeforeSave = book.getBookId();
+        Versions.adoptCurrentVersion(book, Book::getBookId, Book::setBookId, bookRepository::findVersionById);
+
+        bookRepository.attachReferences(book);
+        final Book savedBook = bookRepository.save(book);
+        searchIndex.index(savedBook.getBookId(), savedBook.getBookTitle());
+        if (!Objects.equals(savedBook.getBookId(), bookIdBeforeSave)) {
+            counters.add(CatalogCounters.Counter.BOOKS, 1);
+        }
+
+        return savedBook;
     }
 
 
     /**
-     * Calls the CrudRepository's deleteById method to delete a book from the database by the given id.
+     * Validates all given Book instances and persists the valid ones in a single transaction, which lets the
+     * inserts and updates be sent in JDBC batches.
+     *
+     * @param books the given Book instances
+     * @return a BatchWriteResult instance, containing the saved books and the errors of the rejected ones
+     */
+    @Transactional
+    public BatchWriteResult<Book> saveOrUpdateBooks(final List<Book> books) {
+        return batchUpsert.upsert(books, accepted -> {
+            accepted.forEach(bookRepository::attachReferences);
+            final long newBooks = accepted.stream().filter(book -> book.getBookId() == null).count();
+            // Flushing before indexing makes a failing batch roll back before the search index sees it
+            final List<Book> savedBooks = bookRepository.saveAllAndFlush(accepted);
+            savedBooks.forEach(book -> searchIndex.index(book.getBookId(), book.getBookTitle()));
+            counters.add(CatalogCounters.Counter.BOOKS, newBooks);
+
+            return savedBooks;
+        });
+    }
+
+
+    /**
+     * Calls the BookRepository's deleteBooks method to delete a book from the database by the given id.
      *
      * @param bookId the given book id
      */
     public void deleteBookById(final Long bookId) {
-        if (!bookRepository.existsById(bookId)) {
+        if (bookRepository.deleteBooks(List.of(bookId)) == 0) {
             throw new BookNotFoundException(bookId);
-        } else {
-            bookRepository.deleteById(bookId);
         }
+
+        searchIndex.remove(bookId);
+        counters.add(CatalogCounters.Counter.BOOKS, -1);
+        // Bulk statements raise no Hibernate events the aggregates could notice
+        aggregates.markDirty();
     }
-}
 
 
+    /**
+     * Calls the BookRepository's deleteBooks method to delete the books with the given ids at once. Ids which do
+     * not exist are skipped.
+     *
+     * @param bookIds the given book ids
+     * @return a DeleteReport instance
+     */
+    public DeleteReport deleteBooksByIds(final Collection<Long> bookIds) {
+        final List<Long> ids = BatchResult.distinctIds(bookIds);
+
+        final int deleted = bookRepository.deleteBooks(ids);
+        ids.forEach(searchIndex::remove);
+        counters.add(CatalogCounters.Counter.BOOKS, -deleted);
+        if (deleted > 0) {
+            aggregates.markDirty();
+        }
+
+        return new DeleteReport(ids.size(), deleted);
+    }
+
 
+    private Map<String, Object> toKeysetResponse(final KeysetPage<Book> bookPage, final int size) {
+        final Map<String, Object> response = new HashMap<>();
+        response.put("books", bookPage.getContent());
+        response.put("nextCursor", bookPage.getNextCursor());
+        response.put("prevCursor", bookPage.getPrevCursor());
+        response.put("pageSize", size);
+
+        return response;
+    }
+}
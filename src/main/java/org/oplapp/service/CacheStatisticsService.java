@@ -0,0 +1,58 @@
+package org.oplapp.service;
+
+import jakarta.persistence.*;
+import org.hibernate.*;
+import org.hibernate.stat.*;
+import org.springframework.stereotype.*;
+
+import java.util.*;
+
+/**
+ * This class provides the hit and miss counts of the Hibernate second-level and query cache, so region sizes
+ * and expiry times can be tuned against real traffic.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private final Statistics statistics;
+
+    public CacheStatisticsService(final EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+
+    /**
+     * Collects the counters of every second-level cache region and of the query cache.
+     *
+     * @return a Map of String and Object, containing the counters per region and for the query cache
+     */
+    public Map<String, Object> getCacheStatistics() {
+        final Map<String, Object> regions = new TreeMap<>();
+        for (final String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            final CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            regions.put(regionName, counters(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+
+        final Map<String, Object> response = new LinkedHashMap<>();
+        response.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        response.put("regions", regions);
+        response.put("queryCache", counters(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+
+        return response;
+    }
+
+
+    private static Map<String, Object> counters(final long hits, final long misses, final long puts) {
+        final Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        counters.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+
+        return counters;
+    }
+}
@@ -1,13 +1,19 @@
 package org.oplapp.service;
 
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.repository.*;
+import org.oplapp.statistics.*;
 import org.oplapp.validator.*;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+import reactor.core.publisher.*;
 
 import java.util.*;
+import java.util.function.*;
 
 /**
  * This class provides publisher related service methods.
@@ -17,10 +23,17 @@ public class PublisherService {
 
     private final PublisherRepository publisherRepository;
     private final ValidationHandler<Publisher> validator;
+    private final BatchUpsert<Publisher> batchUpsert;
+    private final CatalogCounters counters;
+    private final CountCache countCache;
 
-    public PublisherService(final PublisherRepository publisherRepository, final ValidationHandler<Publisher> validator) {
+    public PublisherService(final PublisherRepository publisherRepository, final ValidationHandler<Publisher> validator,
+                            final CatalogCounters counters, final CountCache countCache) {
         this.publisherRepository = publisherRepository;
         this.validator = validator;
+        this.batchUpsert = new BatchUpsert<>(validator, Publisher::getPublisherId, Publisher::setPublisherId, publisherRepository::findAllById);
+        this.counters = counters;
+        this.countCache = countCache;
     }
 
 
@@ -37,56 +50,98 @@ public class PublisherService {
 
 
     /**
-     * Calls the CrudRepository's findAll method to query all publishers in the database.
+     * Calls the CrudRepository's findAllById method to query the publishers with the given ids at once.
+     *
+     * @param publisherIds the given publisher ids
+     * @return a BatchResult instance, containing the found publishers and the ids of the missing ones
+     */
+    public BatchResult<Publisher> getPublishersByIds(final Collection<Long> publisherIds) {
+        final List<Long> ids = BatchResult.distinctIds(publisherIds);
+
+        return BatchResult.of(ids, publisherRepository.findAllById(ids), Publisher::getPublisherId);
+    }
+
+
+    /**
+     * Calls the PublisherRepository's slicePublishers method to query all publishers in the database.
      *
      * @param page the given page number
      * @param size the given page size
-     * @return a Map of String and Object, containing a list of Publishers instances and pagination information
+     * @param totalMode the given way of determining the total amount of publishers
+     * @return a PublisherPage instance, containing a list of PublisherSummary instances and pagination information
      */
-    public Map<String, Object> getAllPublishers(final int page, final int size) {
+    public PublisherPage getAllPublishers(final int page, final int size, final TotalMode totalMode) {
         final int oneBasedPage = page == 0 ? page : page - 1;
         final Pageable initialPage = PageRequest.of(oneBasedPage, size, Sort.by("publisherName"));
-        final Page<Publisher> publisherPage = publisherRepository.findAll(initialPage);
-
-        final List<Publisher> allPublishers = publisherPage.getContent();
-
-        final Map<String, Object> response = new HashMap<>();
-        response.put("publishers", allPublishers);
-        response.put("totalElements", publisherPage.getTotalElements());
-        response.put("totalPages", publisherPage.getTotalPages());
-        response.put("currentPage", publisherPage.getNumber() + 1);
-        response.put("pageSize", publisherPage.getSize());
+        final Slice<PublisherSummary> publishers = publisherRepository.slicePublishers(null, initialPage);
 
-        return response;
+        return new PublisherPage(publishers.getContent(), OffsetPage.of(publishers, totalMode, publisherRepository::count,
+                () -> counters.get(CatalogCounters.Counter.PUBLISHERS)));
     }
 
 
     /**
-     * Calls the AuthorRepository's queryAuthors method to query all publishers matching the given filter criteria.
+     * Calls the PublisherRepository's slicePublishers method to query all publishers matching the given filter criteria.
      *
      * @param publisherName the given publisher name
      * @param page the given page number
      * @param size the given page size
-     * @return a Map of String and Object, containing a list of Publisher instances and pagination information
+     * @param totalMode the given way of determining the total amount of matching publishers
+     * @return a PublisherPage instance, containing a list of PublisherSummary instances and pagination information
      */
-    public Map<String, Object> filterPublishers(final String publisherName, final int page, final int size) {
+    public PublisherPage filterPublishers(final String publisherName, final int page, final int size, final TotalMode totalMode) {
         final int oneBasedPage = page == 0 ? page : page - 1;
         final Pageable initialPage = PageRequest.of(oneBasedPage, size, Sort.by("publisherName"));
-        final Page<Publisher> publisherPage = publisherRepository.queryPublishers(publisherName, initialPage);
+        final Slice<PublisherSummary> publishers = publisherRepository.slicePublishers(publisherName, initialPage);
+        final LongSupplier counter = () -> publisherRepository.countPublishers(publisherName);
+        final LongSupplier estimator = () -> countCache.get(Arrays.asList("publishers", publisherName), counter);
 
-        final List<Publisher> allPublishers = publisherPage.getContent();
+        return new PublisherPage(publishers.getContent(), OffsetPage.of(publishers, totalMode, counter, estimator));
+    }
+
+
+    /**
+     * Calls the PublisherRepository's seek methods to query a keyset paginated window of the publishers matching the
+     * given filter criteria, ordered by name and id.
+     *
+     * @param publisherName the given publisher name
+     * @param cursor the given cursor token, a blank token requests the first window
+     * @param size the given page size
+     * @return a Map of String and Object, containing a list of Publisher instances and the neighbouring cursors
+     */
+    public Map<String, Object> seekPublishers(final String publisherName, final String cursor, final int size) {
+        final Cursor position = Cursor.decode(cursor);
+        final Pageable window = KeysetPage.window(size);
+        final List<Publisher> rows = position != null && position.isBackward()
+                ? publisherRepository.seekPublishersBackward(publisherName, position.getSortKey(), position.getId(), window)
+                : publisherRepository.seekPublishersForward(publisherName,
+                position != null ? position.getSortKey() : null, position != null ? position.getId() : null, window);
+        final KeysetPage<Publisher> publisherPage = KeysetPage.of(rows, size, position, Publisher::getPublisherName, Publisher::getPublisherId);
 
         final Map<String, Object> response = new HashMap<>();
-        response.put("publishers", allPublishers);
-        response.put("totalElements", publisherPage.getTotalElements());
-        response.put("totalPages", publisherPage.getTotalPages());
-        response.put("currentPage", publisherPage.getNumber() + 1);
-        response.put("pageSize", publisherPage.getSize());
+        response.put("publishers", publisherPage.getContent());
+        response.put("nextCursor", publisherPage.getNextCursor());
+        response.put("prevCursor", publisherPage.getPrevCursor());
+        response.put("pageSize", size);
 
         return response;
     }
 
 
+    /**
+     * Streams all publishers matching the given filter criteria, ordered by name and id. The publishers are queried
+     * window by window as the subscriber requests them.
+     *
+     * @param publisherName the given publisher name
+     * @param windowSize the amount of publishers queried at once
+     * @return a Flux of type PublisherSummary
+     */
+    public Flux<PublisherSummary> streamPublishers(final String publisherName, final int windowSize) {
+        return KeysetFlux.<Publisher>of((cursorName, cursorId, limit) -> publisherRepository.seekPublishersForward(publisherName,
+                        cursorName, cursorId, PageRequest.of(0, limit)), windowSize, Publisher::getPublisherName, Publisher::getPublisherId)
+                .map(publisher -> new PublisherSummary(publisher.getPublisherId(), publisher.getPublisherName()));
+    }
+
     /**
      * Calls the CrudRepository's save method to persist the given Publisher instance.
      * @param publisher the given Publisher instance
@@ -97,19 +152,50 @@ public class PublisherService {
         // throws an exception if not so
         validator.handleValidation(publisher);
 
-        return publisherRepository.save(publisher);
+        final Long publisherIdBeforeSave = publisher.getPublisherId();
+        Versions.adoptCurrentVersion(publisher, Publisher::getPublisherId, Publisher::setPublisherId, publisherRepository::findVersionById);
+
+        final Publisher savedPublisher = publisherRepository.save(publisher);
+        if (!Objects.equals(savedPublisher.getPublisherId(), publisherIdBeforeSave)) {
+            counters.add(CatalogCounters.Counter.PUBLISHERS, 1);
+        }
+
+        return savedPublisher;
+    }
+
+
+    /**
+     * Validates all given Publisher instances and persists the valid ones in a single transaction, which lets the
+     * inserts and updates be sent in JDBC batches.
+     *
+     * @param publishers the given Publisher instances
+     * @return a BatchWriteResult instance, containing the saved publishers and the errors of the rejected ones
+     */
+    @Transactional
+    public BatchWriteResult<Publisher> saveOrUpdatePublishers(final List<Publisher> publishers) {
+        return batchUpsert.upsert(publishers, accepted -> {
+            final long newPublishers = accepted.stream().filter(publisher -> publisher.getPublisherId() == null).count();
+            final List<Publisher> savedPublishers = publisherRepository.saveAllAndFlush(accepted);
+            counters.add(CatalogCounters.Counter.PUBLISHERS, newPublishers);
+
+            return savedPublishers;
+        });
     }
 
 
     /**
-     * Calls the CrudRepository's deleteById method to delete a publisher from the database by the given id.
+     * Calls the PublisherRepository's deletePublisher method to delete a publisher from the database by the given id.
+     * A publisher which is still referenced by books is kept.
      * @param publisherId the given publisher id
      */
     public void deletePublisherById(final Long publisherId) {
-        if (!publisherRepository.existsById(publisherId)) {
+        if (publisherRepository.deletePublisher(publisherId) == 0) {
+            if (publisherRepository.existsById(publisherId)) {
+                throw new PublisherInUseException(publisherId);
+            }
             throw new PublisherNotFoundException(publisherId);
-        } else {
-            publisherRepository.deleteById(publisherId);
         }
+
+        counters.add(CatalogCounters.Counter.PUBLISHERS, -1);
     }
 }
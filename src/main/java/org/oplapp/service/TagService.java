@@ -1,10 +1,13 @@
 package org.oplapp.service;
 
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.model.*;
 import org.oplapp.repository.*;
+import org.oplapp.statistics.*;
 import org.oplapp.validator.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
 
 import java.util.*;
 
@@ -16,10 +19,17 @@ public class TagService {
 
     private final TagRepository tagRepository;
     private final ValidationHandler<Tag> validator;
+    private final BatchUpsert<Tag> batchUpsert;
+    private final CatalogCounters counters;
+    private final CatalogAggregates aggregates;
 
-    public TagService(final TagRepository tagRepository, final ValidationHandler<Tag> validator) {
+    public TagService(final TagRepository tagRepository, final ValidationHandler<Tag> validator,
+                      final CatalogCounters counters, final CatalogAggregates aggregates) {
         this.tagRepository = tagRepository;
         this.validator = validator;
+        this.batchUpsert = new BatchUpsert<>(validator, Tag::getTagId, Tag::setTagId, tagRepository::findAllById);
+        this.counters = counters;
+        this.aggregates = aggregates;
     }
 
 
@@ -35,6 +45,19 @@ public class TagService {
     }
 
 
+    /**
+     * Calls the CrudRepository's findAllById method to query the tags with the given ids at once.
+     *
+     * @param tagIds the given tag ids
+     * @return a BatchResult instance, containing the found tags and the ids of the missing ones
+     */
+    public BatchResult<Tag> getTagsByIds(final Collection<Long> tagIds) {
+        final List<Long> ids = BatchResult.distinctIds(tagIds);
+
+        return BatchResult.of(ids, tagRepository.findAllById(ids), Tag::getTagId);
+    }
+
+
     /**
      * Calls the CrudRepository's findAll method to query all authors in the database.
      *
@@ -56,20 +79,49 @@ public class TagService {
         // throws an exception if not so
         validator.handleValidation(tag);
 
-        return tagRepository.save(tag);
+        final Long tagIdBeforeSave = tag.getTagId();
+        Versions.adoptCurrentVersion(tag, Tag::getTagId, Tag::setTagId, tagRepository::findVersionById);
+
+        final Tag savedTag = tagRepository.save(tag);
+        if (!Objects.equals(savedTag.getTagId(), tagIdBeforeSave)) {
+            counters.add(CatalogCounters.Counter.TAGS, 1);
+        }
+
+        return savedTag;
     }
 
 
     /**
-     * Calls the CrudRepository's deleteById method to delete a tag from the database by the given id.
+     * Validates all given Tag instances and persists the valid ones in a single transaction, which lets the
+     * inserts and updates be sent in JDBC batches.
+     *
+     * @param tags the given Tag instances
+     * @return a BatchWriteResult instance, containing the saved tags and the errors of the rejected ones
+     */
+    @Transactional
+    public BatchWriteResult<Tag> saveOrUpdateTags(final List<Tag> tags) {
+        return batchUpsert.upsert(tags, accepted -> {
+            final long newTags = accepted.stream().filter(tag -> tag.getTagId() == null).count();
+            final List<Tag> savedTags = tagRepository.saveAllAndFlush(accepted);
+            counters.add(CatalogCounters.Counter.TAGS, newTags);
+
+            return savedTags;
+        });
+    }
+
+
+    /**
+     * Calls the TagRepository's deleteTag method to delete a tag from the database by the given id. The tag is
+     * removed from the books it is linked to.
      *
      * @param tagId the given tag id
      */
     public void deleteTagById(final Long tagId) {
-        if (!tagRepository.existsById(tagId)) {
+        if (tagRepository.deleteTag(tagId) == 0) {
             throw new TagNotFoundException(tagId);
-        } else {
-            tagRepository.deleteById(tagId);
         }
+
+        counters.add(CatalogCounters.Counter.TAGS, -1);
+        aggregates.markDirty();
     }
 }
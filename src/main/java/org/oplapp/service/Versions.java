@@ -0,0 +1,36 @@
+package org.oplapp.service;
+
+import org.oplapp.model.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * This class provides the version handling shared by the single item saves of all entity types.
+ */
+final class Versions {
+
+    private Versions() {
+    }
+
+
+    /**
+     * Prepares the given entity for an unconditional update if it carries an id but no version. Without a version the
+     * client did not read a particular state, so the entity is given the current version of its row. An id which does
+     * not exist is removed, so save inserts the entity with a generated one.
+     *
+     * @param entity          the given entity
+     * @param id              the given function returning the id of the entity
+     * @param setId           the given function setting the id of the entity
+     * @param findVersionById the given function querying the current version of the row with the given id
+     */
+    static <T extends Versioned> void adoptCurrentVersion(final T entity, final Function<T, Long> id,
+                                                          final BiConsumer<T, Long> setId,
+                                                          final Function<Long, Optional<Long>> findVersionById) {
+        if (id.apply(entity) == null || entity.getVersion() != null) {
+            return;
+        }
+        findVersionById.apply(id.apply(entity))
+                .ifPresentOrElse(entity::setVersion, () -> setId.accept(entity, null));
+    }
+}
@@ -0,0 +1,179 @@
+package org.oplapp.statistics;
+
+import jakarta.persistence.*;
+import org.hibernate.engine.spi.*;
+import org.hibernate.event.service.spi.*;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.*;
+import org.oplapp.model.*;
+import org.oplapp.repository.*;
+import org.slf4j.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.data.domain.*;
+import org.springframework.scheduling.annotation.*;
+import org.springframework.stereotype.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * An instance of this class serves grouped book statistics from an in-memory snapshot. The snapshot is computed by
+ * GROUP BY queries, which scan the whole Book table as they sum up the page counts, and recomputed in the configured
+ * interval only if Hibernate reported a write since the last computation. The scans therefore run at most once per
+ * interval, and requests never wait for the database except for the very first one.
+ */
+@Component
+public class CatalogAggregates {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogAggregates.class);
+
+    private final BookRepository bookRepository;
+    private final int topAuthors;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile Map<String, Object> snapshot;
+
+
+    public CatalogAggregates(final BookRepository bookRepository, final EntityManagerFactory entityManagerFactory,
+                             @Value("${oplapp.statistics.top-authors:10}") final int topAuthors) {
+        this.bookRepository = bookRepository;
+        this.topAuthors = topAuthors;
+
+        final EventListenerRegistry listenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        final ChangeListener changeListener = new ChangeListener();
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, changeListener);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, changeListener);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, changeListener);
+        listenerRegistry.appendListeners(EventType.POST_COLLECTION_UPDATE, changeListener);
+    }
+
+
+    /**
+     * Returns the current snapshot of the grouped statistics, computing it first if none exists yet.
+     *
+     * @return a Map of String and Object, containing the groups per aggregate and the time of computation
+     */
+    public Map<String, Object> getAggregates() {
+        final Map<String, Object> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (snapshot == null) {
+                refresh();
+            }
+            return snapshot;
+        }
+    }
+
+
+    /**
+     * Marks the snapshot as outdated, e.g. after bulk statements which bypass Hibernate's events.
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+
+    /**
+     * Recomputes the snapshot if the catalog has been modified since the last computation.
+     */
+    @Scheduled(fixedDelayString = "${oplapp.statistics.aggregate-refresh-interval:PT1M}",
+            initialDelayString = "${oplapp.statistics.aggregate-refresh-interval:PT1M}")
+    public void refreshIfDirty() {
+        if (dirty.get()) {
+            synchronized (this) {
+                refresh();
+            }
+        }
+    }
+
+
+    private void refresh() {
+        // Cleared before querying, so writes during the computation trigger another one
+        dirty.set(false);
+        try {
+            final Map<String, Object> aggregates = new LinkedHashMap<>();
+            aggregates.put("byGenre", toGroups(bookRepository.aggregateByGenre(), "genre", null));
+            aggregates.put("byPublisher", toGroups(bookRepository.aggregateByPublisher(), "publisherId", "publisherName"));
+            aggregates.put("byDecade", toGroups(bookRepository.aggregateByDecade(), "decade", null));
+            aggregates.put("byShelf", toGroups(bookRepository.aggregateByShelf(), "shelf", "ledge"));
+            aggregates.put("byTag", toGroups(bookRepository.aggregateByTag(), "tagId", "tagName"));
+            aggregates.put("topAuthors", toGroups(bookRepository.aggregateTopAuthors(PageRequest.of(0, topAuthors)), "authorId", "name"));
+            aggregates.put("computedAt", Instant.now());
+
+            snapshot = Collections.unmodifiableMap(aggregates);
+        } catch (final RuntimeException exception) {
+            dirty.set(true);
+            throw exception;
+        }
+    }
+
+
+    private static List<Map<String, Object>> toGroups(final List<BookAggregate> aggregates, final String keyName, final String labelName) {
+        return aggregates.stream()
+                .map(aggregate -> {
+                    final Map<String, Object> group = new LinkedHashMap<>();
+                    group.put(keyName, aggregate.getGroupKey());
+                    if (labelName != null) {
+                        group.put(labelName, aggregate.getGroupLabel());
+                    }
+                    group.put("books", aggregate.getBookCount());
+                    group.put("pages", aggregate.getPageTotal());
+                    return Collections.unmodifiableMap(group);
+                })
+                .toList();
+    }
+
+
+    /**
+     * Marks the snapshot as outdated whenever a transaction writing any entity has committed, or a collection of
+     * an entity has been flushed.
+     */
+    private final class ChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+            PostCommitDeleteEventListener, PostCollectionUpdateEventListener {
+
+        @Override
+        public void onPostInsert(final PostInsertEvent event) {
+            markDirty();
+        }
+
+        @Override
+        public void onPostUpdate(final PostUpdateEvent event) {
+            markDirty();
+        }
+
+        @Override
+        public void onPostDelete(final PostDeleteEvent event) {
+            markDirty();
+        }
+
+        @Override
+        public void onPostUpdateCollection(final PostCollectionUpdateEvent event) {
+            markDirty();
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(final PostInsertEvent event) {
+            logger.debug("Insert of {} was not committed", event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+            logger.debug("Update of {} was not committed", event.getEntity());
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+            logger.debug("Delete of {} was not committed", event.getEntity());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(final EntityPersister persister) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.oplapp.statistics;
+
+import org.oplapp.repository.*;
+import org.slf4j.*;
+import org.springframework.boot.context.event.*;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.support.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * An instance of this class keeps the total amounts of books, authors, publishers and tags in memory. The save
+ * and delete paths of the services report their changes, which are applied once the surrounding transaction has
+ * committed. A periodic reconciliation against the database corrects any drift, e.g. from writes by other
+ * application instances or directly in the database.
+ */
+@Component
+public class CatalogCounters {
+
+    /**
+     * The counted entity types.
+     */
+    public enum Counter {
+        BOOKS, AUTHORS, PUBLISHERS, TAGS
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCounters.class);
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final PublisherRepository publisherRepository;
+    private final TagRepository tagRepository;
+    private final Map<Counter, AtomicLong> counts = new EnumMap<>(Counter.class);
+    private volatile Instant reconciledAt;
+
+
+    public CatalogCounters(final BookRepository bookRepository, final AuthorRepository authorRepository,
+                           final PublisherRepository publisherRepository, final TagRepository tagRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.tagRepository = tagRepository;
+        for (final Counter counter : Counter.values()) {
+            counts.put(counter, new AtomicLong());
+        }
+    }
+
+
+    /**
+     * Adds the given delta to a counter. Within a transaction the change is deferred until the transaction has
+     * committed, so rolled back writes are never counted.
+     *
+     * @param counter the given counter
+     * @param delta   the given amount of created (positive) or deleted (negative) entities
+     */
+    public void add(final Counter counter, final long delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counts.get(counter).addAndGet(delta);
+                }
+            });
+        } else {
+            counts.get(counter).addAndGet(delta);
+        }
+    }
+
+
+    /**
+     * Returns the current value of a counter.
+     *
+     * @param counter the given counter
+     * @return the current amount
+     */
+    public long get(final Counter counter) {
+        return counts.get(counter).get();
+    }
+
+
+    /**
+     * Returns all counters and the time of the last reconciliation.
+     *
+     * @return a Map of String and Object, containing the amount per entity type
+     */
+    public Map<String, Object> getSummary() {
+        final Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("books", get(Counter.BOOKS));
+        summary.put("authors", get(Counter.AUTHORS));
+        summary.put("publishers", get(Counter.PUBLISHERS));
+        summary.put("tags", get(Counter.TAGS));
+        summary.put("reconciledAt", reconciledAt);
+
+        return summary;
+    }
+
+
+    /**
+     * Replaces the counters with the amounts counted by the database. Runs on startup and in the configured interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${oplapp.statistics.reconcile-interval:PT15M}",
+            initialDelayString = "${oplapp.statistics.reconcile-interval:PT15M}")
+    public void reconcile() {
+        reconcile(Counter.BOOKS, bookRepository.count());
+        reconcile(Counter.AUTHORS, authorRepository.count());
+        reconcile(Counter.PUBLISHERS, publisherRepository.count());
+        reconcile(Counter.TAGS, tagRepository.count());
+        reconciledAt = Instant.now();
+    }
+
+
+    private void reconcile(final Counter counter, final long actual) {
+        final long previous = counts.get(counter).getAndSet(actual);
+        if (reconciledAt != null && previous != actual) {
+            logger.info("Counter {} drifted by {} and was reconciled to {}", counter, actual - previous, actual);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+-- Secondary indexes matched to the repository queries. InnoDB appends the primary key to every
+-- secondary index, so (column) also serves the (column, id) keyset order of the list endpoints.
+
+-- Book: title order and keyset windows, publisher/shelf/isbn/year filters
+CREATE INDEX idx_book_title ON Book (book_title);
+CREATE INDEX idx_book_publisher_title ON Book (publisher_id, book_title);
+CREATE INDEX idx_book_shelf_ledge ON Book (shelf, ledge);
+CREATE INDEX idx_book_isbn ON Book (isbn);
+CREATE INDEX idx_book_publishing_year ON Book (publishing_year);
+
+-- Author: lastname order and keyset windows, firstname filter
+CREATE INDEX idx_author_lastname ON Author (lastname);
+CREATE INDEX idx_author_firstname ON Author (firstname);
+
+-- Publisher: name order, filter and keyset windows
+CREATE INDEX idx_publisher_name ON Publisher (publisher_name);
+
+-- Tag: name filter
+CREATE INDEX idx_tag_name ON Tag (tag_name);
+
+-- Join tables: drop duplicated pairs before making them unique
+DELETE duplicate FROM Book_Authors AS duplicate
+    JOIN Book_Authors AS kept
+        ON kept.book_id = duplicate.book_id
+        AND kept.author_id = duplicate.author_id
+        AND kept.book_authors_id < duplicate.book_authors_id;
+
+DELETE duplicate FROM Book_Tags AS duplicate
+    JOIN Book_Tags AS kept
+        ON kept.book_id = duplicate.book_id
+        AND kept.tag_id = duplicate.tag_id
+        AND kept.book_tags_id < duplicate.book_tags_id;
+
+-- (book_id, x) serves the collection loads of a book page, (x, book_id) the EXISTS lookups of the filters
+ALTER TABLE Book_Authors ADD CONSTRAINT uq_book_authors_book_author UNIQUE (book_id, author_id);
+CREATE INDEX idx_book_authors_author_book ON Book_Authors (author_id, book_id);
+
+ALTER TABLE Book_Tags ADD CONSTRAINT uq_book_tags_book_tag UNIQUE (book_id, tag_id);
+CREATE INDEX idx_book_tags_tag_book ON Book_Tags (tag_id, book_id);
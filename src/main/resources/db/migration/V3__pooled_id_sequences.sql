@@ -0,0 +1,15 @@
+-- MySQL has no sequences, Hibernate emulates each id sequence with a single row table. The pooled
+-- optimizer reserves blocks of 50 ids per round trip, which lets inserts be sent as JDBC batches.
+-- Each table starts one block above the current maximum id so reserved ids never collide.
+
+CREATE TABLE Author_seq (next_val BIGINT NOT NULL);
+INSERT INTO Author_seq (next_val) SELECT COALESCE(MAX(author_id), 0) + 51 FROM Author;
+
+CREATE TABLE Publisher_seq (next_val BIGINT NOT NULL);
+INSERT INTO Publisher_seq (next_val) SELECT COALESCE(MAX(publisher_id), 0) + 51 FROM Publisher;
+
+CREATE TABLE Book_seq (next_val BIGINT NOT NULL);
+INSERT INTO Book_seq (next_val) SELECT COALESCE(MAX(book_id), 0) + 51 FROM Book;
+
+CREATE TABLE Tag_seq (next_val BIGINT NOT NULL);
+INSERT INTO Tag_seq (next_val) SELECT COALESCE(MAX(tag_id), 0) + 51 FROM Tag;
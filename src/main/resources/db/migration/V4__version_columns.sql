@@ -0,0 +1,18 @@
+-- The version drives optimistic locking and, with the time of the last modification, the ETag and Last-Modified
+-- headers. Existing rows start at version 0, rows inserted by plain SQL get the defaults as well.
+
+ALTER TABLE Author
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_modified DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+ALTER TABLE Publisher
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_modified DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+ALTER TABLE Book
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_modified DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+ALTER TABLE Tag
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_modified DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -0,0 +1,5 @@
+-- The catalog totals are served by the incrementally maintained counters, nothing calls these procedures anymore.
+
+DROP PROCEDURE IF EXISTS getTotalBooksCount;
+DROP PROCEDURE IF EXISTS getTotalAuthorsCount;
+DROP PROCEDURE IF EXISTS getTotalPublishersCount;
@@ -0,0 +1,12 @@
+-- Book.publisher_id had no foreign key, so deleting a publisher left its books pointing at a missing row. Those books
+-- drop out of the lists, which join the publisher. Missing publishers are recreated under their former id before the
+-- key is added, the books keep their reference and the name marks the publisher for review.
+
+INSERT INTO Publisher (publisher_id, publisher_name)
+SELECT DISTINCT b.publisher_id, CONCAT('Unknown publisher ', b.publisher_id)
+FROM Book b
+LEFT JOIN Publisher p ON p.publisher_id = b.publisher_id
+WHERE p.publisher_id IS NULL;
+
+-- idx_book_publisher_title starts with publisher_id and serves as the index of the key
+ALTER TABLE Book ADD CONSTRAINT fk_book_publisher FOREIGN KEY (publisher_id) REFERENCES Publisher (publisher_id);
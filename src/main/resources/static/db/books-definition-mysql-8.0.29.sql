@@ -1,3 +1,6 @@
+-- Initial schema definition. Later schema changes (indexes, constraints, ...) are versioned Flyway
+-- migrations in src/main/resources/db/migration and get applied on application start.
+
 CREATE DATABASE IF NOT EXISTS Books_library CHARACTER SET latin1 COLLATE latin1_german2_ci;
 
 USE Books_library;
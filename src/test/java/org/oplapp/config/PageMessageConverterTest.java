@@ -0,0 +1,98 @@
+package org.oplapp.config;
+
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.dataformat.cbor.*;
+import org.junit.jupiter.api.*;
+import org.oplapp.dto.*;
+import org.springframework.http.*;
+import org.springframework.mock.http.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageMessageConverterTest {
+
+    private PageMessageConverter converterUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        converterUnderTest = new PageMessageConverter(new ObjectMapper());
+    }
+
+
+    @Test
+    void canWrite_ShouldOnlyAcceptPageTypes() {
+        // Act and Assert
+        assertTrue(converterUnderTest.canWrite(BookPage.class, MediaType.APPLICATION_JSON));
+        assertTrue(converterUnderTest.canWrite(AuthorPage.class, null));
+        assertFalse(converterUnderTest.canWrite(Map.class, MediaType.APPLICATION_JSON));
+        assertFalse(converterUnderTest.canWrite(PublisherPage.class, MediaType.TEXT_PLAIN));
+        assertFalse(converterUnderTest.canRead(BookPage.class, MediaType.APPLICATION_JSON));
+    }
+
+
+    @Test
+    void write_ShouldSerializeThePaginationInformationNextToTheContent() throws IOException {
+        // Arrange
+        final BookPage page = new BookPage(
+                List.of(new BookSummary(1L, "Test Book", null, null, List.of(new AuthorSummary(2L, "Andrea", "Meyer")),
+                        2022, null, new PublisherSummary(3L, "Test Publisher"), null, null)),
+                new PageInfo(1, 25, false, null, null, null));
+        final MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // Act
+        converterUnderTest.write(page, MediaType.APPLICATION_JSON, outputMessage);
+
+        // Assert
+        assertEquals("{\"books\":[{\"bookId\":1,\"bookTitle\":\"Test Book\",\"authors\":[{\"authorId\":2,\"firstname\":\"Andrea\",\"lastname\":\"Meyer\"}]," +
+                        "\"publishingYear\":2022,\"publisher\":{\"publisherId\":3,\"publisherName\":\"Test Publisher\"}}]," +
+                        "\"currentPage\":1,\"pageSize\":25,\"hasNext\":false}",
+                outputMessage.getBodyAsString());
+        assertEquals(MediaType.APPLICATION_JSON, outputMessage.getHeaders().getContentType());
+    }
+
+
+    @Test
+    void write_ShouldEncodeAsCborIfNegotiated() throws IOException {
+        // Arrange
+        final AuthorPage page = new AuthorPage(List.of(new AuthorSummary(2L, "Andrea", "Meyer")),
+                new PageInfo(1, 25, false, null, null, null));
+        final MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // Act
+        converterUnderTest.write(page, MediaType.APPLICATION_CBOR, outputMessage);
+
+        // Assert
+        final JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(outputMessage.getBodyAsBytes());
+        assertEquals("Meyer", decoded.at("/authors/0/lastname").asText());
+        assertEquals(25, decoded.get("pageSize").asInt());
+        assertEquals(MediaType.APPLICATION_CBOR, outputMessage.getHeaders().getContentType());
+    }
+
+
+    @Test
+    void write_ShouldListSharedAuthorsAndPublishersOnceInTheCompactView() throws IOException {
+        // Arrange
+        final AuthorSummary author = new AuthorSummary(2L, "Andrea", "Meyer");
+        final PublisherSummary publisher = new PublisherSummary(3L, "Test Publisher");
+        final BookCompactPage page = BookCompactPage.of(List.of(
+                        new BookSummary(1L, "First Book", null, null, List.of(author), null, null, publisher, null, null),
+                        new BookSummary(4L, "Second Book", null, null, List.of(author), null, null, publisher, null, null)),
+                new PageInfo(1, 2, true, null, null, null));
+        final MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // Act
+        converterUnderTest.write(page, MediaType.APPLICATION_JSON, outputMessage);
+
+        // Assert
+        assertEquals("{\"books\":[{\"bookId\":1,\"bookTitle\":\"First Book\",\"authorIds\":[2],\"publisherId\":3}," +
+                        "{\"bookId\":4,\"bookTitle\":\"Second Book\",\"authorIds\":[2],\"publisherId\":3}]," +
+                        "\"authors\":[{\"authorId\":2,\"firstname\":\"Andrea\",\"lastname\":\"Meyer\"}]," +
+                        "\"publishers\":[{\"publisherId\":3,\"publisherName\":\"Test Publisher\"}]," +
+                        "\"currentPage\":1,\"pageSize\":2,\"hasNext\":true}",
+                outputMessage.getBodyAsString());
+    }
+}
@@ -5,9 +5,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.service.*;
-import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -57,24 +58,15 @@ class AuthorControllerTest {
         final int page = 0;
         final int size = 25;
 
-        final Page<Author> authorPage = new PageImpl<>(authors, PageRequest.of(page, size),100L);
-        final List<Author> filteredAuthors = authorPage.getContent();
+        final AuthorPage mockResponse = new AuthorPage(List.of(new AuthorSummary(1L, "Andrea", "Meyer")), new PageInfo(1, size, true, 100L, 4, null));
 
-        final Map<String, Object> mockResponse = new HashMap<>();
-
-        mockResponse.put("authors", filteredAuthors);
-        mockResponse.put("totalElements", authorPage.getTotalElements());
-        mockResponse.put("totalPages", authorPage.getTotalPages());
-        mockResponse.put("currentPage", authorPage.getNumber());
-        mockResponse.put("pageSize", authorPage.getSize());
-
-        when(authorService.getAllAuthors(page, size)).thenReturn(mockResponse);
+        when(authorService.getAllAuthors(page, size, TotalMode.EXACT)).thenReturn(mockResponse);
 
         // Act
-        final ResponseEntity<Map<String, Object>> responseEntity = authorControllerUnderTest.getAllAuthors(page, size);
+        final ResponseEntity<AuthorPage> responseEntity = authorControllerUnderTest.getAllAuthors(page, size, "true");
 
         // Assert
-        verify(authorService, times(1)).getAllAuthors(page, size);
+        verify(authorService, times(1)).getAllAuthors(page, size, TotalMode.EXACT);
         assertSame(mockResponse, responseEntity.getBody());
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
@@ -86,24 +78,15 @@ class AuthorControllerTest {
         final int page = 0;
         final int size = 25;
 
-        final Page<Author> authorPage = new PageImpl<>(authors, PageRequest.of(page, size),100L);
-        final List<Author> filteredAuthors = authorPage.getContent();
-
-        final Map<String, Object> mockResponse = new HashMap<>();
-
-        mockResponse.put("authors", filteredAuthors);
-        mockResponse.put("totalElements", authorPage.getTotalElements());
-        mockResponse.put("totalPages", authorPage.getTotalPages());
-        mockResponse.put("currentPage", authorPage.getNumber());
-        mockResponse.put("pageSize", authorPage.getSize());
+        final AuthorPage mockResponse = new AuthorPage(List.of(new AuthorSummary(1L, "Andrea", "Meyer")), new PageInfo(1, size, true, 100L, 4, null));
 
-        when(authorService.filterAuthors(authors.get(0).getFirstname(), authors.get(0).getLastname(), page, size)).thenReturn(mockResponse);
+        when(authorService.filterAuthors(authors.get(0).getFirstname(), authors.get(0).getLastname(), page, size, TotalMode.EXACT)).thenReturn(mockResponse);
 
         // Act
-        final ResponseEntity<Map<String, Object>> responseEntity = authorControllerUnderTest.filterAuthors(authors.get(0).getFirstname(), authors.get(0).getLastname(), page, size);
+        final ResponseEntity<AuthorPage> responseEntity = authorControllerUnderTest.filterAuthors(authors.get(0).getFirstname(), authors.get(0).getLastname(), page, size, "true");
 
         // Assert
-        verify(authorService, times(1)).filterAuthors(authors.get(0).getFirstname(), authors.get(0).getLastname(), page, size);
+        verify(authorService, times(1)).filterAuthors(authors.get(0).getFirstname(), authors.get(0).getLastname(), page, size, TotalMode.EXACT);
         assertSame(mockResponse, responseEntity.getBody());
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
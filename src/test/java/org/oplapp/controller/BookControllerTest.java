@@ -5,12 +5,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.service.*;
-import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.*;
 
+import java.io.*;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +25,12 @@ class BookControllerTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private BookImportService bookImportService;
+
+    @Mock
+    private BookExportService bookExportService;
+
     @InjectMocks
     private BookController bookControllerUnderTest;
     private List<Book> books;
@@ -59,24 +68,15 @@ class BookControllerTest {
         final int page = 0;
         final int size = 25;
 
-        final Page<Book> bookPage = new PageImpl<>(books, PageRequest.of(page, size),100L);
-        final List<Book> books = bookPage.getContent();
+        final BookPage mockResponse = new BookPage(List.of(new BookSummary(1L, "Test Book", null, null, List.of(new AuthorSummary(1L, "Andrea", "Meyer")), null, null, new PublisherSummary(1L, "Test Publisher"), null, null)), new PageInfo(1, size, true, 100L, 4, null));
 
-        final Map<String, Object> mockResponse = new HashMap<>();
-
-        mockResponse.put("books", books);
-        mockResponse.put("totalElements", bookPage.getTotalElements());
-        mockResponse.put("totalPages", bookPage.getTotalPages());
-        mockResponse.put("currentPage", bookPage.getNumber());
-        mockResponse.put("pageSize", bookPage.getSize());
-
-        when(bookService.getAllBooks(page, size)).thenReturn(mockResponse);
+        when(bookService.getAllBooks(page, size, TotalMode.EXACT, BookView.SUMMARY)).thenReturn(mockResponse);
 
         // Act
-        final ResponseEntity<Map<String, Object>> responseEntity = bookControllerUnderTest.getAllBooks(page, size);
+        final ResponseEntity<BookListPage> responseEntity = bookControllerUnderTest.getAllBooks(page, size, "true", "summary");
 
         // Assert
-        verify(bookService, times(1)).getAllBooks(page, size);
+        verify(bookService, times(1)).getAllBooks(page, size, TotalMode.EXACT, BookView.SUMMARY);
         assertSame(mockResponse, responseEntity.getBody());
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
@@ -88,29 +88,41 @@ class BookControllerTest {
         final int page = 0;
         final int size = 25;
 
-        final Page<Book> bookPage = new PageImpl<>(books, PageRequest.of(page, size),100L);
-        final List<Book> filteredBooks = bookPage.getContent();
+        final BookPage mockResponse = new BookPage(List.of(new BookSummary(1L, "Test Book", null, null, List.of(new AuthorSummary(1L, "Andrea", "Meyer")), null, null, new PublisherSummary(1L, "Test Publisher"), null, null)), new PageInfo(1, size, true, 100L, 4, null));
 
-        final Map<String, Object> mockResponse = new HashMap<>();
+        when(bookService.filterBooks(books.get(0).getBookTitle(), null, null, null, null, null, null, null, null, null, null, null, page, size, TotalMode.EXACT, BookView.SUMMARY)).thenReturn(mockResponse);
 
-        mockResponse.put("books", filteredBooks);
-        mockResponse.put("totalElements", bookPage.getTotalElements());
-        mockResponse.put("totalPages", bookPage.getTotalPages());
-        mockResponse.put("currentPage", bookPage.getNumber());
-        mockResponse.put("pageSize", bookPage.getSize());
+        // Act
+        final ResponseEntity<BookListPage> responseEntity = bookControllerUnderTest.filterBooks(books.get(0).getBookTitle(), null, null, null, null, null, null, null, null, null, null, null, page, size, "true", "summary");
 
-        when(bookService.filterBooks(books.get(0).getBookTitle(), null, null, null, null, null, null, null, null, null, null, null, page, size)).thenReturn(mockResponse);
+        // Assert
+        verify(bookService, times(1)).filterBooks(books.get(0).getBookTitle(), null, null, null, null, null, null, null, null, null, null, null, page, size, TotalMode.EXACT, BookView.SUMMARY);
+        assertSame(mockResponse, responseEntity.getBody());
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+    }
+
+
+    @Test
+    void SearchBooks() {
+        // Arrange
+        final String query = "test";
+        final int size = 25;
+
+        final Map<String, Object> mockResponse = new HashMap<>();
+        mockResponse.put("books", books);
+        mockResponse.put("query", query);
+
+        when(bookService.searchBooks(query, size)).thenReturn(mockResponse);
 
         // Act
-        final ResponseEntity<Map<String, Object>> responseEntity = bookControllerUnderTest.filterBooks(books.get(0).getBookTitle(), null, null, null, null, null, null, null, null, null, null, null, page, size);
+        final ResponseEntity<Map<String, Object>> responseEntity = bookControllerUnderTest.searchBooks(query, size);
 
         // Assert
-        verify(bookService, times(1)).filterBooks(books.get(0).getBookTitle(), null, null, null, null, null, null, null, null, null, null, null, page, size);
+        verify(bookService, times(1)).searchBooks(query, size);
         assertSame(mockResponse, responseEntity.getBody());
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
 
-
     @Test
     void SaveOrUpdateBook() {
         // Arrange
@@ -141,4 +153,46 @@ class BookControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, responseEntity.getStatusCode());
         assertNull(responseEntity.getBody());
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void ImportBooksFromCsv() {
+        // Arrange
+        final InputStream body = new ByteArrayInputStream("bookTitle\nTest Book\n".getBytes());
+        final ImportReport report = new ImportReport(1, 0, List.of());
+
+        when(bookImportService.importCsv(body)).thenReturn(report);
+
+        // Act
+        final ResponseEntity<ImportReport> responseEntity = bookControllerUnderTest.importBooksFromCsv(body);
+
+        // Assert
+        verify(bookImportService, times(1)).importCsv(body);
+        assertSame(report, responseEntity.getBody());
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+    }
+
+
+    @Test
+    void ExportBooksAsCsv() throws IOException {
+        // Arrange
+        final OutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        final ResponseEntity<StreamingResponseBody> responseEntity = bookControllerUnderTest.exportBooks("csv");
+        responseEntity.getBody().writeTo(output);
+
+        // Assert
+        verify(bookExportService, times(1)).exportCsv(output);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", responseEntity.getHeaders().getContentType().toString());
+    }
+
+
+    @Test
+    void ExportBooks_ShouldRejectUnknownFormats() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> bookControllerUnderTest.exportBooks("xml"));
+        verifyNoInteractions(bookExportService);
+    }
+}
@@ -0,0 +1,79 @@
+package org.oplapp.controller;
+
+import org.junit.jupiter.api.*;
+import org.oplapp.model.*;
+import org.springframework.http.*;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalResponsesTest {
+
+    @Test
+    void ok_ShouldTagASingleEntityWithItsVersion() {
+        // Arrange
+        final Publisher publisher = new Publisher(1L, "Test Publisher");
+        publisher.setVersion(4L);
+
+        // Act
+        final ResponseEntity<Publisher> response = ConditionalResponses.ok(publisher);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertSame(publisher, response.getBody());
+    }
+
+
+    @Test
+    void eTag_ShouldChangeWithTheVersionOfAnAssociatedEntity() {
+        // Arrange
+        final Author author = new Author(1L, "Andrea", "Meyer");
+        author.setVersion(0L);
+        final Book book = new Book(1L, "Test Book", null, null, Set.of(author), null, null, null, null,
+                new Publisher(1L, "Test Publisher"), null, null, null);
+        book.setVersion(2L);
+
+        // Act
+        final String before = ConditionalResponses.eTag(ConditionalResponses.partsOf(book));
+        author.setVersion(1L);
+        final String after = ConditionalResponses.eTag(ConditionalResponses.partsOf(book));
+
+        // Assert
+        assertTrue(before.startsWith("\"2-"));
+        assertNotEquals(before, after);
+    }
+
+
+    @Test
+    void lastModified_ShouldReturnTheLatestModificationOrNull() {
+        // Arrange
+        final Versioned older = versioned(Instant.parse("2024-01-01T00:00:00Z"));
+        final Versioned newer = versioned(Instant.parse("2024-02-01T00:00:00Z"));
+
+        // Act and Assert
+        assertEquals(Instant.parse("2024-02-01T00:00:00Z"), ConditionalResponses.lastModified(Arrays.asList(older, null, newer)));
+        assertNull(ConditionalResponses.lastModified(List.of(versioned(null))));
+    }
+
+
+    private static Versioned versioned(final Instant lastModified) {
+        return new Versioned() {
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+
+            @Override
+            public void setVersion(final Long version) {
+            }
+
+            @Override
+            public Instant getLastModified() {
+                return lastModified;
+            }
+        };
+    }
+}
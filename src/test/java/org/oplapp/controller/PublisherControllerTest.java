@@ -5,9 +5,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.service.*;
-import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -57,24 +58,15 @@ class PublisherControllerTest {
         final int page = 0;
         final int size = 25;
 
-        final Page<Publisher> publisherPage = new PageImpl<>(publishers, PageRequest.of(page, size),100L);
-        final List<Publisher> publishers = publisherPage.getContent();
+        final PublisherPage mockResponse = new PublisherPage(List.of(new PublisherSummary(1L, "Test Publisher")), new PageInfo(1, size, true, 100L, 4, null));
 
-        final Map<String, Object> mockResponse = new HashMap<>();
-
-        mockResponse.put("publishers", publishers);
-        mockResponse.put("totalElements", publisherPage.getTotalElements());
-        mockResponse.put("totalPages", publisherPage.getTotalPages());
-        mockResponse.put("currentPage", publisherPage.getNumber());
-        mockResponse.put("pageSize", publisherPage.getSize());
-
-        when(publisherService.getAllPublishers(page, size)).thenReturn(mockResponse);
+        when(publisherService.getAllPublishers(page, size, TotalMode.EXACT)).thenReturn(mockResponse);
 
         // Act
-        final ResponseEntity<Map<String, Object>> responseEntity = publisherControllerUnderTest.getAllPublishers(page, size);
+        final ResponseEntity<PublisherPage> responseEntity = publisherControllerUnderTest.getAllPublishers(page, size, "true");
 
         // Assert
-        verify(publisherService, times(1)).getAllPublishers(page, size);
+        verify(publisherService, times(1)).getAllPublishers(page, size, TotalMode.EXACT);
         assertSame(mockResponse, responseEntity.getBody());
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
@@ -86,24 +78,15 @@ class PublisherControllerTest {
         final int page = 0;
         final int size = 25;
 
-        final Page<Publisher> publisherPage = new PageImpl<>(publishers, PageRequest.of(page, size),100L);
-        final List<Publisher> filteredPublishers = publisherPage.getContent();
-
-        final Map<String, Object> mockResponse = new HashMap<>();
-
-        mockResponse.put("publishers", filteredPublishers);
-        mockResponse.put("totalElements", publisherPage.getTotalElements());
-        mockResponse.put("totalPages", publisherPage.getTotalPages());
-        mockResponse.put("currentPage", publisherPage.getNumber());
-        mockResponse.put("pageSize", publisherPage.getSize());
+        final PublisherPage mockResponse = new PublisherPage(List.of(new PublisherSummary(1L, "Test Publisher")), new PageInfo(1, size, true, 100L, 4, null));
 
-        when(publisherService.filterPublishers(publishers.get(0).getPublisherName(), page, size)).thenReturn(mockResponse);
+        when(publisherService.filterPublishers(publishers.get(0).getPublisherName(), page, size, TotalMode.EXACT)).thenReturn(mockResponse);
 
         // Act
-        final ResponseEntity<Map<String, Object>> responseEntity = publisherControllerUnderTest.filterPublishers(publishers.get(0).getPublisherName(),  page, size);
+        final ResponseEntity<PublisherPage> responseEntity = publisherControllerUnderTest.filterPublishers(publishers.get(0).getPublisherName(),  page, size, "true");
 
         // Assert
-        verify(publisherService, times(1)).filterPublishers(publishers.get(0).getPublisherName(), page, size);
+        verify(publisherService, times(1)).filterPublishers(publishers.get(0).getPublisherName(), page, size, TotalMode.EXACT);
         assertSame(mockResponse, responseEntity.getBody());
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
     }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.oplapp.dto.BatchResult;
 import org.oplapp.model.Tag;
 import org.oplapp.service.*;
 import org.springframework.http.HttpStatus;
@@ -50,6 +51,24 @@ class TagControllerTest {
     }
 
 
+    @Test
+    void testGetTagsByIds() {
+        // Arrange
+        final List<Long> tagIds = List.of(1L, 2L);
+        final BatchResult<Tag> mockResult = new BatchResult<>(tags, List.of(2L));
+
+        when(tagService.getTagsByIds(tagIds)).thenReturn(mockResult);
+
+        // Act
+        final ResponseEntity<BatchResult<Tag>> responseEntity = tagControllerUnderTest.getTagsByIds(tagIds);
+
+        // Assert
+        verify(tagService, times(1)).getTagsByIds(tagIds);
+        assertSame(mockResult, responseEntity.getBody());
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+    }
+
+
     @Test
     void testGetAllTags() {
         // Arrange
@@ -0,0 +1,91 @@
+package org.oplapp.datasource;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.springframework.jdbc.datasource.*;
+
+import javax.sql.*;
+import java.sql.*;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection targetConnection;
+
+    private ConcurrencyLimitingDataSource dataSourceUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        dataSourceUnderTest = new ConcurrencyLimitingDataSource(targetDataSource, 2, Duration.ofMillis(50));
+    }
+
+
+    @Test
+    void getConnection_ShouldHoldAPermitUntilTheConnectionIsClosed() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+
+        // Act
+        final Connection connection = dataSourceUnderTest.getConnection();
+        final int permitsWhileBorrowed = dataSourceUnderTest.getAvailablePermits();
+        connection.close();
+        connection.close();
+
+        // Assert
+        assertEquals(1, permitsWhileBorrowed);
+        assertEquals(2, dataSourceUnderTest.getAvailablePermits());
+        assertSame(targetConnection, ((ConnectionProxy) connection).getTargetConnection());
+        verify(targetConnection, times(2)).close();
+    }
+
+
+    @Test
+    void getConnection_ShouldFailIfNoPermitBecomesAvailableWithinTheTimeout() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        dataSourceUnderTest.getConnection();
+        dataSourceUnderTest.getConnection();
+
+        // Act and Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSourceUnderTest.getConnection());
+        verify(targetDataSource, times(2)).getConnection();
+    }
+
+
+    @Test
+    void getConnection_ShouldReturnThePermitIfTheTargetFails() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenThrow(new SQLTransientConnectionException("Pool exhausted"));
+
+        // Act and Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSourceUnderTest.getConnection());
+        assertEquals(2, dataSourceUnderTest.getAvailablePermits());
+    }
+
+
+    @Test
+    void getConnection_ShouldDelegateCallsToTheTargetConnection() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        when(targetConnection.getAutoCommit()).thenReturn(false);
+
+        // Act
+        final boolean autoCommit;
+        try (Connection connection = dataSourceUnderTest.getConnection()) {
+            autoCommit = connection.getAutoCommit();
+        }
+
+        // Assert
+        assertFalse(autoCommit);
+    }
+}
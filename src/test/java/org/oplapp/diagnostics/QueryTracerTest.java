@@ -0,0 +1,113 @@
+package org.oplapp.diagnostics;
+
+import net.ttddyy.dsproxy.*;
+import net.ttddyy.dsproxy.listener.*;
+import org.aopalliance.intercept.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.oplapp.repository.*;
+import org.springframework.beans.factory.*;
+
+import javax.sql.*;
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueryTracerTest {
+
+    @Mock
+    private ObjectProvider<DataSource> dataSource;
+    @Mock
+    private MethodInvocation invocation;
+
+    private SlowQueryLog slowQueryLog;
+    private QueryTracer tracerUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        slowQueryLog = new SlowQueryLog(10, Duration.ofMinutes(5));
+        tracerUnderTest = new QueryTracer(slowQueryLog, dataSource, Duration.ofMillis(200));
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        tracerUnderTest.end();
+        tracerUnderTest.destroy();
+    }
+
+
+    @Test
+    void afterQuery_ShouldSumUpTheStatementsOfTheRequest() {
+        // Arrange
+        final QueryTrace trace = tracerUnderTest.begin("GET /books/filter?tag=classic");
+
+        // Act
+        tracerUnderTest.afterQuery(execution(20), List.of(new QueryInfo("select 1")));
+        tracerUnderTest.afterQuery(execution(30), List.of(new QueryInfo("select 2")));
+
+        // Assert
+        assertEquals(2, trace.getStatements());
+        assertEquals(50, trace.getElapsedMillis());
+        assertTrue(slowQueryLog.slowest(10).isEmpty());
+    }
+
+
+    @Test
+    void afterQuery_ShouldCaptureStatementsAboveTheThresholdWithTheirRepositoryMethod() throws Throwable {
+        // Arrange
+        tracerUnderTest.begin("GET /books/filter?tag=classic");
+        when(invocation.getMethod()).thenReturn(BookRepository.class.getMethod("countBooks", BookFilter.class));
+        when(invocation.proceed()).thenAnswer(ignored -> {
+            // An UPDATE is captured, but not explained
+            tracerUnderTest.afterQuery(execution(250), List.of(new QueryInfo("update book set notes = null")));
+            return 1L;
+        });
+
+        // Act
+        tracerUnderTest.traceRepositoryInvocation("BookRepository", invocation);
+
+        // Assert
+        final List<SlowQuery> slowQueries = slowQueryLog.slowest(10);
+        assertEquals(1, slowQueries.size());
+        assertEquals("update book set notes = null", slowQueries.get(0).sql());
+        assertEquals(250, slowQueries.get(0).elapsedMillis());
+        assertEquals("BookRepository.countBooks", slowQueries.get(0).repositoryMethod());
+        assertEquals("GET /books/filter?tag=classic", slowQueries.get(0).request());
+        verifyNoInteractions(dataSource);
+    }
+
+
+    @Test
+    void afterMethod_ShouldCountTheRowsFetchedFromResultSets() throws NoSuchMethodException {
+        // Arrange
+        final QueryTrace trace = tracerUnderTest.begin("GET /books");
+        final MethodExecutionContext next = new MethodExecutionContext();
+        next.setTarget(mock(ResultSet.class));
+        next.setMethod(ResultSet.class.getMethod("next"));
+
+        // Act
+        next.setResult(true);
+        tracerUnderTest.afterMethod(next);
+        tracerUnderTest.afterMethod(next);
+        next.setResult(false);
+        tracerUnderTest.afterMethod(next);
+
+        // Assert
+        assertEquals(2, trace.getRows());
+    }
+
+
+    private static ExecutionInfo execution(final long elapsedMillis) {
+        final ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        return executionInfo;
+    }
+}
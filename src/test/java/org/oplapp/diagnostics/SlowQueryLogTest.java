@@ -0,0 +1,96 @@
+package org.oplapp.diagnostics;
+
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    private SlowQueryLog slowQueryLogUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        slowQueryLogUnderTest = new SlowQueryLog(3, Duration.ofMinutes(5));
+    }
+
+
+    @Test
+    void slowest_ShouldReturnTheRecentQueriesOrderedByDescendingExecutionTime() {
+        // Arrange
+        slowQueryLogUnderTest.add(slowQuery("select 1", 300));
+        slowQueryLogUnderTest.add(slowQuery("select 2", 900));
+        slowQueryLogUnderTest.add(slowQuery("select 3", 500));
+        slowQueryLogUnderTest.add(slowQuery("select 4", 200));
+
+        // Act
+        final List<SlowQuery> slowest = slowQueryLogUnderTest.slowest(2);
+
+        // Assert
+        assertEquals(List.of("select 2", "select 3"), slowest.stream().map(SlowQuery::sql).toList());
+    }
+
+
+    @Test
+    void constructor_ShouldRejectACapacityOfZero() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(0, Duration.ofMinutes(5)));
+    }
+
+
+    @Test
+    void slowest_ShouldDropTheOldestQueryWhenTheCapacityIsReached() {
+        // Arrange
+        slowQueryLogUnderTest.add(slowQuery("select 1", 900));
+        slowQueryLogUnderTest.add(slowQuery("select 2", 300));
+        slowQueryLogUnderTest.add(slowQuery("select 3", 300));
+        slowQueryLogUnderTest.add(slowQuery("select 4", 300));
+
+        // Act
+        final List<SlowQuery> slowest = slowQueryLogUnderTest.slowest(10);
+
+        // Assert
+        assertEquals(3, slowest.size());
+        assertTrue(slowest.stream().noneMatch(slowQuery -> slowQuery.sql().equals("select 1")));
+    }
+
+
+    @Test
+    void claimExplain_ShouldSucceedOncePerStatementWithinTheInterval() {
+        // Act
+        final boolean first = slowQueryLogUnderTest.claimExplain("select 1");
+        final boolean second = slowQueryLogUnderTest.claimExplain("select 1");
+        final boolean other = slowQueryLogUnderTest.claimExplain("select 2");
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(other);
+    }
+
+
+    @Test
+    void slowest_ShouldAttachTheRecordedPlan() {
+        // Arrange
+        slowQueryLogUnderTest.add(slowQuery("select 1", 300));
+        slowQueryLogUnderTest.add(slowQuery("select 2", 300));
+        slowQueryLogUnderTest.claimExplain("select 1");
+        slowQueryLogUnderTest.claimExplain("select 2");
+        slowQueryLogUnderTest.recordPlan("select 1", List.of("type=ALL, rows=1000"));
+
+        // Act
+        final List<SlowQuery> slowest = slowQueryLogUnderTest.slowest(10);
+
+        // Assert
+        assertEquals(List.of("type=ALL, rows=1000"), slowest.get(0).plan());
+        assertNull(slowest.get(1).plan());
+    }
+
+
+    private static SlowQuery slowQuery(final String sql, final long elapsedMillis) {
+        return new SlowQuery(sql, List.of(), elapsedMillis, "BookRepository.sliceBooks", "GET /books/filter", Instant.now(), null);
+    }
+}
@@ -63,6 +63,20 @@ class GlobalExceptionHandlerTest {
     }
 
 
+    @Test
+    void handlePublisherInUseException() {
+        // Arrange
+        final PublisherInUseException exception = new PublisherInUseException(1L);
+
+        // Act
+        final ResponseEntity<String> responseEntity = globalExceptionHandler.handlePublisherInUseException(exception);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+        assertEquals("Publisher with id 1 is still referenced by books", responseEntity.getBody());
+    }
+
+
     @Test
     void handleSQLException() {
         // Act
@@ -0,0 +1,89 @@
+package org.oplapp.metrics;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.*;
+import org.aopalliance.intercept.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.oplapp.repository.*;
+import org.springframework.data.domain.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookQueryMetricsTest {
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private MeterRegistry meterRegistry;
+    private BookQueryMetrics metricsUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsUnderTest = new BookQueryMetrics(meterRegistry);
+    }
+
+
+    @Test
+    void invoke_ShouldTimeTheQueryTaggedWithTheSuppliedCriteria() throws Throwable {
+        // Arrange
+        final BookFilter filter = new BookFilter("River", null, null, "Meyer", 1990, null, null, null, null, "classic", null, null);
+        when(invocation.getArguments()).thenReturn(new Object[]{filter, PageRequest.of(0, 25)});
+        when(invocation.getMethod()).thenReturn(BookRepository.class.getMethod("sliceBooks", BookFilter.class, Pageable.class));
+        when(invocation.proceed()).thenReturn(new SliceImpl<>(List.of()));
+
+        // Act
+        metricsUnderTest.invoke(invocation);
+
+        // Assert
+        final Timer timer = meterRegistry.find(BookQueryMetrics.TIMER_NAME)
+                .tag("method", "sliceBooks")
+                .tag("filters", "bookTitle+authorLastname+publishedBefore+tag")
+                .tag("exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+
+    @Test
+    void invoke_ShouldTagTheExceptionThrownByTheQuery() throws Throwable {
+        // Arrange
+        final BookFilter filter = new BookFilter(null, null, null, null, null, null, null, null, null, null, null, null);
+        when(invocation.getArguments()).thenReturn(new Object[]{filter});
+        when(invocation.getMethod()).thenReturn(BookRepository.class.getMethod("countBooks", BookFilter.class));
+        when(invocation.proceed()).thenThrow(new IllegalStateException("Query failed"));
+
+        // Act and Assert
+        assertThrows(IllegalStateException.class, () -> metricsUnderTest.invoke(invocation));
+        assertEquals(1, meterRegistry.get(BookQueryMetrics.TIMER_NAME)
+                .tag("filters", "none")
+                .tag("exception", "IllegalStateException")
+                .timer()
+                .count());
+    }
+
+
+    @Test
+    void invoke_ShouldNotTimeInvocationsWithoutFilterCriteria() throws Throwable {
+        // Arrange
+        when(invocation.getArguments()).thenReturn(new Object[]{1L});
+        when(invocation.proceed()).thenReturn(true);
+
+        // Act
+        final Object result = metricsUnderTest.invoke(invocation);
+
+        // Assert
+        assertEquals(true, result);
+        assertTrue(meterRegistry.find(BookQueryMetrics.TIMER_NAME).timers().isEmpty());
+    }
+}
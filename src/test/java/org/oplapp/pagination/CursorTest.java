@@ -0,0 +1,37 @@
+package org.oplapp.pagination;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+
+    @Test
+    void decode_ShouldRestoreAnEncodedCursor() {
+        // Arrange
+        final Cursor cursor = Cursor.before("Title | with separators", 42L);
+
+        // Act
+        final Cursor decoded = Cursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals("Title | with separators", decoded.getSortKey());
+        assertEquals(42L, decoded.getId());
+        assertTrue(decoded.isBackward());
+    }
+
+
+    @Test
+    void decode_ShouldReturnNullForABlankToken() {
+        // Act and Assert
+        assertNull(Cursor.decode(""));
+        assertNull(Cursor.decode(null));
+    }
+
+
+    @Test
+    void decode_ShouldThrowAnIllegalArgumentExceptionForAMalformedToken() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,69 @@
+package org.oplapp.pagination;
+
+import org.junit.jupiter.api.*;
+import reactor.test.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetFluxTest {
+
+    private static final List<String> ROWS = List.of("a", "b", "c", "d", "e");
+
+    private final List<String> positions = Collections.synchronizedList(new ArrayList<>());
+
+
+    @Test
+    void of_ShouldEmitTheRowsOfAllWindowsInOrder() {
+        // Act and Assert
+        StepVerifier.create(KeysetFlux.of(this::seek, 2, Function.identity(), this::id))
+                .expectNext("a", "b", "c", "d", "e")
+                .verifyComplete();
+        assertEquals(List.of("null", "b", "d"), positions);
+    }
+
+
+    @Test
+    void of_ShouldQueryAtMostOneWindowAheadOfTheSubscriber() {
+        // Act and Assert
+        StepVerifier.create(KeysetFlux.of(this::seek, 2, Function.identity(), this::id), 1)
+                .expectNext("a")
+                .thenAwait(Duration.ofMillis(50))
+                .then(() -> assertFalse(positions.contains("d")))
+                .thenCancel()
+                .verify();
+        assertEquals("null", positions.get(0));
+    }
+
+
+    @Test
+    void of_ShouldCompleteWithoutRowsIfTheFirstWindowIsEmpty() {
+        // Act and Assert
+        StepVerifier.create(KeysetFlux.<String>of((sortKey, id, limit) -> List.of(), 2, Function.identity(), this::id))
+                .verifyComplete();
+    }
+
+
+    @Test
+    void of_ShouldRejectANonPositiveWindowSize() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> KeysetFlux.of(this::seek, 0, Function.identity(), this::id));
+    }
+
+
+    private List<String> seek(final String sortKey, final Long id, final int limit) {
+        positions.add(String.valueOf(sortKey));
+        return ROWS.stream()
+                .filter(row -> sortKey == null || row.compareTo(sortKey) > 0)
+                .limit(limit)
+                .toList();
+    }
+
+
+    private Long id(final String row) {
+        return (long) row.charAt(0);
+    }
+}
@@ -1,19 +1,24 @@
 package org.oplapp.repository;
 
+import org.hibernate.*;
+import org.hibernate.stat.*;
 import org.junit.jupiter.api.*;
 import org.oplapp.model.*;
 import org.springframework.beans.factory.annotation.*;
 import org.springframework.boot.test.autoconfigure.orm.jpa.*;
 import org.springframework.data.domain.*;
 
+import java.time.*;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class AuthorRepositoryTest {
 
     @Autowired
     private AuthorRepository authorRepositoryUnderTest;
+    @Autowired
+    private TestEntityManager entityManager;
 
 
     @Test
@@ -52,4 +57,56 @@ class AuthorRepositoryTest {
         assertTrue(authors.contains(author1));
         assertTrue(authors.contains(author2));
     }
+
+
+    @Test
+    void saveAll_ShouldSendTheInsertsAsJdbcBatches() {
+        // Arrange
+        final List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            authors.add(new Author("Andrea", "Meyer" + i));
+        }
+
+        final Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // Act
+        authorRepositoryUnderTest.saveAll(authors);
+        entityManager.flush();
+
+        // Assert
+        // 4 batches of 50 inserts plus a few pooled sequence calls instead of 200 single inserts
+        assertEquals(200, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "Expected at most 10 statements but got " + statistics.getPrepareStatementCount());
+    }
+
+
+    @Test
+    void deleteAuthor_ShouldRemoveTheAuthorFromItsBooksAndUpdateThem() {
+        // Arrange
+        final Author author1 = authorRepositoryUnderTest.save(new Author("Andrea", "Meyer"));
+        final Author author2 = authorRepositoryUnderTest.save(new Author("Peter", "Schmidt"));
+        final Publisher publisher = entityManager.persist(new Publisher("Test Publisher"));
+        final Book book = entityManager.persist(new Book("Test Book", new HashSet<>(Set.of(author1, author2)), publisher));
+        entityManager.flush();
+        final Instant lastModified = book.getLastModified();
+        entityManager.clear();
+
+        // Act
+        final int deleted = authorRepositoryUnderTest.deleteAuthor(author1.getAuthorId());
+        final int deletedAgain = authorRepositoryUnderTest.deleteAuthor(author1.getAuthorId());
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(0, deletedAgain);
+        final Book updatedBook = entityManager.find(Book.class, book.getBookId());
+        assertEquals(List.of(author2.getAuthorId()), updatedBook.getAuthors().stream()
+                .map(Author::getAuthorId)
+                .toList());
+        assertEquals(1L, updatedBook.getVersion());
+        assertFalse(updatedBook.getLastModified().isBefore(lastModified));
+    }
 }
@@ -2,23 +2,35 @@ package org.oplapp.repository;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.hibernate.*;
+import org.hibernate.stat.*;
 import org.junit.jupiter.api.Test;
+import org.oplapp.dto.*;
 import org.oplapp.model.*;
 import org.springframework.beans.factory.annotation.*;
 import org.springframework.boot.test.autoconfigure.orm.jpa.*;
 import org.springframework.data.domain.*;
+import org.springframework.orm.*;
 
 import java.util.*;
+import java.util.function.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class BookRepositoryTest {
 
+    // One select for the page including the publishers, one batch per collection and at most one count query
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
     @Autowired
     private BookRepository bookRepositoryUnderTest;
     @Autowired
     private AuthorRepository authorRepository;
     @Autowired
     private PublisherRepository publisherRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private TestEntityManager entityManager;
 
 
     @Test
@@ -40,7 +52,7 @@ class BookRepositoryTest {
         final Book savedBook2 = bookRepositoryUnderTest.save(book2);
 
         // Act
-        final Page<Book> resultPage = bookRepositoryUnderTest.queryBooks("1", null, null , "Meyer", null, null, null, null, null, null, null, null, PageRequest.of(page, size));
+        final Page<Book> resultPage = bookRepositoryUnderTest.queryBooks(new BookFilter("1", null, null , "Meyer", null, null, null, null, null, null, null, null), PageRequest.of(page, size));
 
         // Assert
         final List<Book> books = resultPage.getContent();
@@ -48,4 +60,237 @@ class BookRepositoryTest {
         assertEquals(1, books.size());
         assertEquals(savedBook1, books.get(0));
     }
+
+
+    @Test
+    void seekBooks_ShouldReturnConsecutiveWindowsInTitleAndIdOrder() {
+        // Arrange
+        final Author savedAuthor = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+
+        final Book bookA = bookRepositoryUnderTest.save(new Book("A Book", Set.of(savedAuthor), savedPublisher));
+        final Book bookB1 = bookRepositoryUnderTest.save(new Book("B Book", Set.of(savedAuthor), savedPublisher));
+        final Book bookB2 = bookRepositoryUnderTest.save(new Book("B Book", Set.of(savedAuthor), savedPublisher));
+        final Book bookC = bookRepositoryUnderTest.save(new Book("C Book", Set.of(savedAuthor), savedPublisher));
+
+        // Act
+        final List<Book> firstWindow = bookRepositoryUnderTest.seekBooksForward(null, null, PageRequest.of(0, 2));
+        final List<Book> secondWindow = bookRepositoryUnderTest.seekBooksForward(bookB1.getBookTitle(), bookB1.getBookId(), PageRequest.of(0, 2));
+        final List<Book> previousWindow = bookRepositoryUnderTest.seekBooksBackward(bookB2.getBookTitle(), bookB2.getBookId(), PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(List.of(bookA, bookB1), firstWindow);
+        assertEquals(List.of(bookB2, bookC), secondWindow);
+        assertEquals(List.of(bookB1, bookA), previousWindow);
+    }
+
+
+    @Test
+    void seekFilteredBooks_ShouldReturnEachMatchingBookOnce() {
+        // Arrange
+        final Author author1 = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Author author2 = authorRepository.save(new Author("Andreas", "Meyer"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+
+        final Book book1 = bookRepositoryUnderTest.save(new Book("Test Book1", Set.of(author1, author2), savedPublisher));
+        final Book book2 = bookRepositoryUnderTest.save(new Book("Test Book2", Set.of(author1), savedPublisher));
+
+        // Act
+        final List<Book> books = bookRepositoryUnderTest.seekFilteredBooksForward(new BookFilter(null, null, null, "Meyer", null, null, null, null, null, null, null, null), null, null, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(book1, book2), books);
+    }
+
+
+    @Test
+    void queryBooks_ShouldCountEachMatchingBookOnceRegardlessOfItsAssociations() {
+        // Arrange
+        final Author author1 = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Author author2 = authorRepository.save(new Author("Andreas", "Meyer"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final List<Tag> tags = tagRepository.saveAll(List.of(new Tag("Travel"), new Tag("Travel Guide")));
+
+        final Book book1 = bookRepositoryUnderTest.save(new Book(null, "Test Book1", null, null, Set.of(author1, author2), 2000, 100, null, null, savedPublisher, new HashSet<>(tags), "A", "1"));
+        final Book book2 = bookRepositoryUnderTest.save(new Book(null, "Test Book2", null, null, Set.of(author1), 2010, 100, null, null, savedPublisher, Set.of(tags.get(0)), "A", "2"));
+        bookRepositoryUnderTest.save(new Book(null, "Test Book3", null, null, Set.of(author2), 2020, 100, null, null, savedPublisher, null, "B", "1"));
+
+        // Act
+        final Page<Book> byTag = bookRepositoryUnderTest.queryBooks(new BookFilter(null, null, null, null, null, null, null, null, null, "Travel%", null, null), PageRequest.of(0, 10, Sort.by("bookTitle")));
+        final Page<Book> byAuthorAndShelf = bookRepositoryUnderTest.queryBooks(new BookFilter(null, author1.getAuthorId(), null, "Meyer", null, null, null, null, null, null, "A", null), PageRequest.of(0, 10, Sort.by("bookTitle")));
+        final Page<Book> byYear = bookRepositoryUnderTest.queryBooks(new BookFilter(null, null, null, null, 2005, 2015, null, savedPublisher.getPublisherId(), "Test%", null, null, null), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(book1, book2), byTag.getContent());
+        assertEquals(2, byTag.getTotalElements());
+        assertEquals(List.of(book1, book2), byAuthorAndShelf.getContent());
+        assertEquals(List.of(book2), byYear.getContent());
+    }
+
+
+    @Test
+    void sliceBooks_ShouldSelectSummariesAndTellWhetherAFollowingPageExists() {
+        // Arrange
+        final Author author1 = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Author author2 = authorRepository.save(new Author("Jan", "Schulz"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final Book book1 = bookRepositoryUnderTest.save(new Book("Test Book1", Set.of(author2, author1), savedPublisher));
+        final Book book2 = bookRepositoryUnderTest.save(new Book("Test Book2", Set.of(author1), savedPublisher));
+        final Book book3 = bookRepositoryUnderTest.save(new Book("Test Book3", Set.of(author1), savedPublisher));
+        final BookFilter filter = new BookFilter("Test", null, null, "Meyer", null, null, null, null, null, null, null, null);
+
+        // Act
+        final Slice<BookSummary> firstSlice = bookRepositoryUnderTest.sliceBooks(filter, PageRequest.of(0, 2, Sort.by("bookTitle")));
+        final Slice<BookSummary> lastSlice = bookRepositoryUnderTest.sliceBooks(filter, PageRequest.of(1, 2, Sort.by("bookTitle")));
+
+        // Assert
+        assertEquals(List.of(book1.getBookId(), book2.getBookId()), firstSlice.map(BookSummary::bookId).getContent());
+        assertTrue(firstSlice.hasNext());
+        assertEquals(List.of(book3.getBookId()), lastSlice.map(BookSummary::bookId).getContent());
+        assertFalse(lastSlice.hasNext());
+
+        final BookSummary summary = firstSlice.getContent().get(0);
+        assertEquals("Test Book1", summary.bookTitle());
+        assertEquals(new PublisherSummary(savedPublisher.getPublisherId(), "Test Publisher"), summary.publisher());
+        assertEquals(List.of(new AuthorSummary(author1.getAuthorId(), "Andrea", "Meyer"), new AuthorSummary(author2.getAuthorId(), "Jan", "Schulz")),
+                summary.authors());
+        assertEquals(3, bookRepositoryUnderTest.countBooks(filter));
+    }
+
+
+    @Test
+    void sliceBookGrid_ShouldSelectTitleAuthorsAndYearWithoutLoadingEntities() {
+        // Arrange
+        final Author author1 = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Author author2 = authorRepository.save(new Author("Jan", "Schulz"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final Book book = bookRepositoryUnderTest.save(new Book(null, "Test Book1", "2nd", null, Set.of(author2, author1), 2001, 100, "123456789", "Notes", savedPublisher, null, "A", "1"));
+        entityManager.flush();
+        entityManager.clear();
+        final Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // Act
+        final Slice<BookGridRow> grid = bookRepositoryUnderTest.sliceBookGrid(new BookFilter("Test", null, null, null, null, null, null, null, null, null, null, null), PageRequest.of(0, 10, Sort.by("bookTitle")));
+
+        // Assert
+        assertEquals(List.of(new BookGridRow(book.getBookId(), "Test Book1", List.of("Andrea Meyer", "Jan Schulz"), 2001)), grid.getContent());
+        assertFalse(grid.hasNext());
+        // One select for the rows and one for the author names
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+
+    @Test
+    void listAndFilterQueries_ShouldLoadAPageGraphWithABoundedNumberOfStatements() {
+        // Arrange
+        final List<Publisher> publishers = publisherRepository.saveAll(List.of(new Publisher("Publisher 1"), new Publisher("Publisher 2"), new Publisher("Publisher 3")));
+        final List<Tag> tags = tagRepository.saveAll(List.of(new Tag("Tag 1"), new Tag("Tag 2"), new Tag("Tag 3")));
+        for (int i = 0; i < 20; i++) {
+            final Author author1 = authorRepository.save(new Author("Andrea", "Meyer" + i));
+            final Author author2 = authorRepository.save(new Author("Peter", "Schmidt" + i));
+            bookRepositoryUnderTest.save(new Book(null, "Test Book" + i, null, null, Set.of(author1, author2), 2000 + i, 100, null, null,
+                    publishers.get(i % 3), Set.of(tags.get(i % 3), tags.get((i + 1) % 3)), null, null));
+        }
+        final List<Long> bookIds = bookRepositoryUnderTest.findAll().stream().limit(10).map(Book::getBookId).toList();
+
+        // Act and Assert
+        assertStatementsPerPage(() -> bookRepositoryUnderTest.findAll(PageRequest.of(0, 10, Sort.by("bookTitle"))).getContent());
+        assertStatementsPerPage(() -> bookRepositoryUnderTest.queryBooks(new BookFilter("Test", null, null, "Meyer%", null, null, null, null, null, "Tag%", null, null), PageRequest.of(0, 10)).getContent());
+        assertStatementsPerPage(() -> bookRepositoryUnderTest.seekBooksForward(null, null, PageRequest.of(0, 10)));
+        assertStatementsPerPage(() -> bookRepositoryUnderTest.seekFilteredBooksForward(new BookFilter("Test", null, null, null, null, null, null, null, null, null, null, null), null, null, PageRequest.of(0, 10)));
+        assertStatementsPerPage(() -> bookRepositoryUnderTest.findAllByBookIdIn(bookIds));
+    }
+
+
+    private void assertStatementsPerPage(final Supplier<List<Book>> pageQuery) {
+        entityManager.flush();
+        entityManager.clear();
+        final Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        final List<Book> books = pageQuery.get();
+        // Touches every association the same way the JSON serialization does
+        books.forEach(book -> {
+            book.getPublisher().getPublisherName();
+            book.getAuthors().forEach(Author::getLastname);
+            book.getTags().forEach(Tag::getTagName);
+        });
+
+        assertEquals(10, books.size());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Expected at most " + MAX_STATEMENTS_PER_PAGE + " statements but got " + statistics.getPrepareStatementCount());
+    }
+
+
+    @Test
+    void attachReferences_ShouldReplaceReferencesByIdWithThePersistentEntities() {
+        // Arrange
+        final Author savedAuthor = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final Tag savedTag = tagRepository.save(new Tag("classic"));
+        final Book book = new Book(null, "Test Book", null, null, Set.of(new Author(savedAuthor.getAuthorId(), null, null)),
+                null, null, null, null, new Publisher(savedPublisher.getPublisherId(), null),
+                Set.of(new Tag(savedTag.getTagId(), null), new Tag("new tag")), null, null);
+
+        // Act
+        bookRepositoryUnderTest.attachReferences(book);
+
+        // Assert
+        assertSame(savedPublisher, book.getPublisher());
+        assertEquals(Set.of(savedAuthor), book.getAuthors());
+        assertTrue(book.getTags().contains(savedTag));
+        assertEquals(2, book.getTags().size());
+    }
+
+
+    @Test
+    void save_ShouldRejectAnOutdatedVersion() {
+        // Arrange
+        final Author savedAuthor = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final Book savedBook = bookRepositoryUnderTest.save(new Book("Test Book", new HashSet<>(Set.of(savedAuthor)), savedPublisher));
+        entityManager.flush();
+        savedBook.setBookTitle("Renamed Book");
+        entityManager.flush();
+
+        final Book outdatedBook = new Book(savedBook.getBookId(), "Outdated Book", null, null, Set.of(savedAuthor), null,
+                null, null, null, savedPublisher, null, null, null);
+        outdatedBook.setVersion(0L);
+
+        // Act and Assert
+        assertEquals(1L, savedBook.getVersion());
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookRepositoryUnderTest.save(outdatedBook));
+    }
+
+
+    @Test
+    void deleteBooks_ShouldDeleteTheBooksWithTheirLinksButKeepTheReferencedEntities() {
+        // Arrange
+        final Author savedAuthor = authorRepository.save(new Author("Andrea", "Meyer"));
+        final Publisher savedPublisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final Tag savedTag = tagRepository.save(new Tag("Test Tag"));
+        final Book book1 = bookRepositoryUnderTest.save(new Book(null, "Test Book1", null, null, Set.of(savedAuthor), null, null, null, null,
+                savedPublisher, Set.of(savedTag), null, null));
+        final Book book2 = bookRepositoryUnderTest.save(new Book(null, "Test Book2", null, null, Set.of(savedAuthor), null, null, null, null,
+                savedPublisher, Set.of(savedTag), null, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        final int deleted = bookRepositoryUnderTest.deleteBooks(List.of(book1.getBookId(), 99999L));
+
+        // Assert
+        assertEquals(1, deleted);
+        assertFalse(bookRepositoryUnderTest.existsById(book1.getBookId()));
+        assertEquals(List.of(savedAuthor.getAuthorId()), bookRepositoryUnderTest.findById(book2.getBookId()).orElseThrow()
+                .getAuthors().stream().map(Author::getAuthorId).toList());
+        assertTrue(authorRepository.existsById(savedAuthor.getAuthorId()));
+        assertTrue(tagRepository.existsById(savedTag.getTagId()));
+    }
 }
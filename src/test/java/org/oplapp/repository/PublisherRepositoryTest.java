@@ -15,6 +15,8 @@ class PublisherRepositoryTest {
 
     @Autowired
     private PublisherRepository publisherRepositoryUnderTest;
+    @Autowired
+    private TestEntityManager entityManager;
 
 
     @Test
@@ -37,4 +39,25 @@ class PublisherRepositoryTest {
         assertEquals(publisher1, publishers.get(0));
 
     }
+
+
+    @Test
+    void deletePublisher_ShouldKeepAPublisherReferencedByBooks() {
+        // Arrange
+        final Publisher referenced = publisherRepositoryUnderTest.save(new Publisher("Test Publisher"));
+        final Publisher unreferenced = publisherRepositoryUnderTest.save(new Publisher("Test Publisher2"));
+        entityManager.persist(new Book("Test Book", new HashSet<>(), referenced));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        final int deletedReferenced = publisherRepositoryUnderTest.deletePublisher(referenced.getPublisherId());
+        final int deletedUnreferenced = publisherRepositoryUnderTest.deletePublisher(unreferenced.getPublisherId());
+
+        // Assert
+        assertEquals(0, deletedReferenced);
+        assertEquals(1, deletedUnreferenced);
+        assertTrue(publisherRepositoryUnderTest.existsById(referenced.getPublisherId()));
+        assertFalse(publisherRepositoryUnderTest.existsById(unreferenced.getPublisherId()));
+    }
 }
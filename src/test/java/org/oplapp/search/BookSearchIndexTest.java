@@ -0,0 +1,109 @@
+package org.oplapp.search;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.oplapp.model.*;
+import org.oplapp.repository.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookSearchIndex searchIndexUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        searchIndexUnderTest = new BookSearchIndex(bookRepository);
+    }
+
+
+    @Test
+    void search_ShouldRankWholeTokenMatchesAbovePrefixMatches() {
+        // Arrange
+        searchIndexUnderTest.index(1L, "Programming in Javascript");
+        searchIndexUnderTest.index(2L, "Effective Java");
+        searchIndexUnderTest.index(3L, "Gardening");
+
+        // Act
+        final List<Long> result = searchIndexUnderTest.search("java", 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), result);
+    }
+
+
+    @Test
+    void search_ShouldIgnoreCaseAndDiacritics() {
+        // Arrange
+        searchIndexUnderTest.index(1L, "Die Straße der Müllers");
+
+        // Act and Assert
+        assertEquals(List.of(1L), searchIndexUnderTest.search("strasse MULLERS", 10));
+    }
+
+
+    @Test
+    void search_ShouldRespectTheLimit() {
+        // Arrange
+        for (long bookId = 1; bookId <= 5; bookId++) {
+            searchIndexUnderTest.index(bookId, "Book " + bookId);
+        }
+
+        // Act and Assert
+        assertEquals(List.of(1L, 2L), searchIndexUnderTest.search("book", 2));
+    }
+
+
+    @Test
+    void index_ShouldReplaceThePreviousTitleOfABook() {
+        // Arrange
+        searchIndexUnderTest.index(1L, "Old Title");
+
+        // Act
+        searchIndexUnderTest.index(1L, "New Title");
+
+        // Assert
+        assertTrue(searchIndexUnderTest.search("old", 10).isEmpty());
+        assertEquals(List.of(1L), searchIndexUnderTest.search("new", 10));
+    }
+
+
+    @Test
+    void remove_ShouldDropTheBookFromTheIndex() {
+        // Arrange
+        searchIndexUnderTest.index(1L, "Effective Java");
+
+        // Act
+        searchIndexUnderTest.remove(1L);
+
+        // Assert
+        assertTrue(searchIndexUnderTest.search("java", 10).isEmpty());
+    }
+
+
+    @Test
+    void rebuild_ShouldIndexAllBooksFromTheDatabase() {
+        // Arrange
+        final BookTitle title = mock(BookTitle.class);
+        when(title.getBookId()).thenReturn(7L);
+        when(title.getBookTitle()).thenReturn("Effective Java");
+        when(bookRepository.streamBookTitles()).thenReturn(Stream.of(title));
+
+        // Act
+        searchIndexUnderTest.rebuild();
+
+        // Assert
+        assertEquals(List.of(7L), searchIndexUnderTest.search("effective", 10));
+    }
+}
@@ -4,15 +4,16 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.*;
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.repository.*;
+import org.oplapp.statistics.*;
 import org.oplapp.validator.*;
 import org.springframework.data.domain.*;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -25,13 +26,19 @@ class AuthorServiceTest {
     private AuthorRepository authorRepository;
     @Mock
     private ValidationHandler<Author> validationHandler;
+    @Mock
+    private CatalogCounters counters;
+    @Mock
+    private CountCache countCache;
+    @Mock
+    private CatalogAggregates aggregates;
 
     private AuthorService authorServiceUnderTest;
 
 
     @BeforeEach
     void setup() {
-        authorServiceUnderTest = new AuthorService(authorRepository, validationHandler);
+        authorServiceUnderTest = new AuthorService(authorRepository, validationHandler, counters, countCache, aggregates);
     }
 
 
@@ -64,40 +71,31 @@ class AuthorServiceTest {
 
 
     @Test
-    void getAllAuthors_ShouldReturnAMapWithAuthorsAndPaginationInfo() {
+    void getAllAuthors_ShouldReturnAPageWithAuthorsAndPaginationInfo() {
         // Arrange
         final int page = 0;
         final int size = 25;
 
-        final List<Author> mockAuthors = new ArrayList<>();
+        final List<AuthorSummary> mockAuthors = new ArrayList<>();
         for (int i = 1; i <= 10; i++) {
-            mockAuthors.add(new Author("Author", "LastName" + i));
+            mockAuthors.add(new AuthorSummary((long) i, "Author", "LastName" + i));
         }
 
-        final Page<Author> mockPage = new PageImpl<>(mockAuthors, PageRequest.of(page, size), 100L);
+        final Slice<AuthorSummary> mockSlice = new SliceImpl<>(mockAuthors, PageRequest.of(page, size), true);
 
-        when(authorRepository.findAll(any(Pageable.class))).thenReturn(mockPage);
+        when(authorRepository.sliceAuthors(isNull(), isNull(), any(Pageable.class))).thenReturn(mockSlice);
+        when(authorRepository.count()).thenReturn(100L);
 
         // Act
-        final Map<String, Object> result = authorServiceUnderTest.getAllAuthors(page, size);
+        final AuthorPage result = authorServiceUnderTest.getAllAuthors(page, size, TotalMode.EXACT);
 
         // Assert
-        assertTrue(result.containsKey("authors"));
-        assertTrue(result.containsKey("totalElements"));
-        assertTrue(result.containsKey("totalPages"));
-        assertTrue(result.containsKey("currentPage"));
-        assertTrue(result.containsKey("pageSize"));
-
-        assertEquals(mockAuthors, result.get("authors"));
-        assertEquals(100L, result.get("totalElements"));
-        assertEquals(4, result.get("totalPages"));
-        assertEquals(1, result.get("currentPage"));
-        assertEquals(25, result.get("pageSize"));
+        assertEquals(mockAuthors, result.authors());
+        assertEquals(new PageInfo(1, 25, true, 100L, 4, null), result.page());
     }
 
-
     @Test
-    void filterAuthors_ShouldReturnAMapWithFilteredAuthorsAndPaginationInfo() {
+    void filterAuthors_ShouldReturnAPageWithFilteredAuthorsAndPaginationInfo() {
         // Arrange
         final int page = 0;
         final int size = 25;
@@ -105,32 +103,41 @@ class AuthorServiceTest {
         final String authorFirstname = "Andrea";
         final String authorLastname = "Meyer";
 
-        final List<Author> mockFilteredAuthors = new ArrayList<>();
-        mockFilteredAuthors.add(new Author(authorFirstname, authorLastname));
+        final List<AuthorSummary> mockFilteredAuthors = List.of(new AuthorSummary(1L, authorFirstname, authorLastname));
+        final Slice<AuthorSummary> mockSlice = new SliceImpl<>(mockFilteredAuthors, PageRequest.of(page, size), false);
 
-        final Page<Author> mockPage = new PageImpl<>(mockFilteredAuthors, PageRequest.of(page, size), 1L);
-
-        when(authorRepository.queryAuthors(eq(authorFirstname), eq(authorLastname), any(Pageable.class)))
-                .thenReturn(mockPage);
+        when(authorRepository.sliceAuthors(eq(authorFirstname), eq(authorLastname), any(Pageable.class)))
+                .thenReturn(mockSlice);
 
         // Act
-        final Map<String, Object> result = authorServiceUnderTest.filterAuthors(authorFirstname, authorLastname, page, size);
+        final AuthorPage result = authorServiceUnderTest.filterAuthors(authorFirstname, authorLastname, page, size, TotalMode.EXACT);
 
         // Assert
-        assertTrue(result.containsKey("authors"));
-        assertTrue(result.containsKey("totalElements"));
-        assertTrue(result.containsKey("totalPages"));
-        assertTrue(result.containsKey("currentPage"));
-        assertTrue(result.containsKey("pageSize"));
-
-        assertEquals(mockFilteredAuthors, result.get("authors"));
-        assertEquals(1L, result.get("totalElements"));
-        assertEquals(1, result.get("totalPages"));
-        assertEquals(1, result.get("currentPage"));
-        assertEquals(25, result.get("pageSize"));
+        assertEquals(mockFilteredAuthors, result.authors());
+        assertEquals(new PageInfo(1, 25, false, 1L, 1, null), result.page());
+        // The only slice already determines the total
+        verify(authorRepository, never()).countAuthors(any(), any());
     }
 
 
+    @Test
+    void streamAuthors_ShouldQueryTheWindowsFollowingTheLastEmittedAuthor() {
+        // Arrange
+        final Author meyer = new Author(1L, "Andrea", "Meyer");
+        final Author schulz = new Author(2L, "Tom", "Schulz");
+
+        when(authorRepository.seekAuthorsForward("Andrea", null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(meyer, schulz));
+        when(authorRepository.seekAuthorsForward("Andrea", null, "Meyer", 1L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(schulz));
+
+        // Act
+        final List<AuthorSummary> result = authorServiceUnderTest.streamAuthors("Andrea", null, 1).collectList().block();
+
+        // Assert
+        assertEquals(List.of(new AuthorSummary(1L, "Andrea", "Meyer"), new AuthorSummary(2L, "Tom", "Schulz")), result);
+    }
+
     @Test
     void saveOrUpdateAuthor_ShouldValidateTheGivenAuthorInstanceAndReturnTheSavedAuthor() {
         // Arrange
@@ -150,18 +157,68 @@ class AuthorServiceTest {
     }
 
 
+    @Test
+    void saveOrUpdateAuthors_ShouldSaveTheValidAuthorsAndReportTheRejectedOnesByIndex() {
+        // Arrange
+        final Author newAuthor = new Author("Andrea", "Meyer");
+        final Author invalidAuthor = new Author("", "Schmidt");
+        final Author unknownAuthor = new Author(7L, "Peter", "Wagner");
+        final Author unversionedAuthor = new Author(1L, "Laura", "Becker");
+        final Author outdatedAuthor = new Author(2L, "Jonas", "Koch");
+        outdatedAuthor.setVersion(3L);
+
+        final Author persistentAuthor1 = new Author(1L, "Laura", "Becker");
+        persistentAuthor1.setVersion(4L);
+        final Author persistentAuthor2 = new Author(2L, "Jonas", "Koch");
+        persistentAuthor2.setVersion(5L);
+
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == invalidAuthor) {
+                throw new InvalidInstanceException(Set.of("Firstname must not be blank"));
+            }
+            return null;
+        }).when(validationHandler).handleValidation(any());
+        when(authorRepository.findAllById(List.of(7L, 1L, 2L))).thenReturn(List.of(persistentAuthor1, persistentAuthor2));
+        when(authorRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        final BatchWriteResult<Author> result = authorServiceUnderTest.saveOrUpdateAuthors(
+                List.of(newAuthor, invalidAuthor, unknownAuthor, unversionedAuthor, outdatedAuthor));
+
+        // Assert
+        assertEquals(3, result.saved());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(1, 4), result.errors().stream().map(RecordError::index).toList());
+        assertEquals(Arrays.asList(newAuthor, null, unknownAuthor, unversionedAuthor, null), result.items());
+        assertNull(unknownAuthor.getAuthorId());
+        assertEquals(4L, unversionedAuthor.getVersion());
+
+        verify(authorRepository, times(1)).saveAllAndFlush(List.of(newAuthor, unknownAuthor, unversionedAuthor));
+        verify(counters, times(1)).add(CatalogCounters.Counter.AUTHORS, 2);
+    }
+
+
+    @Test
+    void saveOrUpdateAuthors_ShouldRejectAnEmptyBatch() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> authorServiceUnderTest.saveOrUpdateAuthors(List.of()));
+        verifyNoInteractions(authorRepository);
+    }
+
+
     @Test
     void deleteAuthorById_DeletesAuthorIfIdExists() {
         // Arrange
         final Long authorId = 1L;
 
-        when(authorRepository.existsById(authorId)).thenReturn(true);
+        when(authorRepository.deleteAuthor(authorId)).thenReturn(1);
 
         // Act
         authorServiceUnderTest.deleteAuthorById(authorId);
 
         // Assert
-        verify(authorRepository, times(1)).deleteById(authorId);
+        verify(counters, times(1)).add(CatalogCounters.Counter.AUTHORS, -1);
+        verify(aggregates, times(1)).markDirty();
     }
 
 
@@ -170,10 +227,10 @@ class AuthorServiceTest {
         // Arrange
         final Long notExistingAuthorId = 99999L;
 
-        when(authorRepository.existsById(notExistingAuthorId)).thenReturn(false);
+        when(authorRepository.deleteAuthor(notExistingAuthorId)).thenReturn(0);
 
         // Act and Assert
         assertThrows(AuthorNotFoundException.class, () -> authorServiceUnderTest.deleteAuthorById(notExistingAuthorId));
-        verify(authorRepository, never()).deleteById(notExistingAuthorId);
+        verifyNoInteractions(counters, aggregates);
     }
 }
@@ -0,0 +1,94 @@
+package org.oplapp.service;
+
+import com.fasterxml.jackson.databind.*;
+import org.junit.jupiter.api.*;
+import org.oplapp.model.*;
+import org.oplapp.model.Tag;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+
+import javax.sql.*;
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class BookExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private BookExportService exportServiceUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        exportServiceUnderTest = new BookExportService(dataSource, objectMapper, 100);
+
+        final Publisher publisher = entityManager.persist(new Publisher("Test Publisher"));
+        final Author author1 = entityManager.persist(new Author("Andrea", "Meyer"));
+        final Author author2 = entityManager.persist(new Author("Jan", "Schulz"));
+        final Tag tag1 = entityManager.persist(new Tag("Fiction"));
+        final Tag tag2 = entityManager.persist(new Tag("Classic"));
+
+        final Book book1 = new Book("First, Book", new HashSet<>(List.of(author1, author2)), publisher);
+        book1.setTags(new HashSet<>(List.of(tag1, tag2)));
+        book1.setPublishingYear(2001);
+        entityManager.persist(book1);
+        entityManager.persist(new Book("Second Book", new HashSet<>(), publisher));
+        entityManager.flush();
+    }
+
+
+    @Test
+    void exportNdjson_ShouldWriteEachBookOnceWithItsReferences() throws IOException {
+        // Arrange
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        exportServiceUnderTest.exportNdjson(output);
+
+        // Assert
+        final List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+
+        final JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("First, Book", first.get("bookTitle").asText());
+        assertEquals(2001, first.get("publishingYear").asInt());
+        assertEquals(2, first.get("authors").size());
+        assertEquals(2, first.get("tags").size());
+        assertEquals("Test Publisher", first.get("publisher").get("publisherName").asText());
+        assertEquals(0, first.get("version").asLong());
+        assertTrue(first.hasNonNull("lastModified"));
+        assertEquals(0, first.get("publisher").get("version").asLong());
+        assertTrue(first.get("authors").get(0).hasNonNull("lastModified"));
+        assertEquals(0, first.get("tags").get(0).get("version").asLong());
+
+        final JsonNode second = objectMapper.readTree(lines.get(1));
+        assertTrue(second.get("publishingYear").isNull());
+        assertEquals(0, second.get("authors").size());
+    }
+
+
+    @Test
+    void exportCsv_ShouldWriteAHeaderAndOneRecordPerBook() throws IOException {
+        // Arrange
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        exportServiceUnderTest.exportCsv(output);
+
+        // Assert
+        final List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals(String.join(",", BookCsvFormat.COLUMNS), lines.get(0));
+        assertTrue(lines.get(1).startsWith("\"First, Book\",\""));
+        assertTrue(lines.get(1).contains("Meyer, Andrea"));
+        assertTrue(lines.get(2).startsWith("Second Book,,Test Publisher,"));
+    }
+}
@@ -0,0 +1,193 @@
+package org.oplapp.service;
+
+import com.fasterxml.jackson.databind.*;
+import jakarta.persistence.*;
+import org.junit.jupiter.api.*;
+import org.oplapp.dto.*;
+import org.oplapp.model.*;
+import org.oplapp.repository.*;
+import org.oplapp.search.*;
+import org.oplapp.statistics.*;
+import org.oplapp.validator.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.transaction.*;
+import org.springframework.transaction.annotation.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class BookImportServiceTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private PublisherRepository publisherRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManager entityManager;
+
+    private BookSearchIndex searchIndex;
+    private CatalogCounters counters;
+    private BookImportService importServiceUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        searchIndex = new BookSearchIndex(bookRepository);
+        counters = new CatalogCounters(bookRepository, authorRepository, publisherRepository, tagRepository);
+        importServiceUnderTest = new BookImportService(bookRepository, authorRepository, publisherRepository,
+                tagRepository, new ValidationHandler<>(), searchIndex, counters, transactionManager, entityManager,
+                new ObjectMapper(), 2, 10);
+    }
+
+
+    @Test
+    void importJson_ShouldPersistValidRecordsAndReportInvalidOnes() {
+        // Arrange
+        final String json = """
+                [
+                  {"bookTitle": "First Book", "publishingYear": 2001,
+                   "authors": [{"firstname": "Andrea", "lastname": "Meyer"}],
+                   "publisher": {"publisherName": "Test Publisher"}, "tags": [{"tagName": "Fiction"}]},
+                  {"publishingYear": 2002},
+                  {"bookTitle": "Second Book", "publishingYear": 2003,
+                   "authors": [{"firstname": "Andrea", "lastname": "Meyer"}],
+                   "publisher": {"publisherName": "Test Publisher"}, "tags": [{"tagName": "Fiction"}]},
+                  {"bookTitle": "Third Book", "publishingYear": 2004,
+                   "publisher": {"publisherName": "Test Publisher"}}
+                ]
+                """;
+
+        // Act
+        final ImportReport report = importServiceUnderTest.importJson(stream(json));
+
+        // Assert
+        assertEquals(3, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(1, report.errors().get(0).index());
+        assertEquals(3, bookRepository.count());
+        assertEquals(1, authorRepository.count());
+        assertEquals(1, publisherRepository.count());
+        assertEquals(1, tagRepository.count());
+        assertEquals(1, searchIndex.search("second", 10).size());
+    }
+
+
+    @Test
+    void importJson_ShouldKeepTheCommittedBatches_WhenTheInputIsMalformed() {
+        // Arrange
+        final String json = """
+                [
+                  {"bookTitle": "First Book", "publishingYear": 2001, "publisher": {"publisherName": "Test Publisher"}},
+                  {"bookTitle": "Second Book", "publishingYear": 2002, "publisher": {"publisherName": "Test Publisher"}},
+                  {"bookTitle": "Third Book",
+                """;
+
+        // Act
+        final ImportReport report = importServiceUnderTest.importJson(stream(json));
+
+        // Assert
+        assertEquals(2, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(2, report.errors().get(0).index());
+        assertEquals(2, bookRepository.count());
+    }
+
+
+    @Test
+    void importCsv_ShouldResolveExistingReferencesByName() {
+        // Arrange
+        final Publisher publisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final String csv = """
+                bookTitle,authors,publisher,tags,publishingYear
+                "Meyer, Andrea: A Life","Meyer, Andrea;Schulz, Jan",Test Publisher,Fiction;Biography,2001
+                Broken Book,,Test Publisher,,unknown
+                """;
+
+        // Act
+        final ImportReport report = importServiceUnderTest.importCsv(stream(csv));
+
+        // Assert
+        assertEquals(1, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(Set.of("publishingYear: Must be a number"), report.errors().get(0).messages());
+
+        final Book book = bookRepository.findAll().get(0);
+        assertEquals("Meyer, Andrea: A Life", book.getBookTitle());
+        assertEquals(publisher.getPublisherId(), book.getPublisher().getPublisherId());
+        assertEquals(2, book.getAuthors().size());
+        assertEquals(2, book.getTags().size());
+        assertEquals(1, publisherRepository.count());
+    }
+
+
+    @Test
+    void importJson_ShouldRejectOnlyTheRecordsReferencingUnknownIds() {
+        // Arrange
+        final Publisher publisher = publisherRepository.save(new Publisher("Test Publisher"));
+        final Author author = authorRepository.save(new Author("Andrea", "Meyer"));
+        final String json = """
+                [
+                  {"bookTitle": "First Book", "publisher": {"publisherId": %d}, "authors": [{"authorId": %d}]},
+                  {"bookTitle": "Second Book", "publisher": {"publisherId": 99999}},
+                  {"bookTitle": "Third Book", "publisher": {"publisherId": %d}, "tags": [{"tagId": 99998}]}
+                ]
+                """.formatted(publisher.getPublisherId(), author.getAuthorId(), publisher.getPublisherId());
+
+        // Act
+        final ImportReport report = importServiceUnderTest.importJson(stream(json));
+
+        // Assert
+        assertEquals(1, report.imported());
+        assertEquals(2, report.failed());
+        assertEquals(1, report.errors().get(0).index());
+        assertEquals(Set.of("publisher: No publisher with id 99999 exists"), report.errors().get(0).messages());
+        assertEquals(2, report.errors().get(1).index());
+        assertEquals(Set.of("tags: No tag with id 99998 exists"), report.errors().get(1).messages());
+        assertEquals(1, bookRepository.count());
+    }
+
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importJson_ShouldReportOnlyTheFailingRecord_WhenABatchIsRolledBack() {
+        // Arrange
+        // Each batch runs in its own transaction here, the edition exceeds its column without a validation message
+        final String json = """
+                [
+                  {"bookTitle": "First Book", "edition": "%s", "publisher": {"publisherName": "Test Publisher"}},
+                  {"bookTitle": "Second Book", "publisher": {"publisherName": "Test Publisher"}}
+                ]
+                """.formatted("x".repeat(300));
+
+        try {
+            // Act
+            final ImportReport report = importServiceUnderTest.importJson(stream(json));
+
+            // Assert
+            assertEquals(1, report.imported());
+            assertEquals(1, report.failed());
+            assertEquals(0, report.errors().get(0).index());
+            assertEquals("Second Book", bookRepository.findAll().get(0).getBookTitle());
+            assertEquals(1, publisherRepository.count());
+        } finally {
+            bookRepository.deleteAll();
+            publisherRepository.deleteAll();
+        }
+    }
+
+
+    private static InputStream stream(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
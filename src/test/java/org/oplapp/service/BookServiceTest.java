@@ -4,9 +4,13 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.repository.*;
+import org.oplapp.statistics.*;
+import org.oplapp.search.*;
 import org.oplapp.validator.*;
 import org.springframework.data.domain.*;
 
@@ -15,6 +19,7 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +29,14 @@ class BookServiceTest {
     private BookRepository bookRepository;
     @Mock
     private ValidationHandler<Book> validationHandler;
+    @Mock
+    private CatalogCounters counters;
+    @Mock
+    private CountCache countCache;
+    @Mock
+    private BookSearchIndex searchIndex;
+    @Mock
+    private CatalogAggregates aggregates;
 
     private BookService bookServiceUnderTest;
     private Author testAuthor;
@@ -33,7 +46,7 @@ class BookServiceTest {
 
     @BeforeEach
     void setup() {
-        bookServiceUnderTest = new BookService(bookRepository, validationHandler);
+        bookServiceUnderTest = new BookService(bookRepository, validationHandler, searchIndex, counters, countCache, aggregates);
         testAuthor = new Author(1L, "Andrea", "Meyer");
         testPublisher = new Publisher(1L, "Test Publisher");
         testBook = new Book(1L, "Test Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
@@ -69,74 +82,189 @@ class BookServiceTest {
 
 
     @Test
-    void getAllBooks_ShouldReturnAMapWithBooksAndPaginationInfo() {
+    void getBooksByIds_ShouldReturnTheFoundBooksInRequestedOrderAndListTheMissingIds() {
+        // Arrange
+        final Book otherBook = new Book(2L, "Other Book", null, null, Set.of(testAuthor), 2021, 120, null, null, testPublisher, null, null, null);
+
+        when(bookRepository.findAllByBookIdIn(List.of(2L, 7L, 1L))).thenReturn(List.of(testBook, otherBook));
+
+        // Act
+        final BatchResult<Book> result = bookServiceUnderTest.getBooksByIds(List.of(2L, 7L, 2L, 1L));
+
+        // Assert
+        assertEquals(List.of(otherBook, testBook), result.items());
+        assertEquals(List.of(7L), result.missingIds());
+    }
+
+
+    @Test
+    void getBooksByIds_ShouldRejectTooManyIds() {
+        // Arrange
+        final List<Long> bookIds = new ArrayList<>();
+        for (long id = 1; id <= BatchResult.MAX_IDS + 1; id++) {
+            bookIds.add(id);
+        }
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> bookServiceUnderTest.getBooksByIds(bookIds));
+        verifyNoInteractions(bookRepository);
+    }
+
+
+    @Test
+    void getAllBooks_ShouldReturnAPageWithBooksAndPaginationInfo() {
         // Arrange
         final int page = 0;
         final int size = 25;
 
-        final List<Book> mockBooks = new ArrayList<>();
+        final List<BookSummary> mockBooks = new ArrayList<>();
         for (int i = 1; i <= 10; i++) {
-            final Book testBook = this.testBook;
-            final String renamedBookTitle = this.testBook.getBookTitle() + i;
-            testBook.setBookTitle(renamedBookTitle);
-
-            mockBooks.add(testBook);
+            mockBooks.add(summaryOf((long) i, testBook.getBookTitle() + i));
         }
 
-        final Page<Book> mockPage = new PageImpl<>(mockBooks, PageRequest.of(page, size), 100L);
+        final Slice<BookSummary> mockSlice = new SliceImpl<>(mockBooks, PageRequest.of(page, size), true);
 
-        when(bookRepository.findAll(any(Pageable.class))).thenReturn(mockPage);
+        when(bookRepository.findSummaries(isNull(), any(Pageable.class))).thenReturn(mockSlice);
+        when(bookRepository.count()).thenReturn(100L);
 
         // Act
-        final Map<String, Object> result = bookServiceUnderTest.getAllBooks(page, size);
+        final BookListPage result = bookServiceUnderTest.getAllBooks(page, size, TotalMode.EXACT, BookView.SUMMARY);
 
         // Assert
-        assertTrue(result.containsKey("books"));
-        assertTrue(result.containsKey("totalElements"));
-        assertTrue(result.containsKey("totalPages"));
-        assertTrue(result.containsKey("currentPage"));
-        assertTrue(result.containsKey("pageSize"));
-
-        assertEquals(mockBooks, result.get("books"));
-        assertEquals(100L, result.get("totalElements"));
-        assertEquals(4, result.get("totalPages"));
-        assertEquals(1, result.get("currentPage"));
-        assertEquals(25, result.get("pageSize"));
+        assertEquals(new BookPage(mockBooks, new PageInfo(1, 25, true, 100L, 4, null)), result);
     }
 
-
     @Test
-    void filterBooks_ShouldReturnAMapWithFilteredBooksAndPaginationInfo() {
+    void filterBooks_ShouldReturnAPageWithFilteredBooksAndPaginationInfo() {
         // Arrange
-        final int page = 0;
+        final int page = 1;
         final int size = 25;
 
         final String bookTitle = "Test Book";
 
-        final List<Book> mockFilteredBooks = new ArrayList<>();
-        mockFilteredBooks.add(this.testBook);
-        final Page<Book> mockPage = new PageImpl<>(mockFilteredBooks, PageRequest.of(page, size), 1L);
+        final List<BookSummary> mockFilteredBooks = List.of(summaryOf(1L, bookTitle));
+        final Slice<BookSummary> mockSlice = new SliceImpl<>(mockFilteredBooks, PageRequest.of(0, size), true);
+
+        final BookFilter filter = new BookFilter(bookTitle, null, null, null, null, null, null, null, null, null, null, null);
+        when(bookRepository.sliceBooks(eq(filter), any(Pageable.class))).thenReturn(mockSlice);
+        when(bookRepository.countBooks(filter)).thenReturn(26L);
+
+        // Act
+        final BookListPage result = bookServiceUnderTest.filterBooks(bookTitle, null, null, null, null, null, null, null, null, null, null, null, page, size, TotalMode.EXACT, BookView.SUMMARY);
+
+        // Assert
+        assertEquals(new BookPage(mockFilteredBooks, new PageInfo(1, 25, true, 26L, 2, null)), result);
+    }
+
+    @Test
+    void getAllBooks_ShouldSkipTheCountQuery_WhenNoTotalIsRequested() {
+        // Arrange
+        final List<BookSummary> mockBooks = List.of(summaryOf(1L, testBook.getBookTitle()));
+        final Slice<BookSummary> mockSlice = new SliceImpl<>(mockBooks, PageRequest.of(0, 25), true);
+
+        when(bookRepository.findSummaries(isNull(), any(Pageable.class))).thenReturn(mockSlice);
+
+        // Act
+        final BookListPage result = bookServiceUnderTest.getAllBooks(0, 25, TotalMode.NONE, BookView.SUMMARY);
+
+        // Assert
+        assertEquals(new BookPage(mockBooks, new PageInfo(1, 25, true, null, null, null)), result);
+        verify(bookRepository, never()).count();
+        verifyNoInteractions(counters);
+    }
+
+    @Test
+    void filterBooks_ShouldEstimateTheTotalFromTheCountCache() {
+        // Arrange
+        final BookFilter filter = new BookFilter("Test Book", null, null, null, null, null, null, null, null, null, null, null);
+        final Slice<BookSummary> mockSlice = new SliceImpl<>(List.of(summaryOf(1L, "Test Book")), PageRequest.of(0, 25), true);
+
+        when(bookRepository.sliceBooks(eq(filter), any(Pageable.class))).thenReturn(mockSlice);
+        when(countCache.get(eq(filter), any())).thenReturn(60L);
+
+        // Act
+        final BookListPage result = bookServiceUnderTest.filterBooks("Test Book", null, null, null, null, null, null, null, null, null, null, null, 0, 25, TotalMode.ESTIMATE, BookView.SUMMARY);
+
+        // Assert
+        assertEquals(new PageInfo(1, 25, true, 60L, 3, true), result.page());
+        verify(bookRepository, never()).countBooks(any());
+    }
+
+    @Test
+    void filterBooks_ShouldListGridRows_WhenTheGridViewIsRequested() {
+        // Arrange
+        final BookFilter filter = new BookFilter("Test Book", null, null, null, null, null, null, null, null, null, null, null);
+        final List<BookGridRow> mockRows = List.of(new BookGridRow(1L, "Test Book", List.of("Andrea Meyer"), 2022));
+        final Slice<BookGridRow> mockSlice = new SliceImpl<>(mockRows, PageRequest.of(0, 25), false);
+
+        when(bookRepository.sliceBookGrid(eq(filter), any(Pageable.class))).thenReturn(mockSlice);
+
+        // Act
+        final BookListPage result = bookServiceUnderTest.filterBooks("Test Book", null, null, null, null, null, null, null, null, null, null, null, 0, 25, TotalMode.EXACT, BookView.GRID);
+
+        // Assert
+        assertEquals(new BookGridPage(mockRows, new PageInfo(1, 25, false, 1L, 1, null)), result);
+        verify(bookRepository, never()).sliceBooks(any(), any());
+    }
+
+
+    @Test
+    void seekAllBooks_ShouldReturnAWindowWithNeighbouringCursors() {
+        // Arrange
+        final int size = 2;
+        final Book book1 = new Book(1L, "A Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        final Book book2 = new Book(2L, "B Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        final Book book3 = new Book(3L, "C Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        final String cursor = Cursor.after("0 Book", 7L).encode();
 
-        when(bookRepository.queryBooks(eq(bookTitle), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), any(Pageable.class)))
-                .thenReturn(mockPage);
+        when(bookRepository.seekBooksForward(eq("0 Book"), eq(7L), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
 
         // Act
-        final Map<String, Object> result = bookServiceUnderTest.filterBooks(bookTitle, null, null, null, null, null, null, null, null, null, null, null, page, size);
+        final Map<String, Object> result = bookServiceUnderTest.seekAllBooks(cursor, size);
 
         // Assert
-        assertTrue(result.containsKey("books"));
-        assertTrue(result.containsKey("totalElements"));
-        assertTrue(result.containsKey("totalPages"));
-        assertTrue(result.containsKey("currentPage"));
-        assertTrue(result.containsKey("pageSize"));
+        assertEquals(List.of(book1, book2), result.get("books"));
+        assertEquals(Cursor.after("B Book", 2L).encode(), result.get("nextCursor"));
+        assertEquals(Cursor.before("A Book", 1L).encode(), result.get("prevCursor"));
+        assertEquals(size, result.get("pageSize"));
+    }
+
+
+    @Test
+    void seekAllBooks_ShouldQueryBackwardAndRestoreAscendingOrder() {
+        // Arrange
+        final int size = 2;
+        final Book book1 = new Book(1L, "A Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        final Book book2 = new Book(2L, "B Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        final String cursor = Cursor.before("C Book", 3L).encode();
+
+        when(bookRepository.seekBooksBackward(eq("C Book"), eq(3L), any(Pageable.class))).thenReturn(List.of(book2, book1));
 
-        assertEquals(mockFilteredBooks, result.get("books"));
-        assertEquals(1L, result.get("totalElements"));
-        assertEquals(1, result.get("totalPages"));
-        assertEquals(1, result.get("currentPage"));
-        assertEquals(25, result.get("pageSize"));
+        // Act
+        final Map<String, Object> result = bookServiceUnderTest.seekAllBooks(cursor, size);
+
+        // Assert
+        assertEquals(List.of(book1, book2), result.get("books"));
+        assertEquals(Cursor.after("B Book", 2L).encode(), result.get("nextCursor"));
+        assertNull(result.get("prevCursor"));
     }
 
+    @Test
+    void searchBooks_ShouldReturnTheBooksInTheOrderRankedByTheIndex() {
+        // Arrange
+        final Book book1 = new Book(1L, "Java Basics", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        final Book book2 = new Book(2L, "Java", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+
+        when(searchIndex.search("java", 25)).thenReturn(List.of(2L, 1L));
+        when(bookRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(book1, book2));
+
+        // Act
+        final Map<String, Object> result = bookServiceUnderTest.searchBooks("java", 25);
+
+        // Assert
+        assertEquals(List.of(book2, book1), result.get("books"));
+        assertEquals("java", result.get("query"));
+    }
 
     @Test
     void saveOrUpdateBook_ShouldValidateTheGivenBookInstanceAndReturnTheSavedBook() {
@@ -153,6 +281,64 @@ class BookServiceTest {
         assertEquals(persistedBook, resultBook);
         verify(validationHandler, times(1)).handleValidation(inputBook);
         verify(bookRepository, times(1)).save(inputBook);
+        verify(searchIndex, times(1)).index(persistedBook.getBookId(), persistedBook.getBookTitle());
+    }
+
+
+    @Test
+    void saveOrUpdateBook_ShouldUpdateWithTheCurrentVersionIfNoneIsGiven() {
+        // Arrange
+        final Book inputBook = new Book(1L, "Test Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+
+        when(bookRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(bookRepository.save(inputBook)).thenReturn(inputBook);
+
+        // Act
+        bookServiceUnderTest.saveOrUpdateBook(inputBook);
+
+        // Assert
+        assertEquals(3L, inputBook.getVersion());
+        assertEquals(1L, inputBook.getBookId());
+        verify(bookRepository, times(1)).attachReferences(inputBook);
+        verify(counters, never()).add(any(), anyLong());
+    }
+
+
+    @Test
+    void saveOrUpdateBook_ShouldKeepTheGivenVersion() {
+        // Arrange
+        final Book inputBook = new Book(1L, "Test Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        inputBook.setVersion(2L);
+
+        when(bookRepository.save(inputBook)).thenReturn(inputBook);
+
+        // Act
+        bookServiceUnderTest.saveOrUpdateBook(inputBook);
+
+        // Assert
+        assertEquals(2L, inputBook.getVersion());
+        verify(bookRepository, never()).findVersionById(any());
+    }
+
+
+    @Test
+    void saveOrUpdateBooks_ShouldAttachReferencesAndIndexTheSavedBooks() {
+        // Arrange
+        final Book newBook = new Book(null, "New Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+        final Book persistedBook = new Book(5L, "New Book", null, null, Set.of(testAuthor), 2022, 280, null, null, testPublisher, null, null, null);
+
+        when(bookRepository.saveAllAndFlush(List.of(newBook))).thenReturn(List.of(persistedBook));
+
+        // Act
+        final BatchWriteResult<Book> result = bookServiceUnderTest.saveOrUpdateBooks(List.of(newBook));
+
+        // Assert
+        assertEquals(List.of(persistedBook), result.items());
+        assertTrue(result.errors().isEmpty());
+        verify(bookRepository, times(1)).attachReferences(newBook);
+        verify(bookRepository, never()).findAllByBookIdIn(any());
+        verify(searchIndex, times(1)).index(5L, "New Book");
+        verify(counters, times(1)).add(CatalogCounters.Counter.BOOKS, 1);
     }
 
 
@@ -160,13 +346,15 @@ class BookServiceTest {
     void deleteBookById_DeletesBookIfIdExists() {
         // Arrange
         final Long bookId = 1L;
-        when(bookRepository.existsById(bookId)).thenReturn(true);
+        when(bookRepository.deleteBooks(List.of(bookId))).thenReturn(1);
 
         // Act
         bookServiceUnderTest.deleteBookById(bookId);
 
         // Assert
-        verify(bookRepository, times(1)).deleteById(bookId);
+        verify(searchIndex, times(1)).remove(bookId);
+        verify(counters, times(1)).add(CatalogCounters.Counter.BOOKS, -1);
+        verify(aggregates, times(1)).markDirty();
     }
 
 
@@ -175,10 +363,33 @@ class BookServiceTest {
         // Arrange
         final Long notExistingBookId = 99999L;
 
-        when(bookRepository.existsById(notExistingBookId)).thenReturn(false);
+        when(bookRepository.deleteBooks(List.of(notExistingBookId))).thenReturn(0);
 
         // Act and Assert
         assertThrows(BookNotFoundException.class, () -> bookServiceUnderTest.deleteBookById(notExistingBookId));
-        verify(bookRepository, never()).deleteById(notExistingBookId);
+        verify(searchIndex, never()).remove(notExistingBookId);
+        verifyNoInteractions(counters, aggregates);
+    }
+
+
+    @Test
+    void deleteBooksByIds_ShouldDeleteTheDistinctIdsAtOnceAndReportTheDeletedAmount() {
+        // Arrange
+        when(bookRepository.deleteBooks(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        // Act
+        final DeleteReport report = bookServiceUnderTest.deleteBooksByIds(List.of(1L, 2L, 1L, 3L));
+
+        // Assert
+        assertEquals(new DeleteReport(3, 2), report);
+        verify(searchIndex, times(3)).remove(any());
+        verify(counters, times(1)).add(CatalogCounters.Counter.BOOKS, -2);
+        verify(aggregates, times(1)).markDirty();
+    }
+
+
+    private BookSummary summaryOf(final Long bookId, final String bookTitle) {
+        return new BookSummary(bookId, bookTitle, null, null, List.of(new AuthorSummary(testAuthor.getAuthorId(), testAuthor.getFirstname(), testAuthor.getLastname())),
+                2022, null, new PublisherSummary(testPublisher.getPublisherId(), testPublisher.getPublisherName()), null, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package org.oplapp.service;
+
+import jakarta.persistence.*;
+import org.junit.jupiter.api.*;
+import org.oplapp.model.Tag;
+import org.oplapp.repository.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.transaction.annotation.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs without a test transaction, the second-level cache only serves data of committed transactions
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheStatisticsServiceTest {
+
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CacheStatisticsService cacheStatisticsServiceUnderTest;
+    private Tag tag;
+
+
+    @BeforeEach
+    void setup() {
+        cacheStatisticsServiceUnderTest = new CacheStatisticsService(entityManagerFactory);
+        tag = tagRepository.save(new Tag("Fiction"));
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        tagRepository.deleteById(tag.getTagId());
+    }
+
+
+    @Test
+    void getCacheStatistics_ShouldCountSecondLevelCacheHits() {
+        // Arrange
+        final long hitsBefore = tagHits();
+
+        // Act
+        tagRepository.findById(tag.getTagId());
+        tagRepository.findById(tag.getTagId());
+
+        // Assert
+        final Map<String, Object> response = cacheStatisticsServiceUnderTest.getCacheStatistics();
+        assertEquals(true, response.get("statisticsEnabled"));
+        assertTrue(response.containsKey("queryCache"));
+        assertTrue(tagHits() >= hitsBefore + 2);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private long tagHits() {
+        final Map<String, Object> regions = (Map<String, Object>) cacheStatisticsServiceUnderTest.getCacheStatistics().get("regions");
+        return (long) ((Map<String, Object>) regions.get("tags")).get("hits");
+    }
+}
@@ -7,9 +7,12 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.model.*;
+import org.oplapp.pagination.*;
 import org.oplapp.repository.*;
+import org.oplapp.statistics.*;
 import org.oplapp.validator.*;
 import org.springframework.data.domain.*;
 
@@ -23,12 +26,16 @@ class PublisherServiceTest {
 
     @Mock
     private ValidationHandler<Publisher> validationHandler;
+    @Mock
+    private CatalogCounters counters;
+    @Mock
+    private CountCache countCache;
 
     private PublisherService publisherServiceUnderTest;
 
     @BeforeEach
     void setup() {
-        publisherServiceUnderTest = new PublisherService(publisherRepository, validationHandler);
+        publisherServiceUnderTest = new PublisherService(publisherRepository, validationHandler, counters, countCache);
     }
 
 
@@ -61,70 +68,50 @@ class PublisherServiceTest {
 
 
     @Test
-    void getAllPublishers_ShouldReturnAMapWithPublishersAndPaginationInfo() {
+    void getAllPublishers_ShouldReturnAPageWithPublishersAndPaginationInfo() {
         // Arrange
         final int page = 0;
         final int size = 25;
 
-        final List<Publisher> mockPublishers = new ArrayList<>();
+        final List<PublisherSummary> mockPublishers = new ArrayList<>();
         for (int i = 1; i <= 10; i++) {
-            mockPublishers.add(new Publisher("Test Publisher" + i));
+            mockPublishers.add(new PublisherSummary((long) i, "Test Publisher" + i));
         }
 
-        final Page<Publisher> mockPage = new PageImpl<>(mockPublishers, PageRequest.of(page, size), 100L);
+        final Slice<PublisherSummary> mockSlice = new SliceImpl<>(mockPublishers, PageRequest.of(page, size), true);
 
-        when(publisherRepository.findAll(any(Pageable.class))).thenReturn(mockPage);
+        when(publisherRepository.slicePublishers(isNull(), any(Pageable.class))).thenReturn(mockSlice);
+        when(publisherRepository.count()).thenReturn(100L);
 
         // Act
-        final Map<String, Object> result = publisherServiceUnderTest.getAllPublishers(page, size);
+        final PublisherPage result = publisherServiceUnderTest.getAllPublishers(page, size, TotalMode.EXACT);
 
         // Assert
-        assertTrue(result.containsKey("publishers"));
-        assertTrue(result.containsKey("totalElements"));
-        assertTrue(result.containsKey("totalPages"));
-        assertTrue(result.containsKey("currentPage"));
-        assertTrue(result.containsKey("pageSize"));
-
-        assertEquals(mockPublishers, result.get("publishers"));
-        assertEquals(100L, result.get("totalElements"));
-        assertEquals(4, result.get("totalPages"));
-        assertEquals(1, result.get("currentPage"));
-        assertEquals(25, result.get("pageSize"));
+        assertEquals(mockPublishers, result.publishers());
+        assertEquals(new PageInfo(1, 25, true, 100L, 4, null), result.page());
     }
 
-
     @Test
-    void filterPublishers_ShouldReturnAMapWithFilteredPublishersAndPaginationInfo() {
+    void filterPublishers_ShouldReturnAPageWithFilteredPublishersAndPaginationInfo() {
         // Arrange
         final int page = 0;
         final int size = 25;
         final String publisherName = "Test Publisher";
 
-        final List<Publisher> mockFilteredPublishers = new ArrayList<>();
-        mockFilteredPublishers.add(new Publisher(publisherName));
-        final Page<Publisher> mockPage = new PageImpl<>(mockFilteredPublishers, PageRequest.of(page, size), 1L);
+        final List<PublisherSummary> mockFilteredPublishers = List.of(new PublisherSummary(1L, publisherName));
+        final Slice<PublisherSummary> mockSlice = new SliceImpl<>(mockFilteredPublishers, PageRequest.of(page, size), false);
 
-        when(publisherRepository.queryPublishers(eq(publisherName), any(Pageable.class)))
-                .thenReturn(mockPage);
+        when(publisherRepository.slicePublishers(eq(publisherName), any(Pageable.class)))
+                .thenReturn(mockSlice);
 
         // Act
-        final Map<String, Object> result = publisherServiceUnderTest.filterPublishers(publisherName, page, size);
+        final PublisherPage result = publisherServiceUnderTest.filterPublishers(publisherName, page, size, TotalMode.EXACT);
 
         // Assert
-        assertTrue(result.containsKey("publishers"));
-        assertTrue(result.containsKey("totalElements"));
-        assertTrue(result.containsKey("totalPages"));
-        assertTrue(result.containsKey("currentPage"));
-        assertTrue(result.containsKey("pageSize"));
-
-        assertEquals(mockFilteredPublishers, result.get("publishers"));
-        assertEquals(1L, result.get("totalElements"));
-        assertEquals(1, result.get("totalPages"));
-        assertEquals(1, result.get("currentPage"));
-        assertEquals(25, result.get("pageSize"));
+        assertEquals(mockFilteredPublishers, result.publishers());
+        assertEquals(new PageInfo(1, 25, false, 1L, 1, null), result.page());
     }
 
-
     @Test
     void saveOrUpdatePublisher_ShouldValidateTheGivenPublisherInstanceAndReturnTheSavedPublisher() {
         // Arrange
@@ -148,13 +135,14 @@ class PublisherServiceTest {
         // Arrange
         final Long publisherId = 1L;
 
-        when(publisherRepository.existsById(publisherId)).thenReturn(true);
+        when(publisherRepository.deletePublisher(publisherId)).thenReturn(1);
 
         // Act
         publisherServiceUnderTest.deletePublisherById(publisherId);
 
         // Assert
-        verify(publisherRepository, times(1)).deleteById(publisherId);
+        verify(publisherRepository, times(1)).deletePublisher(publisherId);
+        verify(publisherRepository, never()).existsById(publisherId);
     }
 
 
@@ -163,10 +151,22 @@ class PublisherServiceTest {
         // Arrange
         final Long notExistingPublisherId = 99999L;
 
-        when(publisherRepository.existsById(notExistingPublisherId)).thenReturn(false);
+        when(publisherRepository.deletePublisher(notExistingPublisherId)).thenReturn(0);
 
         // Act and Assert
         assertThrows(PublisherNotFoundException.class, () -> publisherServiceUnderTest.deletePublisherById(notExistingPublisherId));
-        verify(publisherRepository, never()).deleteById(notExistingPublisherId);
+    }
+
+
+    @Test
+    void deletePublisherById_ThrowsExceptionIfPublisherIsReferencedByBooks() {
+        // Arrange
+        final Long referencedPublisherId = 1L;
+
+        when(publisherRepository.deletePublisher(referencedPublisherId)).thenReturn(0);
+        when(publisherRepository.existsById(referencedPublisherId)).thenReturn(true);
+
+        // Act and Assert
+        assertThrows(PublisherInUseException.class, () -> publisherServiceUnderTest.deletePublisherById(referencedPublisherId));
     }
 }
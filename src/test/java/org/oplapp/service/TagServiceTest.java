@@ -7,8 +7,10 @@ import org.mockito.junit.jupiter.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import org.oplapp.dto.*;
 import org.oplapp.exceptions.*;
 import org.oplapp.repository.*;
+import org.oplapp.statistics.*;
 import org.oplapp.validator.*;
 import org.oplapp.model.Tag;
 
@@ -24,12 +26,16 @@ class TagServiceTest {
 
     @Mock
     private ValidationHandler<Tag> validationHandler;
+    @Mock
+    private CatalogCounters counters;
+    @Mock
+    private CatalogAggregates aggregates;
 
     private TagService tagServiceUnderTest;
 
     @BeforeEach
     void setup() {
-        tagServiceUnderTest = new TagService(tagRepository, validationHandler);
+        tagServiceUnderTest = new TagService(tagRepository, validationHandler, counters, aggregates);
     }
 
     @Test
@@ -58,6 +64,21 @@ class TagServiceTest {
         assertThrows(TagNotFoundException.class, () -> tagServiceUnderTest.getTagById(notExistingTagId));
     }
 
+    @Test
+    void getTagsByIds_ShouldReturnTheFoundTagsAndListTheMissingIds() {
+        // Arrange
+        final Tag testTag = new Tag(3L, "Java");
+
+        when(tagRepository.findAllById(List.of(3L, 4L))).thenReturn(List.of(testTag));
+
+        // Act
+        final BatchResult<Tag> result = tagServiceUnderTest.getTagsByIds(List.of(3L, 4L));
+
+        // Assert
+        assertEquals(List.of(testTag), result.items());
+        assertEquals(List.of(4L), result.missingIds());
+    }
+
     @Test
     void getAllTags_ShouldReturnAListOfTags() {
         // Arrange
@@ -97,13 +118,14 @@ class TagServiceTest {
         // Arrange
         final Long tagId = 1L;
 
-        when(tagRepository.existsById(tagId)).thenReturn(true);
+        when(tagRepository.deleteTag(tagId)).thenReturn(1);
 
         // Act
         tagServiceUnderTest.deleteTagById(tagId);
 
         // Assert
-        verify(tagRepository, times(1)).deleteById(tagId);
+        verify(counters, times(1)).add(CatalogCounters.Counter.TAGS, -1);
+        verify(aggregates, times(1)).markDirty();
     }
 
     @Test
@@ -111,10 +133,10 @@ class TagServiceTest {
         // Arrange
         final Long notExistingTagId = 99999L;
 
-        when(tagRepository.existsById(notExistingTagId)).thenReturn(false);
+        when(tagRepository.deleteTag(notExistingTagId)).thenReturn(0);
 
         // Act and Assert
         assertThrows(TagNotFoundException.class, () -> tagServiceUnderTest.deleteTagById(notExistingTagId));
-        verify(tagRepository, never()).deleteById(notExistingTagId);
+        verifyNoInteractions(aggregates);
     }
 }
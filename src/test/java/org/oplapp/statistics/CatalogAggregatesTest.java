@@ -0,0 +1,82 @@
+package org.oplapp.statistics;
+
+import org.junit.jupiter.api.*;
+import org.oplapp.model.*;
+import org.oplapp.model.Tag;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.*;
+import org.springframework.context.annotation.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "oplapp.statistics.top-authors=1")
+@Import(CatalogAggregates.class)
+class CatalogAggregatesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private CatalogAggregates aggregatesUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        final Publisher publisher = entityManager.persist(new Publisher("Test Publisher"));
+        final Author author1 = entityManager.persist(new Author("Andrea", "Meyer"));
+        final Author author2 = entityManager.persist(new Author("Jan", "Schulz"));
+        final Tag tag = entityManager.persist(new Tag("Fiction"));
+
+        entityManager.persist(new Book(null, "Book 1", null, "Novel", Set.of(author1), 1994, 100, null, null, publisher, Set.of(tag), "A", "1"));
+        entityManager.persist(new Book(null, "Book 2", null, "Novel", Set.of(author1, author2), 1999, 200, null, null, publisher, Set.of(tag), "A", "1"));
+        entityManager.persist(new Book(null, "Book 3", null, "Poetry", Set.of(author2), 2005, null, null, null, publisher, null, "B", "2"));
+        entityManager.persist(new Book(null, "Book 4", null, "Poetry", Set.of(author1), 2010, 50, null, null, publisher, null, "B", "2"));
+        entityManager.flush();
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAggregates_ShouldGroupBooksByEachDimension() {
+        // Act
+        final Map<String, Object> aggregates = aggregatesUnderTest.getAggregates();
+
+        // Assert
+        final List<Map<String, Object>> byGenre = (List<Map<String, Object>>) aggregates.get("byGenre");
+        assertEquals(Set.of(
+                Map.of("genre", "Novel", "books", 2L, "pages", 300L),
+                Map.of("genre", "Poetry", "books", 2L, "pages", 50L)), new HashSet<>(byGenre));
+
+        final List<Map<String, Object>> byDecade = (List<Map<String, Object>>) aggregates.get("byDecade");
+        assertEquals(Set.of(1990, 2000, 2010), byDecade.stream().map(group -> ((Number) group.get("decade")).intValue()).collect(Collectors.toSet()));
+
+        final List<Map<String, Object>> byShelf = (List<Map<String, Object>>) aggregates.get("byShelf");
+        assertEquals(2, byShelf.size());
+
+        final List<Map<String, Object>> byTag = (List<Map<String, Object>>) aggregates.get("byTag");
+        assertEquals(2L, byTag.get(0).get("books"));
+
+        final List<Map<String, Object>> topAuthors = (List<Map<String, Object>>) aggregates.get("topAuthors");
+        assertEquals(1, topAuthors.size());
+        assertEquals("Meyer, Andrea", topAuthors.get(0).get("name"));
+        assertEquals(3L, topAuthors.get(0).get("books"));
+    }
+
+
+    @Test
+    void getAggregates_ShouldServeTheSnapshotUntilItIsRefreshed() {
+        // Arrange
+        final Map<String, Object> first = aggregatesUnderTest.getAggregates();
+
+        // Act
+        final Map<String, Object> cached = aggregatesUnderTest.getAggregates();
+        aggregatesUnderTest.markDirty();
+        aggregatesUnderTest.refreshIfDirty();
+
+        // Assert
+        assertSame(first, cached);
+        assertNotSame(first, aggregatesUnderTest.getAggregates());
+    }
+}
@@ -0,0 +1,73 @@
+package org.oplapp.statistics;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.oplapp.repository.*;
+import org.springframework.transaction.support.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCountersTest {
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private PublisherRepository publisherRepository;
+    @Mock
+    private TagRepository tagRepository;
+
+    private CatalogCounters countersUnderTest;
+
+
+    @BeforeEach
+    void setup() {
+        countersUnderTest = new CatalogCounters(bookRepository, authorRepository, publisherRepository, tagRepository);
+    }
+
+
+    @Test
+    void reconcile_ShouldReplaceTheCountersWithTheDatabaseCounts() {
+        // Arrange
+        when(bookRepository.count()).thenReturn(12L);
+        when(authorRepository.count()).thenReturn(5L);
+        when(publisherRepository.count()).thenReturn(3L);
+        when(tagRepository.count()).thenReturn(7L);
+        countersUnderTest.add(CatalogCounters.Counter.BOOKS, 4);
+
+        // Act
+        countersUnderTest.reconcile();
+
+        // Assert
+        assertEquals(12L, countersUnderTest.get(CatalogCounters.Counter.BOOKS));
+        assertEquals(5L, countersUnderTest.getSummary().get("authors"));
+        assertEquals(3L, countersUnderTest.getSummary().get("publishers"));
+        assertEquals(7L, countersUnderTest.getSummary().get("tags"));
+        assertNotNull(countersUnderTest.getSummary().get("reconciledAt"));
+    }
+
+
+    @Test
+    void add_ShouldApplyTheChangeOnlyAfterTheTransactionCommitted() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Act
+            countersUnderTest.add(CatalogCounters.Counter.TAGS, 2);
+            final long beforeCommit = countersUnderTest.get(CatalogCounters.Counter.TAGS);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertEquals(0L, beforeCommit);
+            assertEquals(2L, countersUnderTest.get(CatalogCounters.Counter.TAGS));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}